@@ -0,0 +1,52 @@
+package edu.duke.ece651.factorysim.benchmarks;
+
+import edu.duke.ece651.factorysim.*;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures updating a frame's worth of delivery actors that are moving between tiles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DeliveryActorBenchmark {
+    @Param({"100", "10000"})
+    public int deliveries;
+
+    private DeliveryActor[] actors;
+    private Coordinate[] from;
+    private Coordinate[] to;
+    private int frame = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        TextureRegion texture = mock(TextureRegion.class, withSettings().stubOnly());
+        CoordinateMapper coordinateToWorld = (c, out) -> out.set(c.getX() * 16f, c.getY() * 16f);
+        actors = new DeliveryActor[deliveries];
+        from = new Coordinate[deliveries];
+        to = new Coordinate[deliveries];
+        for (int i = 0; i < deliveries; i++) {
+            Delivery delivery = mock(Delivery.class, withSettings().stubOnly());
+            from[i] = new Coordinate(i % 100, i / 100);
+            to[i] = new Coordinate(i % 100 + 1, i / 100);
+            when(delivery.getCurrentCoordinate()).thenReturn(from[i]);
+            actors[i] = new DeliveryActor(texture, coordinateToWorld);
+            actors[i].track(delivery);
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        // Every few frames the deliveries move to the next tile and back, like a simulation step at 5 steps/s
+        Coordinate[] targets = (frame++ / 12 & 1) == 0 ? to : from;
+        for (int i = 0; i < actors.length; i++) {
+            actors[i].update(1 / 60f, 5f, targets[i]);
+        }
+    }
+}
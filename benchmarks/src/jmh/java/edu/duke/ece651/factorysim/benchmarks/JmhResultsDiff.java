@@ -0,0 +1,83 @@
+package edu.duke.ece651.factorysim.benchmarks;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Compares two JMH JSON result files, e.g. from two commits, and prints the change of every benchmark's score.
+ * Usage: `JmhResultsDiff <baseline.json> <current.json>`.
+ */
+public class JmhResultsDiff {
+    /**
+     * Represents the score of one benchmark with one set of parameters.
+     *
+     * @param score is the primary metric score.
+     * @param error is the score error.
+     * @param unit is the unit of the score.
+     * @param higherIsBetter whether a higher score is better, true for throughput modes.
+     */
+    record Score(double score, double error, String unit, boolean higherIsBetter) { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultsDiff <baseline.json> <current.json>");
+            System.exit(1);
+            return;
+        }
+        Map<String, Score> baseline = read(Paths.get(args[0]));
+        Map<String, Score> current = read(Paths.get(args[1]));
+
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.score(), "new", now.unit());
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score() * 100;
+            // Only flag changes that are larger than the combined measurement error
+            boolean significant = Math.abs(now.score() - before.score()) > now.error() + before.error();
+            boolean better = now.higherIsBetter() == (change > 0);
+            String flag = !significant ? "" : better ? "  faster" : "  SLOWER";
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.score(), now.score(),
+                change, now.unit(), flag);
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-80s %14.3f %14s %9s%n", name, baseline.get(name).score(), "-", "removed");
+            }
+        }
+    }
+
+    /**
+     * Reads the scores of a JMH JSON result file, keyed by benchmark name and parameters.
+     *
+     * @param file is the result file.
+     * @return the scores in file order.
+     * @throws IOException when the file can't be read.
+     */
+    static Map<String, Score> read(Path file) throws IOException {
+        JsonValue root = new JsonReader().parse(Files.readString(file));
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonValue result : root) {
+            StringBuilder name = new StringBuilder(result.getString("benchmark"));
+            JsonValue params = result.get("params");
+            if (params != null) {
+                for (JsonValue param : params) {
+                    name.append(' ').append(param.name).append('=').append(param.asString());
+                }
+            }
+            JsonValue metric = result.get("primaryMetric");
+            String mode = result.getString("mode");
+            double error = metric.getDouble("scoreError", 0);
+            scores.put(name.toString(), new Score(metric.getDouble("score"), Double.isNaN(error) ? 0 : error,
+                metric.getString("scoreUnit"), mode.equals("thrpt")));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,38 @@
+package edu.duke.ece651.factorysim.benchmarks;
+
+import edu.duke.ece651.factorysim.PooledObject;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * The previous `ObjectPool` implementation backed by a `LinkedList` queue, kept as a baseline for benchmarks.
+ *
+ * @param <T> is the type of pooled objects.
+ */
+public class LinkedListObjectPool<T extends PooledObject> {
+    private final Queue<T> pool = new LinkedList<>();
+    private final Supplier<T> createFunc;
+
+    public LinkedListObjectPool(Supplier<T> createFunc) {
+        this.createFunc = createFunc;
+    }
+
+    public T borrow() {
+        T obj = pool.poll();
+        if (obj == null) {
+            obj = createFunc.get();
+        }
+        obj.onBorrowed();
+        return obj;
+    }
+
+    public void release(T obj) {
+        pool.offer(obj);
+        obj.onReleased();
+    }
+
+    public int size() {
+        return pool.size();
+    }
+}
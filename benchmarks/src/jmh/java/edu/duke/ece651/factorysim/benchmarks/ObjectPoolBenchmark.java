@@ -0,0 +1,135 @@
+package edu.duke.ece651.factorysim.benchmarks;
+
+import edu.duke.ece651.factorysim.ConcurrentObjectPool;
+import edu.duke.ece651.factorysim.ObjectPool;
+import edu.duke.ece651.factorysim.PooledObject;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pool implementations when borrowing and releasing a small batch of objects,
+ * from a single thread and from several threads sharing one pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ObjectPoolBenchmark {
+    private static final int BATCH = 16;
+
+    public static class Item implements PooledObject {
+        int uses = 0;
+
+        @Override
+        public void onBorrowed() { uses++; }
+
+        @Override
+        public void onReleased() { }
+    }
+
+    private LinkedListObjectPool<Item> linkedListPool;
+    private ObjectPool<Item> arrayPool;
+    private ConcurrentObjectPool<Item> concurrentPool;
+
+    @Setup
+    public void setup() {
+        linkedListPool = new LinkedListObjectPool<>(Item::new);
+        arrayPool = new ObjectPool<>(Item::new);
+        concurrentPool = new ConcurrentObjectPool<>(Item::new);
+    }
+
+    /**
+     * Per-thread buffer holding the objects borrowed during one invocation.
+     */
+    @State(Scope.Thread)
+    public static class Borrowed {
+        final Item[] items = new Item[BATCH];
+    }
+
+    @Benchmark
+    public void linkedList(Borrowed borrowed, Blackhole bh) {
+        Item[] items = borrowed.items;
+        for (int i = 0; i < BATCH; i++) {
+            items[i] = linkedListPool.borrow();
+        }
+        for (int i = 0; i < BATCH; i++) {
+            linkedListPool.release(items[i]);
+        }
+        bh.consume(items);
+    }
+
+    @Benchmark
+    public void array(Borrowed borrowed, Blackhole bh) {
+        Item[] items = borrowed.items;
+        for (int i = 0; i < BATCH; i++) {
+            items[i] = arrayPool.borrow();
+        }
+        for (int i = 0; i < BATCH; i++) {
+            arrayPool.release(items[i]);
+        }
+        bh.consume(items);
+    }
+
+    @Benchmark
+    public void concurrent(Borrowed borrowed, Blackhole bh) {
+        Item[] items = borrowed.items;
+        for (int i = 0; i < BATCH; i++) {
+            items[i] = concurrentPool.borrow();
+        }
+        for (int i = 0; i < BATCH; i++) {
+            concurrentPool.release(items[i]);
+        }
+        bh.consume(items);
+    }
+
+    // Neither the old pool nor `ObjectPool` is thread-safe, so the contended baseline locks the whole pool
+
+    @Benchmark
+    @Threads(4)
+    public void linkedListContended(Borrowed borrowed, Blackhole bh) {
+        Item[] items = borrowed.items;
+        for (int i = 0; i < BATCH; i++) {
+            synchronized (linkedListPool) {
+                items[i] = linkedListPool.borrow();
+            }
+        }
+        for (int i = 0; i < BATCH; i++) {
+            synchronized (linkedListPool) {
+                linkedListPool.release(items[i]);
+            }
+        }
+        bh.consume(items);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void arrayContended(Borrowed borrowed, Blackhole bh) {
+        Item[] items = borrowed.items;
+        for (int i = 0; i < BATCH; i++) {
+            synchronized (arrayPool) {
+                items[i] = arrayPool.borrow();
+            }
+        }
+        for (int i = 0; i < BATCH; i++) {
+            synchronized (arrayPool) {
+                arrayPool.release(items[i]);
+            }
+        }
+        bh.consume(items);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void concurrentContended(Borrowed borrowed, Blackhole bh) {
+        Item[] items = borrowed.items;
+        for (int i = 0; i < BATCH; i++) {
+            items[i] = concurrentPool.borrow();
+        }
+        for (int i = 0; i < BATCH; i++) {
+            concurrentPool.release(items[i]);
+        }
+        bh.consume(items);
+    }
+}
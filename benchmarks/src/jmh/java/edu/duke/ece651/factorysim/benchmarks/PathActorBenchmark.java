@@ -0,0 +1,64 @@
+package edu.duke.ece651.factorysim.benchmarks;
+
+import edu.duke.ece651.factorysim.*;
+
+import com.badlogic.gdx.graphics.g2d.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures constructing path actors for every path of a synthetic factory and drawing them.
+ * The sprite batch is a stub-only mock, so drawing measures the actor's own loop and the call overhead only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PathActorBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int buildings;
+
+    private TileMap tileMap;
+    private List<Path> paths;
+    private Animator<TextureRegion> animator;
+    private TextureRegion crossTexture;
+    private SpriteBatch spriteBatch;
+    private PathActor[] actors;
+    private final CoordinateMapper coordinateToWorld = (c, out) -> out.set(c.getX() * 16f, c.getY() * 16f);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Simulation sim = SyntheticFactory.build(buildings);
+        tileMap = sim.getWorld().getTileMap();
+        paths = SyntheticFactory.collectPaths(sim);
+
+        TextureRegion frame = mock(TextureRegion.class, withSettings().stubOnly());
+        when(frame.getRegionWidth()).thenReturn(16);
+        when(frame.getRegionHeight()).thenReturn(16);
+        animator = new Animator<>(new Animation<>(0.1f, frame), true);
+        crossTexture = mock(TextureRegion.class, withSettings().stubOnly());
+        spriteBatch = mock(SpriteBatch.class, withSettings().stubOnly());
+
+        actors = construct();
+    }
+
+    @Benchmark
+    public PathActor[] construct() {
+        PathActor[] built = new PathActor[paths.size()];
+        for (int i = 0; i < built.length; i++) {
+            built[i] = new PathActor(paths.get(i), tileMap, animator, crossTexture, coordinateToWorld);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public void drawPaths() {
+        for (PathActor actor : actors) {
+            actor.drawPaths(spriteBatch);
+        }
+    }
+}
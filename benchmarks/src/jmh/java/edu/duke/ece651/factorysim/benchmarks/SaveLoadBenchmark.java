@@ -0,0 +1,67 @@
+package edu.duke.ece651.factorysim.benchmarks;
+
+import edu.duke.ece651.factorysim.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving and loading simulations as JSON.
+ * `loadWithPaths` also looks up every path the way `GameWorld.setSimulation` does, which is the part of loading
+ * a save into the game world that doesn't need a GL context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SaveLoadBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int buildings;
+
+    private Simulation sim;
+    private File saveFile;
+    private File scratchFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        sim = SyntheticFactory.build(buildings);
+        sim.step(20);
+        saveFile = File.createTempFile("save", ".json");
+        scratchFile = File.createTempFile("scratch", ".json");
+        sim.save(saveFile.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        saveFile.delete();
+        scratchFile.delete();
+    }
+
+    @Benchmark
+    public String toJson() {
+        return sim.toJson();
+    }
+
+    @Benchmark
+    public void save() {
+        sim.save(scratchFile.getPath());
+    }
+
+    @Benchmark
+    public Simulation load() {
+        Simulation loaded = new Simulation(WorldBuilder.buildEmptyWorld(), 0, SyntheticFactory.silentLogger());
+        loaded.load(saveFile.getPath());
+        return loaded;
+    }
+
+    @Benchmark
+    public void loadWithPaths(Blackhole bh) {
+        Simulation loaded = load();
+        List<Path> paths = SyntheticFactory.collectPaths(loaded);
+        bh.consume(paths);
+    }
+}
@@ -0,0 +1,71 @@
+package edu.duke.ece651.factorysim.benchmarks;
+
+import edu.duke.ece651.factorysim.net.AsyncServerClient;
+import edu.duke.ece651.factorysim.net.StubServer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures round-trips to an in-process stub server with a simulated latency.
+ * `sequential` waits for each reply before sending the next request, the way the GUI used to, while `pipelined`
+ * queues a batch of requests and waits for all of them, so the difference is the cost of the caller's own waits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ServerClientBenchmark {
+    private static final int BATCH_SIZE = 16;
+
+    @Param({"0", "1"})
+    public int latencyMillis;
+
+    private StubServer server;
+    private AsyncServerClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        server = new StubServer(Duration.ofMillis(latencyMillis));
+        server.addPreset("bench", "{}");
+        client = new AsyncServerClient(server, Duration.ofMinutes(1));
+        client.signup("localhost", 0, "bench", "bench").join();
+        client.connect("localhost", 0, "bench", "bench").join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public String blocking() throws Exception {
+        String json = null;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            json = server.loadPreset("localhost", 0, "bench");
+        }
+        return json;
+    }
+
+    @Benchmark
+    public String sequential() {
+        String json = null;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            json = client.loadPreset("localhost", 0, "bench").join();
+        }
+        return json;
+    }
+
+    @Benchmark
+    public Object pipelined() {
+        List<CompletableFuture<String>> replies = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            replies.add(client.loadPreset("localhost", 0, "bench"));
+        }
+        return CompletableFuture.allOf(replies.toArray(new CompletableFuture[0])).join();
+    }
+}
@@ -0,0 +1,35 @@
+package edu.duke.ece651.factorysim.benchmarks;
+
+import edu.duke.ece651.factorysim.Simulation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a single `Simulation.step` on synthetic factories of increasing size.
+ * The factories are rebuilt every iteration so that the storages never fill up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SimulationBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int buildings;
+
+    private Simulation sim;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        sim = SyntheticFactory.build(buildings);
+        // Warm up the pipeline so every chain has deliveries in flight
+        sim.step(20);
+    }
+
+    @Benchmark
+    public int step() {
+        sim.step(1);
+        return sim.getCurrentTime();
+    }
+}
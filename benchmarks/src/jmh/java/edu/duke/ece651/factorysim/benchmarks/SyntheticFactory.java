@@ -0,0 +1,52 @@
+package edu.duke.ece651.factorysim.benchmarks;
+
+import edu.duke.ece651.factorysim.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Builds reproducible synthetic factories for benchmarks with `FactoryGenerator`.
+ */
+public class SyntheticFactory {
+    private static final long SEED = 651;
+
+    /**
+     * Creates a logger that discards everything, so benchmarks don't measure console output.
+     *
+     * @return the logger.
+     */
+    public static Logger silentLogger() {
+        return new StreamLogger(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Builds a simulation with a number of buildings, always the same for the same number.
+     *
+     * @param buildings is the total number of buildings.
+     * @return the built simulation.
+     * @throws IOException when the generated formula can't be written to a temporary file.
+     */
+    public static Simulation build(int buildings) throws IOException {
+        return new FactoryGenerator(FactoryGenerator.Config.ofSize(buildings, SEED)).generate(silentLogger());
+    }
+
+    /**
+     * Collects every path of a simulation, the same way `GameWorld.setSimulation` does.
+     *
+     * @param sim is the simulation.
+     * @return the paths from every source to every building.
+     */
+    public static List<Path> collectPaths(Simulation sim) {
+        List<Path> paths = new ArrayList<>();
+        for (Building building : sim.getWorld().getBuildings()) {
+            for (Building source : building.getSources()) {
+                Path path = sim.connectBuildings(source, building);
+                if (path != null) {
+                    paths.add(path);
+                }
+            }
+        }
+        return paths;
+    }
+}
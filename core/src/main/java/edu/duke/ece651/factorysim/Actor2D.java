@@ -1,5 +1,6 @@
 package edu.duke.ece651.factorysim;
 
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
 /**
@@ -17,4 +18,29 @@ public abstract class Actor2D {
     public Actor2D(float x, float y) {
         this.position = new Vector2(x, y);
     }
+
+    /**
+     * Gets the width of the area covered by the actor when it's rendered.
+     *
+     * @return the width of the actor's rendered area.
+     */
+    public float getBoundsWidth() { return 0f; }
+
+    /**
+     * Gets the height of the area covered by the actor when it's rendered.
+     *
+     * @return the height of the actor's rendered area.
+     */
+    public float getBoundsHeight() { return 0f; }
+
+    /**
+     * Checks whether the rendered area of the actor overlaps a view rectangle.
+     *
+     * @param view is the visible area in world space.
+     * @return true if any part of the actor may be visible, otherwise false.
+     */
+    public boolean isVisible(Rectangle view) {
+        return position.x <= view.x + view.width && position.x + getBoundsWidth() >= view.x &&
+               position.y <= view.y + view.height && position.y + getBoundsHeight() >= view.y;
+    }
 }
@@ -0,0 +1,360 @@
+package edu.duke.ece651.factorysim;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Periodically saves the simulation of a game world in the background, so a session can be recovered after a crash.
+ * <p>
+ * Each autosave is a binary snapshot, `snapshot-N.fsim`, plus a `CommandJournal` of the user commands since,
+ * `journal-N.fsj`.
+ * The snapshot is serialized under the simulation lock together with switching the game world to the new journal, so
+ * the two always line up, and it is compressed and written after the lock is released, on the autosave thread. The
+ * snapshot is written to a temporary file and moved in place, so a snapshot file is always complete, and older files
+ * are only deleted after that. Recovering loads the latest snapshot and replays the journals from it on with
+ * `CommandReplayer`.
+ * Closing the autosaver ends the session cleanly and deletes its files.
+ */
+public class Autosaver implements Closeable {
+    private static final long TICK_MILLIS = 1000;
+    private static final Pattern FILE_PATTERN = Pattern.compile("(snapshot|journal)-(\\d+)\\.(fsim|fsj)");
+
+    /**
+     * Represents how often to autosave. An autosave is taken when either interval has passed.
+     *
+     * @param interval is the wall-clock time between autosaves, or zero to not autosave by time.
+     * @param stepInterval is the number of time steps between autosaves, or zero to not autosave by steps.
+     */
+    public record Config(Duration interval, int stepInterval) {
+        public Config {
+            if (interval.isNegative() || stepInterval < 0) {
+                throw new IllegalArgumentException("Autosave intervals can't be negative");
+            }
+        }
+
+        /**
+         * Checks whether autosaving is turned on.
+         *
+         * @return true if either interval is set.
+         */
+        public boolean isEnabled() {
+            return !interval.isZero() || stepInterval > 0;
+        }
+    }
+
+    private record Capture(String json, int step) { }
+
+    private final GameWorld world;
+    private final Path dir;
+    private final Config config;
+    private volatile ScheduledExecutorService executor = null;
+
+    // Only touched by the autosave thread, or by the caller of `snapshot` and `tick` when not started
+    private int sequence = 0;
+    private int lastSnapshotStep = 0;
+    private long lastSnapshotNanos = 0;
+    private int lastMarkedStep = 0;
+    private CommandJournal journal = null;
+    private boolean closed = false;
+
+    /**
+     * Constructs an autosaver. It does nothing until started.
+     *
+     * @param world is the game world to autosave.
+     * @param dir is the directory of the snapshots and journals, it is created if needed.
+     * @param config is how often to autosave.
+     */
+    public Autosaver(GameWorld world, Path dir, Config config) {
+        this.world = world;
+        this.dir = dir;
+        this.config = config;
+    }
+
+    /**
+     * Gets the default autosave directory, in the user's home directory.
+     *
+     * @return the default autosave directory.
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".factorysim", "autosave");
+    }
+
+    /**
+     * Starts autosaving on a background thread, beginning with a snapshot. Does nothing if autosaving is turned off.
+     * Files left in the directory by an earlier session are deleted once the first snapshot is written, so recover or
+     * discard them first.
+     */
+    public synchronized void start() {
+        if (executor != null || closed || !config.isEnabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor((r) -> {
+            Thread thread = new Thread(r, "autosave");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.execute(this::snapshotQuietly);
+        executor.scheduleWithFixedDelay(this::tickQuietly, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Asks for a snapshot as soon as possible, e.g. after another simulation was loaded, which detaches the journal.
+     * Doesn't wait for an autosave in progress.
+     */
+    public void requestSnapshot() {
+        ScheduledExecutorService executor = this.executor;
+        if (executor == null) {
+            return;
+        }
+        try {
+            executor.execute(this::snapshotQuietly);
+        } catch (RejectedExecutionException e) {
+            // Closed meanwhile
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            world.log("[WARN] Autosave failed: " + e.getMessage());
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (Exception e) {
+            world.log("[WARN] Autosave failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Takes a snapshot if one is due, otherwise marks in the journal how far the simulation has stepped, so recovery
+     * steps that far even without further actions.
+     *
+     * @throws IOException when a snapshot can't be written.
+     */
+    public synchronized void tick() throws IOException {
+        if (closed) {
+            return;
+        }
+        int step = world.getCurrentStep();
+        boolean stepsDue = config.stepInterval() > 0 && step - lastSnapshotStep >= config.stepInterval();
+        boolean timeDue = !config.interval().isZero()
+            && System.nanoTime() - lastSnapshotNanos >= config.interval().toNanos();
+        if (journal == null || journal.hasFailed() || !world.hasJournal(journal) || stepsDue || timeDue) {
+            snapshot();
+        } else if (step > lastMarkedStep) {
+            journal.record(new Command.Step(step, 0));
+            lastMarkedStep = step;
+        }
+    }
+
+    /**
+     * Takes a snapshot and starts a new journal, then deletes the older ones.
+     *
+     * @throws IOException when the snapshot or the journal can't be written.
+     */
+    public synchronized void snapshot() throws IOException {
+        if (closed) {
+            return;
+        }
+        Files.createDirectories(dir);
+
+        // Number after files left by an earlier session, which are kept until this session has a snapshot
+        if (sequence == 0) {
+            sequence = Math.max(latestSnapshot(dir), latest(list(dir, "journal")));
+        }
+        int next = sequence + 1;
+        Path journalPath = journalPath(dir, next);
+        CommandJournal nextJournal = new CommandJournal(Files.newOutputStream(journalPath));
+        try {
+            nextJournal.begin(null);
+        } catch (IOException e) {
+            nextJournal.close();
+            Files.deleteIfExists(journalPath);
+            throw e;
+        }
+
+        // Serialize and switch journals at the same point, stepping only waits for the serialization
+        Capture capture;
+        try {
+            capture = world.callWithSimulationLock(() -> {
+                Simulation sim = world.getSim();
+                if (journal != null) {
+                    world.removeJournal(journal);
+                }
+                world.addJournal(nextJournal);
+                return new Capture(sim.toJson(), sim.getCurrentTime());
+            });
+        } catch (RuntimeException e) {
+            nextJournal.close();
+            Files.deleteIfExists(journalPath);
+            throw e;
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        journal = nextJournal;
+        sequence = next;
+        lastSnapshotStep = capture.step();
+        lastMarkedStep = lastSnapshotStep;
+        lastSnapshotNanos = System.nanoTime();
+
+        // Compress and write the snapshot off the lock, and only then forget the previous one
+        Path tmp = Files.createTempFile(dir, "snapshot", ".tmp." + BinarySave.EXTENSION);
+        try {
+            SimulationIO.write(capture.json(), tmp.toString());
+            Files.move(tmp, snapshotPath(dir, next), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        deleteBefore(dir, next);
+    }
+
+    /**
+     * Gets the sequence number of the latest snapshot taken by this autosaver.
+     *
+     * @return the sequence number, or 0 if no snapshot was taken yet.
+     */
+    public synchronized int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Stops autosaving, waiting for an autosave in progress, and deletes the files since the session ended cleanly.
+     *
+     * @throws IOException when the files can't be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            executor = this.executor;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            closed = true;
+            if (journal != null) {
+                world.runWithSimulationLock(() -> world.removeJournal(journal));
+                journal.close();
+                journal = null;
+            }
+        }
+        discard();
+    }
+
+    /**
+     * Checks whether the directory has an autosave left by a session that didn't end cleanly.
+     * Only meaningful before starting, afterwards it finds this session's own autosave.
+     *
+     * @return true if there is a snapshot to recover.
+     * @throws IOException when the directory can't be listed.
+     */
+    public boolean hasRecovery() throws IOException {
+        return latestSnapshot(dir) > 0;
+    }
+
+    /**
+     * Recovers the simulation of the autosave left in the directory: loads the latest snapshot and replays the
+     * journals from it on.
+     *
+     * @param logger is the logger of the recovered simulation.
+     * @return the recovered simulation.
+     * @throws IOException when there is no snapshot, or the snapshot or a journal can't be read.
+     */
+    public Simulation recover(Logger logger) throws IOException {
+        int latest = latestSnapshot(dir);
+        if (latest == 0) {
+            throw new IOException("No autosave to recover in " + dir);
+        }
+        Simulation sim = SimulationIO.load(snapshotPath(dir, latest).toString(), logger);
+
+        // A journal newer than the snapshot exists if the process died while writing the next snapshot
+        for (int seq : list(dir, "journal")) {
+            if (seq >= latest) {
+                CommandReplayer.replay(sim, CommandJournal.read(journalPath(dir, seq).toString()).commands());
+            }
+        }
+        return sim;
+    }
+
+    /**
+     * Deletes the snapshots and journals in the directory.
+     *
+     * @throws IOException when the files can't be deleted.
+     */
+    public void discard() throws IOException {
+        deleteBefore(dir, Integer.MAX_VALUE);
+    }
+
+    private static Path snapshotPath(Path dir, int seq) {
+        return dir.resolve("snapshot-" + seq + "." + BinarySave.EXTENSION);
+    }
+
+    private static Path journalPath(Path dir, int seq) {
+        return dir.resolve("journal-" + seq + "." + CommandJournal.EXTENSION);
+    }
+
+    private static int latestSnapshot(Path dir) throws IOException {
+        return latest(list(dir, "snapshot"));
+    }
+
+    private static int latest(List<Integer> sequences) {
+        return sequences.isEmpty() ? 0 : sequences.getLast();
+    }
+
+    // Sequence numbers of the files of a kind, in ascending order
+    private static List<Integer> list(Path dir, String kind) throws IOException {
+        List<Integer> sequences = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return sequences;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                Matcher m = FILE_PATTERN.matcher(file.getFileName().toString());
+                if (m.matches() && m.group(1).equals(kind)) {
+                    sequences.add(Integer.parseInt(m.group(2)));
+                }
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+
+    private static void deleteBefore(Path dir, int seq) throws IOException {
+        for (int old : list(dir, "snapshot")) {
+            if (old < seq) {
+                Files.deleteIfExists(snapshotPath(dir, old));
+            }
+        }
+        for (int old : list(dir, "journal")) {
+            if (old < seq) {
+                Files.deleteIfExists(journalPath(dir, old));
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package edu.duke.ece651.factorysim;
+
+import java.io.*;
+import java.lang.management.*;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs a simulation without any rendering, as fast as possible, and measures how it performed.
+ * Used by the launcher's batch mode for regression runs on machines without a display.
+ */
+public class BatchRunner implements DeliveryListener {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final Simulation sim;
+    private final int chunkSize;
+    private long deliveriesStarted = 0;
+    private long deliveriesCompleted = 0;
+
+    /**
+     * Represents the measurements of one batch run.
+     *
+     * @param source is where the simulation was loaded from.
+     * @param startStep is the time step of the simulation before the run.
+     * @param endStep is the time step of the simulation after the run.
+     * @param wallNanos is the wall time of the run in nanoseconds.
+     * @param peakHeapBytes is the peak heap usage during the run, summed over all heap memory pools.
+     * @param gcCount is the number of garbage collections during the run.
+     * @param gcMillis is the accumulated garbage collection time during the run.
+     * @param deliveriesStarted is the number of deliveries scheduled during the run.
+     * @param deliveriesCompleted is the number of deliveries that arrived during the run.
+     * @param finished whether the run went until the simulation finished rather than for a fixed number of steps.
+     * @param error is the message of the exception that stopped the run, or null if it completed.
+     */
+    public record Report(String source, int startStep, int endStep, long wallNanos, long peakHeapBytes,
+                         long gcCount, long gcMillis, long deliveriesStarted, long deliveriesCompleted,
+                         boolean finished, String error) {
+        /**
+         * Gets the number of steps executed during the run.
+         *
+         * @return the number of steps.
+         */
+        public int steps() {
+            return endStep - startStep;
+        }
+
+        /**
+         * Gets the achieved simulation speed.
+         *
+         * @return steps per second of wall time.
+         */
+        public double stepsPerSecond() {
+            return wallNanos <= 0 ? 0 : steps() * 1_000_000_000.0 / wallNanos;
+        }
+
+        /**
+         * Formats the report as a single-line JSON object.
+         *
+         * @return the JSON text.
+         */
+        public String toJson() {
+            return "{" +
+                "\"source\":" + quote(source) + "," +
+                "\"startStep\":" + startStep + "," +
+                "\"endStep\":" + endStep + "," +
+                "\"steps\":" + steps() + "," +
+                "\"wallMillis\":" + String.format(Locale.ROOT, "%.3f", wallNanos / 1_000_000.0) + "," +
+                "\"stepsPerSecond\":" + String.format(Locale.ROOT, "%.3f", stepsPerSecond()) + "," +
+                "\"peakHeapBytes\":" + peakHeapBytes + "," +
+                "\"gcCount\":" + gcCount + "," +
+                "\"gcMillis\":" + gcMillis + "," +
+                "\"deliveriesStarted\":" + deliveriesStarted + "," +
+                "\"deliveriesCompleted\":" + deliveriesCompleted + "," +
+                "\"finished\":" + finished + "," +
+                "\"error\":" + quote(error) +
+                "}";
+        }
+
+        static String quote(String s) {
+            if (s == null) {
+                return "null";
+            }
+            StringBuilder sb = new StringBuilder("\"");
+            for (char c : s.toCharArray()) {
+                switch (c) {
+                    case '"' -> sb.append("\\\"");
+                    case '\\' -> sb.append("\\\\");
+                    case '\n' -> sb.append("\\n");
+                    case '\r' -> sb.append("\\r");
+                    case '\t' -> sb.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            sb.append(String.format("\\u%04x", (int)c));
+                        } else {
+                            sb.append(c);
+                        }
+                    }
+                }
+            }
+            return sb.append('"').toString();
+        }
+    }
+
+    /**
+     * Constructs a runner for a simulation.
+     *
+     * @param sim is the simulation to run.
+     * @param chunkSize is the number of steps executed per `Simulation.step` call.
+     */
+    public BatchRunner(Simulation sim, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive, got " + chunkSize);
+        }
+        this.sim = sim;
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchRunner(Simulation sim) {
+        this(sim, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Runs the simulation for a number of steps.
+     *
+     * @param source is a description of where the simulation came from, included in the report.
+     * @param steps is the number of steps to run.
+     * @return the report of the run.
+     */
+    public Report run(String source, int steps) {
+        return measure(source, false, () -> {
+            int remaining = steps;
+            while (remaining > 0) {
+                int n = Math.min(chunkSize, remaining);
+                sim.step(n);
+                remaining -= n;
+            }
+        });
+    }
+
+    /**
+     * Runs the simulation until it finishes.
+     *
+     * @param source is a description of where the simulation came from, included in the report.
+     * @return the report of the run.
+     */
+    public Report runUntilFinished(String source) {
+        return measure(source, true, sim::finish);
+    }
+
+    /**
+     * Runs a save file headlessly and prints a JSON report.
+     * Usage: `<save.json|save.fsim> [-steps <n>] [-report <report.json>] [-log]`. Without `-steps`, runs until finished.
+     *
+     * @param args is the command line arguments.
+     * @return the exit code: 0 if the run completed, 1 if the arguments were invalid, 2 if the run failed.
+     */
+    public static int runFromArgs(String[] args) {
+        String savePath = null;
+        int steps = -1;
+        String reportPath = null;
+        boolean log = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-steps" -> steps = Integer.parseInt(args[++i]);
+                    case "-report" -> reportPath = args[++i];
+                    case "-log" -> log = true;
+                    default -> {
+                        if (savePath != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        savePath = args[i];
+                    }
+                }
+            }
+            if (savePath == null) {
+                throw new IllegalArgumentException("Missing save file");
+            }
+            if (steps == 0 || steps < -1) {
+                throw new IllegalArgumentException("Steps must be positive");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Missing option value" : e.getMessage());
+            return 1;
+        }
+
+        Logger logger = new StreamLogger(log ? System.err : new PrintStream(OutputStream.nullOutputStream()));
+        Report report;
+        try {
+            BatchRunner runner = new BatchRunner(SimulationIO.load(savePath, logger));
+            report = steps > 0 ? runner.run(savePath, steps) : runner.runUntilFinished(savePath);
+        } catch (Exception e) {
+            report = new Report(savePath, 0, 0, 0, 0, 0, 0, 0, 0, steps < 0, "Failed to load: " + e.getMessage());
+        }
+
+        String json = report.toJson();
+        if (reportPath == null) {
+            System.out.println(json);
+        } else {
+            try (PrintWriter out = new PrintWriter(new FileWriter(reportPath))) {
+                out.println(json);
+            } catch (IOException e) {
+                System.err.println("Failed to write report: " + e.getMessage());
+                return 2;
+            }
+        }
+        return report.error() == null ? 0 : 2;
+    }
+
+    private Report measure(String source, boolean finished, Runnable body) {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter((pool) -> pool.getType() == MemoryType.HEAP && pool.isValid())
+            .toList();
+        for (MemoryPoolMXBean pool : heapPools) {
+            pool.resetPeakUsage();
+        }
+        long gcCountBefore = getGcCount();
+        long gcMillisBefore = getGcMillis();
+        deliveriesStarted = 0;
+        deliveriesCompleted = 0;
+
+        sim.getDeliverySchedule().subscribe(this);
+        int startStep = sim.getCurrentTime();
+        String error = null;
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } catch (Exception e) {
+            error = e.getMessage() == null ? e.toString() : e.getMessage();
+        }
+        long wallNanos = System.nanoTime() - start;
+        sim.getDeliverySchedule().unsubscribe(this);
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage peak = pool.getPeakUsage();
+            if (peak != null) {
+                peakHeap += peak.getUsed();
+            }
+        }
+        return new Report(source, startStep, sim.getCurrentTime(), wallNanos, peakHeap,
+            getGcCount() - gcCountBefore, getGcMillis() - gcMillisBefore,
+            deliveriesStarted, deliveriesCompleted, finished, error);
+    }
+
+    private static long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long getGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    @Override
+    public void onDeliveryAdded(Delivery delivery) {
+        deliveriesStarted++;
+    }
+
+    @Override
+    public void onDeliveryFinished(Delivery delivery) {
+        deliveriesCompleted++;
+    }
+}
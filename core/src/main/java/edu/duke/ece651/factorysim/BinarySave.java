@@ -0,0 +1,353 @@
+package edu.duke.ece651.factorysim;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.*;
+
+/**
+ * Converts save documents between JSON and a compact binary snapshot format.
+ * <p>
+ * A snapshot starts with a header: the magic number `FSIM`, a format version, flags, and the length of the body.
+ * The body, optionally DEFLATE-compressed, holds a table of every distinct string (keys, item, recipe and building
+ * names are stored once) followed by the document tree, where strings are table indices, integers are zigzag
+ * varints, and arrays of integers, such as tile-map flows, are packed without per-element tags.
+ * <p>
+ * `Simulation` only serializes to and from JSON, so snapshots are transcoded from and to its JSON document. They
+ * make saves smaller on disk and over the network, but encoding and decoding is extra work on top
+ * of the JSON, so they don't save or load faster than JSON.
+ */
+public final class BinarySave {
+    public static final String EXTENSION = "fsim";
+    public static final int MAGIC = 0x4653494D; // "FSIM"
+    public static final int VERSION = 1;
+
+    private static final int FLAG_DEFLATE = 1;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_LONG = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_STRING = 5;
+    private static final int TAG_ARRAY = 6;
+    private static final int TAG_OBJECT = 7;
+    private static final int TAG_LONG_ARRAY = 8;
+
+    private BinarySave() { }
+
+    /**
+     * Checks whether a path names a binary snapshot, by its extension.
+     *
+     * @param path is the path of the file.
+     * @return true if the file is a binary snapshot, false if it is JSON.
+     */
+    public static boolean isBinary(String path) {
+        return path.toLowerCase(Locale.ROOT).endsWith("." + EXTENSION);
+    }
+
+    /**
+     * Encodes a JSON document as a binary snapshot.
+     *
+     * @param json is the reader of the JSON document.
+     * @param out is the stream to write the snapshot to, it is flushed but not closed.
+     * @param compress whether to compress the body.
+     * @throws IOException when reading or writing fails.
+     */
+    public static void encode(Reader json, OutputStream out, boolean compress) throws IOException {
+        JsonValue root = new JsonReader().parse(json);
+
+        // Intern every string first, so the table can be written before the tree
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        intern(root, strings);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        OutputStream bodyStream = compress ? new DeflaterOutputStream(body, new Deflater(Deflater.BEST_SPEED)) : body;
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(bodyStream));
+        writeVarint(data, strings.size());
+        for (String s : strings.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(data, bytes.length);
+            data.write(bytes);
+        }
+        writeValue(data, root, strings);
+        data.close();
+
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeShort(VERSION);
+        header.writeByte(compress ? FLAG_DEFLATE : 0);
+        header.writeInt(body.size());
+        body.writeTo(header);
+        header.flush();
+    }
+
+    /**
+     * Decodes a binary snapshot into a JSON document.
+     *
+     * @param in is the stream to read the snapshot from.
+     * @param json is the writer to write the JSON document to, it is flushed but not closed.
+     * @throws IOException when the snapshot is malformed, of an unsupported version, or reading or writing fails.
+     */
+    public static void decode(InputStream in, Writer json) throws IOException {
+        DataInputStream header = new DataInputStream(in);
+        if (header.readInt() != MAGIC) {
+            throw new IOException("Not a binary snapshot");
+        }
+        int version = header.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ", expected " + VERSION);
+        }
+        int flags = header.readUnsignedByte();
+        int length = header.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid snapshot length " + length);
+        }
+        byte[] body = header.readNBytes(length);
+        if (body.length != length) {
+            throw new IOException("Truncated snapshot, expected " + length + " bytes, got " + body.length);
+        }
+
+        InputStream bodyStream = new ByteArrayInputStream(body);
+        if ((flags & FLAG_DEFLATE) != 0) {
+            bodyStream = new InflaterInputStream(bodyStream);
+        }
+        DataInputStream data = new DataInputStream(new BufferedInputStream(bodyStream));
+        String[] strings = new String[readLength(data)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = new String(data.readNBytes(readLength(data)), StandardCharsets.UTF_8);
+        }
+
+        Writer out = new BufferedWriter(json);
+        readValue(data, strings, out);
+        out.flush();
+    }
+
+    private static void intern(JsonValue value, Map<String, Integer> strings) {
+        if (value.name != null) {
+            strings.putIfAbsent(value.name, strings.size());
+        }
+        if (value.isString()) {
+            strings.putIfAbsent(value.asString(), strings.size());
+        }
+        for (JsonValue child = value.child; child != null; child = child.next) {
+            intern(child, strings);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, JsonValue value, Map<String, Integer> strings)
+        throws IOException {
+        switch (value.type()) {
+            case nullValue -> out.writeByte(TAG_NULL);
+            case booleanValue -> out.writeByte(value.asBoolean() ? TAG_TRUE : TAG_FALSE);
+            case longValue -> {
+                out.writeByte(TAG_LONG);
+                writeVarint(out, zigzag(value.asLong()));
+            }
+            case doubleValue -> {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble(value.asDouble());
+            }
+            case stringValue -> {
+                out.writeByte(TAG_STRING);
+                writeVarint(out, strings.get(value.asString()));
+            }
+            case array -> {
+                if (value.size > 0 && isLongArray(value)) {
+                    out.writeByte(TAG_LONG_ARRAY);
+                    writeVarint(out, value.size);
+                    for (JsonValue child = value.child; child != null; child = child.next) {
+                        writeVarint(out, zigzag(child.asLong()));
+                    }
+                } else {
+                    out.writeByte(TAG_ARRAY);
+                    writeVarint(out, value.size);
+                    for (JsonValue child = value.child; child != null; child = child.next) {
+                        writeValue(out, child, strings);
+                    }
+                }
+            }
+            case object -> {
+                out.writeByte(TAG_OBJECT);
+                writeVarint(out, value.size);
+                for (JsonValue child = value.child; child != null; child = child.next) {
+                    writeVarint(out, strings.get(child.name));
+                    writeValue(out, child, strings);
+                }
+            }
+        }
+    }
+
+    private static boolean isLongArray(JsonValue array) {
+        for (JsonValue child = array.child; child != null; child = child.next) {
+            if (child.type() != JsonValue.ValueType.longValue) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void readValue(DataInputStream in, String[] strings, Writer out) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case TAG_NULL -> out.write("null");
+            case TAG_FALSE -> out.write("false");
+            case TAG_TRUE -> out.write("true");
+            case TAG_LONG -> out.write(Long.toString(unzigzag(readVarint(in))));
+            case TAG_DOUBLE -> out.write(Double.toString(in.readDouble()));
+            case TAG_STRING -> writeString(out, readString(in, strings));
+            case TAG_ARRAY -> {
+                int n = readLength(in);
+                out.write('[');
+                for (int i = 0; i < n; i++) {
+                    if (i > 0) {
+                        out.write(',');
+                    }
+                    readValue(in, strings, out);
+                }
+                out.write(']');
+            }
+            case TAG_LONG_ARRAY -> {
+                int n = readLength(in);
+                out.write('[');
+                for (int i = 0; i < n; i++) {
+                    if (i > 0) {
+                        out.write(',');
+                    }
+                    out.write(Long.toString(unzigzag(readVarint(in))));
+                }
+                out.write(']');
+            }
+            case TAG_OBJECT -> {
+                int n = readLength(in);
+                out.write('{');
+                for (int i = 0; i < n; i++) {
+                    if (i > 0) {
+                        out.write(',');
+                    }
+                    writeString(out, readString(in, strings));
+                    out.write(':');
+                    readValue(in, strings, out);
+                }
+                out.write('}');
+            }
+            default -> throw new IOException("Invalid value tag " + tag);
+        }
+    }
+
+    private static String readString(DataInputStream in, String[] strings) throws IOException {
+        int index = readLength(in);
+        if (index >= strings.length) {
+            throw new IOException("Invalid string index " + index);
+        }
+        return strings[index];
+    }
+
+    private static void writeString(Writer out, String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int)c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    static long zigzag(long n) {
+        return (n << 1) ^ (n >> 63);
+    }
+
+    static long unzigzag(long n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    static void writeVarint(DataOutputStream out, long n) throws IOException {
+        while ((n & ~0x7FL) != 0) {
+            out.writeByte((int)((n & 0x7F) | 0x80));
+            n >>>= 7;
+        }
+        out.writeByte((int)n);
+    }
+
+    static long readVarint(DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static int readLength(DataInputStream in) throws IOException {
+        long n = readVarint(in);
+        if (n < 0 || n > Integer.MAX_VALUE) {
+            throw new IOException("Invalid length " + n);
+        }
+        return (int)n;
+    }
+
+    /**
+     * Converts a save file between JSON and binary, by the extensions of the paths.
+     *
+     * @param inPath is the path of the file to convert.
+     * @param outPath is the path of the converted file.
+     * @throws IOException when the files can't be read or written, or the input is malformed.
+     */
+    public static void convert(String inPath, String outPath) throws IOException {
+        boolean fromBinary = isBinary(inPath);
+        boolean toBinary = isBinary(outPath);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(inPath));
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(outPath))) {
+            if (fromBinary == toBinary) {
+                in.transferTo(out);
+            } else if (toBinary) {
+                encode(new InputStreamReader(in, StandardCharsets.UTF_8), out, true);
+            } else {
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                decode(in, writer);
+                writer.flush();
+            }
+        }
+    }
+
+    /**
+     * Converts a save file from command line arguments.
+     * Usage: `<in> <out>`, where a `.fsim` extension means binary and anything else JSON.
+     *
+     * @param args is the command line arguments.
+     * @return the exit code: 0 on success, 1 if the arguments were invalid, 2 if conversion failed.
+     */
+    public static int runFromArgs(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Expected an input and an output path");
+            return 1;
+        }
+        try {
+            convert(args[0], args[1]);
+            System.out.println("Converted " + args[0] + " (" + new File(args[0]).length() + " bytes) to "
+                + args[1] + " (" + new File(args[1]).length() + " bytes)");
+            return 0;
+        } catch (Exception e) {
+            System.err.println("Failed to convert: " + e.getMessage());
+            return 2;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package edu.duke.ece651.factorysim;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.*;
 
 /**
@@ -12,7 +10,7 @@ public class BuildingActor extends Actor2D {
 
     private final Animator<TextureRegion> animator;
 
-    private final Texture removeTexture;
+    private final TextureRegion removeTexture;
 
     /**
      * Get the underlying `Building` instance used by this `BuildingActor`.
@@ -30,7 +28,7 @@ public class BuildingActor extends Actor2D {
      * @param x is the x coordinate of the absolute position of the actor.
      * @param y is the y coordinate of the absolute position of the actor.
      */
-    public BuildingActor(Building building, Animation<TextureRegion> animation, Texture removeTexture,
+    public BuildingActor(Building building, Animation<TextureRegion> animation, TextureRegion removeTexture,
                          float x, float y) {
         super(x, y);
         this.building = building;
@@ -38,13 +36,30 @@ public class BuildingActor extends Actor2D {
         this.removeTexture = removeTexture;
     }
 
+    @Override
+    public float getBoundsWidth() { return animator.getCurrentKeyFrame().getRegionWidth(); }
+
+    @Override
+    public float getBoundsHeight() { return animator.getCurrentKeyFrame().getRegionHeight(); }
+
     public void update(float dt) {
         animator.step(dt);
     }
 
     public void draw(SpriteBatch spriteBatch) {
+        draw(spriteBatch, null);
+    }
+
+    /**
+     * Draws the building, and the remove texture over it if it's pending to be removed.
+     *
+     * @param spriteBatch is the sprite batch to draw with.
+     * @param snapshot is the latest snapshot from the worker thread, or null to read the building directly.
+     */
+    public void draw(SpriteBatch spriteBatch, SimulationSnapshot snapshot) {
         spriteBatch.draw(animator.getCurrentKeyFrame(), position.x, position.y);
-        if (building.isPendingRemoval()) {
+        boolean pendingRemoval = snapshot == null ? building.isPendingRemoval() : snapshot.isPendingRemoval(building);
+        if (pendingRemoval) {
             spriteBatch.draw(removeTexture, position.x, position.y);
         }
     }
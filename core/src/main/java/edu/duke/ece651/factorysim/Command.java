@@ -0,0 +1,63 @@
+package edu.duke.ece651.factorysim;
+
+import java.util.List;
+
+/**
+ * Represents a call to one of the entry points that change a simulation, as recorded in a `CommandJournal`.
+ * Every command carries the time step it was made at, and refers to buildings, items, types and policies by name, so
+ * it can be applied to another copy of the simulation by `CommandReplayer`.
+ */
+public sealed interface Command {
+    /**
+     * Gets the time step the command was made at.
+     *
+     * @return the time step.
+     */
+    int step();
+
+    record BuildMine(int step, String name, String item, int x, int y) implements Command { }
+
+    record BuildFactory(int step, String name, String type, int x, int y) implements Command { }
+
+    record BuildStorage(int step, String name, String item, int capacity, double priority, int x, int y)
+        implements Command { }
+
+    record BuildDronePort(int step, String name, int x, int y) implements Command { }
+
+    /**
+     * Represents how a waste disposal handles one type of waste.
+     *
+     * @param item is the name of the waste item.
+     * @param capacity is how much of it can be held.
+     * @param disposalRate is how much of it is disposed at a time.
+     * @param timeSteps is how many time steps disposing takes.
+     */
+    record Waste(String item, int capacity, int disposalRate, int timeSteps) { }
+
+    record BuildWasteDisposal(int step, String name, int x, int y, List<Waste> wastes) implements Command {
+        public BuildWasteDisposal {
+            wastes = List.copyOf(wastes);
+        }
+    }
+
+    record ConnectPath(int step, String from, String to) implements Command { }
+
+    record DisconnectPath(int step, String from, String to) implements Command { }
+
+    record RemoveBuilding(int step, String name) implements Command { }
+
+    record SetPolicy(int step, String type, String policy, String building) implements Command { }
+
+    record MakeUserRequest(int step, String item, String building) implements Command { }
+
+    /**
+     * Represents stepping the simulation. A count of 0 only marks that the simulation reached the time step, e.g. by
+     * stepping in real time, so replaying catches up to it.
+     *
+     * @param step is the time step stepping started at.
+     * @param count is the number of steps.
+     */
+    record Step(int step, int count) implements Command { }
+
+    record Finish(int step) implements Command { }
+}
@@ -0,0 +1,430 @@
+package edu.duke.ece651.factorysim;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Writes and reads a compact binary journal of `Command`s.
+ * <p>
+ * A journal starts with a header: the magic number `FSJL`, a format version, and the state the commands apply to as
+ * a binary snapshot, which is empty for autosave journals that continue from a separate snapshot file. Each command
+ * follows as a tag byte, its time step as a varint and its fields, where integers are zigzag varints and strings are
+ * written once and referred to by index afterwards, since the same building and item names come up again and again.
+ * A journal may end with an end record holding the time step and the SHA-256 hash of the final state, which
+ * `CommandReplayer` checks its result against.
+ * <p>
+ * Commands are flushed as they are recorded, without syncing to the disk, so recording costs a small write on the
+ * thread that made the change. Commands recorded before `begin` are kept in memory, so a journal can be attached
+ * under the simulation lock and its header written after the lock is released. A write error stops the journal
+ * instead of failing the command, and `hasFailed` tells its owner to start over.
+ */
+public class CommandJournal implements Closeable {
+    public static final String EXTENSION = "fsj";
+    public static final int MAGIC = 0x46534A4C; // "FSJL"
+    public static final int VERSION = 1;
+
+    private static final int TAG_BUILD_MINE = 1;
+    private static final int TAG_BUILD_FACTORY = 2;
+    private static final int TAG_BUILD_STORAGE = 3;
+    private static final int TAG_BUILD_DRONE_PORT = 4;
+    private static final int TAG_BUILD_WASTE_DISPOSAL = 5;
+    private static final int TAG_CONNECT_PATH = 6;
+    private static final int TAG_DISCONNECT_PATH = 7;
+    private static final int TAG_REMOVE_BUILDING = 8;
+    private static final int TAG_SET_POLICY = 9;
+    private static final int TAG_MAKE_USER_REQUEST = 10;
+    private static final int TAG_STEP = 11;
+    private static final int TAG_FINISH = 12;
+    private static final int TAG_END = 127;
+
+    private static final int HASH_BYTES = 32;
+
+    /**
+     * Represents the end of a journal.
+     *
+     * @param step is the time step of the simulation when the journal ended.
+     * @param stateHash is the hex SHA-256 hash of the simulation's JSON document then, see `stateHash`.
+     */
+    public record End(int step, String stateHash) { }
+
+    /**
+     * Represents what was read from a journal.
+     *
+     * @param initialState is the JSON document of the state the commands apply to, or null if not included.
+     * @param commands are the commands in the order they were recorded.
+     * @param end is the end record, or null if the journal wasn't ended, e.g. because the process died.
+     */
+    public record Contents(String initialState, List<Command> commands, End end) { }
+
+    private final OutputStream out;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private DataOutputStream data = new DataOutputStream(pending);
+    private final Map<String, Integer> strings = new HashMap<>();
+    private int count = 0;
+    private boolean failed = false;
+    private boolean closed = false;
+
+    /**
+     * Constructs a journal that writes to a stream once `begin` is called.
+     *
+     * @param out is the stream to write the journal to, it is closed with the journal.
+     */
+    public CommandJournal(OutputStream out) {
+        this.out = new BufferedOutputStream(out);
+    }
+
+    /**
+     * Writes the header, followed by the commands recorded so far.
+     *
+     * @param initialState is the JSON document of the state the commands apply to, or null to not include it.
+     * @throws IOException when the header can't be written.
+     */
+    public synchronized void begin(String initialState) throws IOException {
+        if (pending == null) {
+            throw new IllegalStateException("Journal already begun");
+        }
+        byte[] state = new byte[0];
+        if (initialState != null) {
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            BinarySave.encode(new StringReader(initialState), snapshot, true);
+            state = snapshot.toByteArray();
+        }
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeShort(VERSION);
+        BinarySave.writeVarint(header, state.length);
+        header.write(state);
+        pending.writeTo(header);
+        header.flush();
+        pending = null;
+        data = header;
+    }
+
+    /**
+     * Appends a command.
+     *
+     * @param command is the command to append.
+     */
+    public synchronized void record(Command command) {
+        if (failed || closed) {
+            return;
+        }
+        try {
+            write(command);
+            count++;
+            if (pending == null) {
+                data.flush();
+            }
+        } catch (IOException e) {
+            failed = true;
+        }
+    }
+
+    /**
+     * Appends the end record and closes the journal.
+     *
+     * @param end is the final time step and state hash.
+     * @throws IOException when the end record can't be written.
+     */
+    public synchronized void end(End end) throws IOException {
+        if (!closed && !failed) {
+            data.writeByte(TAG_END);
+            writeInt(end.step());
+            data.write(HexFormat.of().parseHex(end.stateHash()));
+        }
+        close();
+    }
+
+    /**
+     * Gets the number of commands recorded.
+     *
+     * @return the number of commands.
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Checks whether a command could not be written, so the journal is missing commands from then on.
+     *
+     * @return true if writing failed.
+     */
+    public synchronized boolean hasFailed() {
+        return failed;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (failed) {
+            // The error was already noted, and flushing would only fail again
+            try {
+                out.close();
+            } catch (IOException e) {
+                // Ignored
+            }
+            return;
+        }
+        try {
+            if (pending != null) {
+                begin(null);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Hashes the state of a simulation, the way journals and the replayer compare it.
+     *
+     * @param json is the JSON document of the simulation, e.g. from `Simulation.toJson`.
+     * @return the hex SHA-256 hash of the UTF-8 document.
+     */
+    public static String stateHash(String json) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void write(Command command) throws IOException {
+        switch (command) {
+            case Command.BuildMine c -> {
+                writeHead(TAG_BUILD_MINE, c);
+                writeString(c.name());
+                writeString(c.item());
+                writeInt(c.x());
+                writeInt(c.y());
+            }
+            case Command.BuildFactory c -> {
+                writeHead(TAG_BUILD_FACTORY, c);
+                writeString(c.name());
+                writeString(c.type());
+                writeInt(c.x());
+                writeInt(c.y());
+            }
+            case Command.BuildStorage c -> {
+                writeHead(TAG_BUILD_STORAGE, c);
+                writeString(c.name());
+                writeString(c.item());
+                writeInt(c.capacity());
+                data.writeDouble(c.priority());
+                writeInt(c.x());
+                writeInt(c.y());
+            }
+            case Command.BuildDronePort c -> {
+                writeHead(TAG_BUILD_DRONE_PORT, c);
+                writeString(c.name());
+                writeInt(c.x());
+                writeInt(c.y());
+            }
+            case Command.BuildWasteDisposal c -> {
+                writeHead(TAG_BUILD_WASTE_DISPOSAL, c);
+                writeString(c.name());
+                writeInt(c.x());
+                writeInt(c.y());
+                BinarySave.writeVarint(data, c.wastes().size());
+                for (Command.Waste waste : c.wastes()) {
+                    writeString(waste.item());
+                    writeInt(waste.capacity());
+                    writeInt(waste.disposalRate());
+                    writeInt(waste.timeSteps());
+                }
+            }
+            case Command.ConnectPath c -> {
+                writeHead(TAG_CONNECT_PATH, c);
+                writeString(c.from());
+                writeString(c.to());
+            }
+            case Command.DisconnectPath c -> {
+                writeHead(TAG_DISCONNECT_PATH, c);
+                writeString(c.from());
+                writeString(c.to());
+            }
+            case Command.RemoveBuilding c -> {
+                writeHead(TAG_REMOVE_BUILDING, c);
+                writeString(c.name());
+            }
+            case Command.SetPolicy c -> {
+                writeHead(TAG_SET_POLICY, c);
+                writeString(c.type());
+                writeString(c.policy());
+                writeString(c.building());
+            }
+            case Command.MakeUserRequest c -> {
+                writeHead(TAG_MAKE_USER_REQUEST, c);
+                writeString(c.item());
+                writeString(c.building());
+            }
+            case Command.Step c -> {
+                writeHead(TAG_STEP, c);
+                writeInt(c.count());
+            }
+            case Command.Finish c -> writeHead(TAG_FINISH, c);
+        }
+    }
+
+    private void writeHead(int tag, Command command) throws IOException {
+        data.writeByte(tag);
+        writeInt(command.step());
+    }
+
+    private void writeInt(int n) throws IOException {
+        BinarySave.writeVarint(data, BinarySave.zigzag(n));
+    }
+
+    // A string is written in full the first time, as index 0, and as its index plus 1 afterwards
+    private void writeString(String s) throws IOException {
+        Integer index = strings.get(s);
+        if (index != null) {
+            BinarySave.writeVarint(data, index + 1);
+            return;
+        }
+        strings.put(s, strings.size());
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        BinarySave.writeVarint(data, 0);
+        BinarySave.writeVarint(data, bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Reads a journal. A last command that was cut short by a crash is ignored.
+     *
+     * @param in is the stream to read the journal from, it is not closed.
+     * @return the initial state, commands and end record of the journal.
+     * @throws IOException when the header is malformed or of an unsupported version, or a command is malformed.
+     */
+    public static Contents read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a command journal");
+        }
+        int version = data.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal version " + version + ", expected " + VERSION);
+        }
+        int stateLength = BinarySave.readLength(data);
+        String initialState = null;
+        if (stateLength > 0) {
+            byte[] state = data.readNBytes(stateLength);
+            if (state.length != stateLength) {
+                throw new IOException("Truncated journal header");
+            }
+            StringWriter json = new StringWriter();
+            BinarySave.decode(new ByteArrayInputStream(state), json);
+            initialState = json.toString();
+        }
+
+        Reader reader = new Reader(data);
+        List<Command> commands = new ArrayList<>();
+        End end = null;
+        try {
+            int tag;
+            while ((tag = data.read()) != -1) {
+                if (tag == TAG_END) {
+                    int step = reader.readInt();
+                    byte[] hash = data.readNBytes(HASH_BYTES);
+                    if (hash.length != HASH_BYTES) {
+                        throw new EOFException();
+                    }
+                    end = new End(step, HexFormat.of().formatHex(hash));
+                    break;
+                }
+                commands.add(reader.readCommand(tag));
+            }
+        } catch (EOFException e) {
+            // The last command was cut short, keep the ones before it
+        }
+        return new Contents(initialState, commands, end);
+    }
+
+    /**
+     * Reads a journal file.
+     *
+     * @param path is the path of the journal file.
+     * @return the initial state, commands and end record of the journal.
+     * @throws IOException when the file can't be read or is malformed.
+     */
+    public static Contents read(String path) throws IOException {
+        try (InputStream in = new FileInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    private static class Reader {
+        private final DataInputStream data;
+        private final List<String> strings = new ArrayList<>();
+
+        Reader(DataInputStream data) {
+            this.data = data;
+        }
+
+        Command readCommand(int tag) throws IOException {
+            if (tag < TAG_BUILD_MINE || tag > TAG_FINISH) {
+                throw new IOException("Unknown command tag " + tag);
+            }
+            int step = readInt();
+            return switch (tag) {
+                case TAG_BUILD_MINE -> new Command.BuildMine(step, readString(), readString(), readInt(), readInt());
+                case TAG_BUILD_FACTORY ->
+                    new Command.BuildFactory(step, readString(), readString(), readInt(), readInt());
+                case TAG_BUILD_STORAGE -> new Command.BuildStorage(step, readString(), readString(), readInt(),
+                    data.readDouble(), readInt(), readInt());
+                case TAG_BUILD_DRONE_PORT -> new Command.BuildDronePort(step, readString(), readInt(), readInt());
+                case TAG_BUILD_WASTE_DISPOSAL -> {
+                    String name = readString();
+                    int x = readInt();
+                    int y = readInt();
+                    int n = BinarySave.readLength(data);
+                    List<Command.Waste> wastes = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        wastes.add(new Command.Waste(readString(), readInt(), readInt(), readInt()));
+                    }
+                    yield new Command.BuildWasteDisposal(step, name, x, y, wastes);
+                }
+                case TAG_CONNECT_PATH -> new Command.ConnectPath(step, readString(), readString());
+                case TAG_DISCONNECT_PATH -> new Command.DisconnectPath(step, readString(), readString());
+                case TAG_REMOVE_BUILDING -> new Command.RemoveBuilding(step, readString());
+                case TAG_SET_POLICY -> new Command.SetPolicy(step, readString(), readString(), readString());
+                case TAG_MAKE_USER_REQUEST -> new Command.MakeUserRequest(step, readString(), readString());
+                case TAG_STEP -> new Command.Step(step, readInt());
+                case TAG_FINISH -> new Command.Finish(step);
+                default -> throw new IOException("Unknown command tag " + tag);
+            };
+        }
+
+        int readInt() throws IOException {
+            long n = BinarySave.unzigzag(BinarySave.readVarint(data));
+            if (n < Integer.MIN_VALUE || n > Integer.MAX_VALUE) {
+                throw new IOException("Integer out of range: " + n);
+            }
+            return (int)n;
+        }
+
+        String readString() throws IOException {
+            int index = BinarySave.readLength(data);
+            if (index > 0) {
+                if (index > strings.size()) {
+                    throw new IOException("Invalid string index " + index);
+                }
+                return strings.get(index - 1);
+            }
+            int length = BinarySave.readLength(data);
+            byte[] bytes = data.readNBytes(length);
+            if (bytes.length != length) {
+                throw new EOFException();
+            }
+            String s = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(s);
+            return s;
+        }
+    }
+}
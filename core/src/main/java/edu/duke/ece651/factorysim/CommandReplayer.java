@@ -0,0 +1,336 @@
+package edu.duke.ece651.factorysim;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Replays the commands of a `CommandJournal` on a simulation without the game world, e.g. on top of an autosave
+ * snapshot after a crash, or headlessly to reproduce a recorded session.
+ * Buildings are created and added the same way `GameWorld` builds them, and the simulation is stepped to the time
+ * step of each command before it is applied. A command that fails is logged and skipped, so a journal recorded
+ * against a slightly different state still restores as much as it can.
+ * When a building is fully removed, its paths are disconnected at that time step the same way `GameWorld` does it,
+ * since they aren't recorded as commands.
+ */
+public final class CommandReplayer {
+    private CommandReplayer() { }
+
+    /**
+     * Represents the outcome of replaying a recorded session.
+     *
+     * @param source is where the journal was read from.
+     * @param commands is the number of commands replayed.
+     * @param failed is the number of commands that failed.
+     * @param startStep is the time step of the initial state.
+     * @param endStep is the time step of the simulation after the replay.
+     * @param wallNanos is the wall time of the replay in nanoseconds, without loading the initial state.
+     * @param expectedHash is the state hash recorded at the end of the session, or null if it wasn't ended.
+     * @param actualHash is the state hash after the replay, or null if the replay failed.
+     * @param error is the message of the exception that stopped the replay, or null if it completed.
+     */
+    public record Report(String source, int commands, int failed, int startStep, int endStep, long wallNanos,
+                         String expectedHash, String actualHash, String error) {
+        /**
+         * Checks whether the replay reproduced the recorded session.
+         *
+         * @return true if the final state hashes are equal.
+         */
+        public boolean matches() {
+            return error == null && expectedHash != null && expectedHash.equals(actualHash);
+        }
+
+        /**
+         * Formats the report as a single-line JSON object.
+         *
+         * @return the JSON text.
+         */
+        public String toJson() {
+            double stepsPerSecond = wallNanos <= 0 ? 0 : (endStep - startStep) * 1_000_000_000.0 / wallNanos;
+            return "{" +
+                "\"source\":" + BatchRunner.Report.quote(source) + "," +
+                "\"commands\":" + commands + "," +
+                "\"failed\":" + failed + "," +
+                "\"startStep\":" + startStep + "," +
+                "\"endStep\":" + endStep + "," +
+                "\"wallMillis\":" + String.format(Locale.ROOT, "%.3f", wallNanos / 1_000_000.0) + "," +
+                "\"stepsPerSecond\":" + String.format(Locale.ROOT, "%.3f", stepsPerSecond) + "," +
+                "\"expectedHash\":" + BatchRunner.Report.quote(expectedHash) + "," +
+                "\"actualHash\":" + BatchRunner.Report.quote(actualHash) + "," +
+                "\"matches\":" + matches() + "," +
+                "\"error\":" + BatchRunner.Report.quote(error) +
+                "}";
+        }
+    }
+
+    /**
+     * Replays commands on a simulation.
+     *
+     * @param sim is the simulation to replay on.
+     * @param commands are the commands in the order they were recorded.
+     * @return the number of commands that failed.
+     */
+    public static int replay(Simulation sim, List<Command> commands) {
+        Consumer<Building> onBuildingRemoved = (building) -> disconnectRemovedBuilding(sim, building);
+        sim.subscribeToOnBuildingRemoved(onBuildingRemoved);
+        try {
+            int failed = 0;
+            for (Command command : commands) {
+                try {
+                    apply(sim, command);
+                } catch (Exception e) {
+                    failed++;
+                    sim.getLogger().log("Failed to replay " + command + ": " + e.getMessage());
+                }
+            }
+            return failed;
+        } finally {
+            sim.unsubscribeToOnBuildingRemoved(onBuildingRemoved);
+        }
+    }
+
+    /**
+     * Disconnects a fully removed building from the buildings it's connected to, the way `GameWorld` demolishes it.
+     * Buildings that are working are left connected.
+     *
+     * @param sim is the simulation the building got removed from.
+     * @param building is the removed building.
+     */
+    private static void disconnectRemovedBuilding(Simulation sim, Building building) {
+        if (!building.canBeRemovedImmediately()) {
+            return;
+        }
+        for (Building other : new ArrayList<>(sim.getWorld().getBuildings())) {
+            if (other == building || !other.canBeRemovedImmediately()) {
+                continue;
+            }
+            boolean from = building.getSources().contains(other);
+            boolean to = other.getSources().contains(building);
+            try {
+                if (to) {
+                    sim.disconnectBuildings(building, other);
+                }
+                if (from) {
+                    sim.disconnectBuildings(other, building);
+                }
+            } catch (Exception ignored) { }
+        }
+    }
+
+    /**
+     * Steps a simulation to the time step of a command, then applies it.
+     *
+     * @param sim is the simulation to apply the command on.
+     * @param command is the command to apply.
+     * @throws IllegalArgumentException when the command refers to something that doesn't exist.
+     */
+    public static void apply(Simulation sim, Command command) {
+        stepTo(sim, command.step());
+
+        World world = sim.getWorld();
+        switch (command) {
+            case Command.BuildMine c -> build(world, new MineBuilding(findMiningRecipe(world, c.item()), c.name(), sim),
+                c.x(), c.y());
+            case Command.BuildFactory c -> build(world, new FactoryBuilding(findType(world, c.type()), c.name(),
+                new ArrayList<>(), sim), c.x(), c.y());
+            case Command.BuildStorage c -> build(world, new StorageBuilding(c.name(), new ArrayList<>(), sim,
+                new Item(c.item()), c.capacity(), c.priority()), c.x(), c.y());
+            case Command.BuildDronePort c -> build(world, new DronePortBuilding(c.name(), Collections.emptyList(), sim),
+                c.x(), c.y());
+            case Command.BuildWasteDisposal c -> {
+                LinkedHashMap<Item, Integer> wasteTypes = new LinkedHashMap<>();
+                LinkedHashMap<Item, Integer> disposalRates = new LinkedHashMap<>();
+                LinkedHashMap<Item, Integer> timeSteps = new LinkedHashMap<>();
+                for (Command.Waste waste : c.wastes()) {
+                    Item item = new Item(waste.item());
+                    wasteTypes.put(item, waste.capacity());
+                    disposalRates.put(item, waste.disposalRate());
+                    timeSteps.put(item, waste.timeSteps());
+                }
+                build(world, new WasteDisposalBuilding(c.name(), wasteTypes, disposalRates, timeSteps, sim),
+                    c.x(), c.y());
+            }
+            case Command.ConnectPath c -> {
+                if (sim.connectBuildings(findBuilding(world, c.from()), findBuilding(world, c.to())) == null) {
+                    throw new IllegalArgumentException("No valid path from " + c.from() + " to " + c.to());
+                }
+            }
+            case Command.DisconnectPath c ->
+                sim.disconnectBuildings(findBuilding(world, c.from()), findBuilding(world, c.to()));
+            case Command.RemoveBuilding c -> sim.removeBuilding(findBuilding(world, c.name()));
+            case Command.SetPolicy c -> sim.setPolicy(c.type(), c.policy(), c.building());
+            case Command.MakeUserRequest c -> sim.makeUserRequest(c.item(), c.building());
+            case Command.Step c -> {
+                if (c.count() > 0) {
+                    sim.step(c.count());
+                }
+            }
+            case Command.Finish c -> sim.finish();
+        }
+    }
+
+    private static void stepTo(Simulation sim, int step) {
+        if (step > sim.getCurrentTime()) {
+            sim.step(step - sim.getCurrentTime());
+        }
+    }
+
+    private static void build(World world, Building building, int x, int y) {
+        building.setLocation(new Coordinate(x, y));
+        if (!world.tryAddBuilding(building)) {
+            throw new IllegalArgumentException("Failed to build " + building.getName() + " at "
+                + building.getLocation());
+        }
+    }
+
+    /**
+     * Replays a recorded session from its initial state, steps to the time step it ended at, and compares the final
+     * state hash with the recorded one.
+     *
+     * @param source is a description of where the journal came from, included in the report.
+     * @param contents is the journal, which must include its initial state.
+     * @param logger is the logger of the replayed simulation.
+     * @return the report of the replay.
+     */
+    public static Report run(String source, CommandJournal.Contents contents, Logger logger) {
+        List<Command> commands = contents.commands();
+        CommandJournal.End end = contents.end();
+        String expectedHash = end == null ? null : end.stateHash();
+        if (contents.initialState() == null) {
+            return new Report(source, 0, 0, 0, 0, 0, expectedHash, null, "Journal has no initial state");
+        }
+
+        Simulation sim;
+        try {
+            sim = SimulationIO.load(new StringReader(contents.initialState()), logger);
+        } catch (Exception e) {
+            return new Report(source, 0, 0, 0, 0, 0, expectedHash, null, "Failed to load: " + e.getMessage());
+        }
+        int startStep = sim.getCurrentTime();
+        int failed = 0;
+        String actualHash = null;
+        String error = null;
+        long start = System.nanoTime();
+        try {
+            failed = replay(sim, commands);
+            if (end != null) {
+                stepTo(sim, end.step());
+            }
+            actualHash = CommandJournal.stateHash(sim.toJson());
+        } catch (Exception e) {
+            error = e.getMessage() == null ? e.toString() : e.getMessage();
+        }
+        long wallNanos = System.nanoTime() - start;
+        return new Report(source, commands.size(), failed, startStep, sim.getCurrentTime(), wallNanos, expectedHash,
+            actualHash, error);
+    }
+
+    /**
+     * Replays a recorded session headlessly and prints a JSON report.
+     * Usage: `<session.fsj> [-report <report.json>] [-log]`.
+     *
+     * @param args is the command line arguments.
+     * @return the exit code: 0 if the final state matches the recording, 1 if the arguments were invalid, 2 if the
+     *         replay failed, 3 if the final state differs or the recording wasn't ended.
+     */
+    public static int runFromArgs(String[] args) {
+        String journalPath = null;
+        String reportPath = null;
+        boolean log = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-report" -> reportPath = args[++i];
+                    case "-log" -> log = true;
+                    default -> {
+                        if (journalPath != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        journalPath = args[i];
+                    }
+                }
+            }
+            if (journalPath == null) {
+                throw new IllegalArgumentException("Missing journal file");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Missing option value" : e.getMessage());
+            return 1;
+        }
+
+        Logger logger = new StreamLogger(log ? System.err : new PrintStream(OutputStream.nullOutputStream()));
+        Report report;
+        try {
+            report = run(journalPath, CommandJournal.read(journalPath), logger);
+        } catch (IOException e) {
+            report = new Report(journalPath, 0, 0, 0, 0, 0, null, null, "Failed to read: " + e.getMessage());
+        }
+
+        String json = report.toJson();
+        if (reportPath == null) {
+            System.out.println(json);
+        } else {
+            try (PrintWriter out = new PrintWriter(new FileWriter(reportPath))) {
+                out.println(json);
+            } catch (IOException e) {
+                System.err.println("Failed to write report: " + e.getMessage());
+                return 2;
+            }
+        }
+        if (report.error() != null) {
+            return 2;
+        }
+        return report.matches() ? 0 : 3;
+    }
+
+    /**
+     * Finds a building by name.
+     *
+     * @param world is the world to search.
+     * @param name is the name of the building.
+     * @return the building.
+     * @throws IllegalArgumentException when there is no such building.
+     */
+    static Building findBuilding(World world, String name) {
+        for (Building building : world.getBuildings()) {
+            if (building.getName().equals(name)) {
+                return building;
+            }
+        }
+        throw new IllegalArgumentException("No building named " + name);
+    }
+
+    /**
+     * Finds the recipe a mine uses for an item, the way the mine output dialog picks it.
+     *
+     * @param world is the world to search.
+     * @param item is the name of the mined item.
+     * @return the recipe.
+     * @throws IllegalArgumentException when there is no recipe mining the item.
+     */
+    static Recipe findMiningRecipe(World world, String item) {
+        for (Recipe recipe : world.getRecipes()) {
+            if (recipe.getOutput().getName().equals(item) && recipe.getIngredients().isEmpty()) {
+                return recipe;
+            }
+        }
+        throw new IllegalArgumentException("No mining recipe for " + item);
+    }
+
+    /**
+     * Finds a factory type by name, the way the factory output dialog picks it.
+     *
+     * @param world is the world to search.
+     * @param name is the name of the type.
+     * @return the type.
+     * @throws IllegalArgumentException when there is no such type.
+     */
+    static Type findType(World world, String name) {
+        for (Type type : world.getTypes()) {
+            if (type.getName().equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("No factory type named " + name);
+    }
+}
@@ -0,0 +1,195 @@
+package edu.duke.ece651.factorysim;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Represents a pool of reusable objects that can be shared between threads.
+ * Objects are kept in several stripes, each an array stack with its own lock. A thread borrows from and releases
+ * to the stripe picked by its id, so threads rarely contend for the same lock. When its stripe is empty, a
+ * borrowing thread steals from other stripes that aren't locked before creating a new object.
+ *
+ * @param <T> is the type of pooled objects.
+ */
+public class ConcurrentObjectPool<T extends PooledObject> {
+    private static final int DEFAULT_STRIPE_CAPACITY = 16;
+
+    private final Supplier<T> createFunc;
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int maxSizePerStripe;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    /**
+     * Represents one array stack of the pool and the lock guarding it.
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        Object[] items;
+        int count = 0;
+
+        Stripe(int capacity) {
+            this.items = new Object[capacity];
+        }
+    }
+
+    /**
+     * Constructs an unbounded pool with one stripe per available processor, rounded up to a power of two.
+     *
+     * @param createFunc is the function to create a new object when the pool is empty.
+     */
+    public ConcurrentObjectPool(Supplier<T> createFunc) {
+        this(createFunc, Runtime.getRuntime().availableProcessors(), ObjectPool.UNBOUNDED);
+    }
+
+    /**
+     * Constructs a pool.
+     *
+     * @param createFunc is the function to create a new object when the pool is empty.
+     * @param stripes is the number of stripes, rounded up to a power of two.
+     * @param maxSizePerStripe is the maximum number of objects retained by each stripe.
+     */
+    public ConcurrentObjectPool(Supplier<T> createFunc, int stripes, int maxSizePerStripe) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive, got " + stripes);
+        }
+        if (maxSizePerStripe < 0) {
+            throw new IllegalArgumentException("Max size must not be negative, got " + maxSizePerStripe);
+        }
+        int n = Integer.highestOneBit(stripes);
+        if (n < stripes) {
+            n <<= 1;
+        }
+        this.createFunc = createFunc;
+        this.maxSizePerStripe = maxSizePerStripe;
+        this.mask = n - 1;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe(Math.min(maxSizePerStripe, DEFAULT_STRIPE_CAPACITY));
+        }
+    }
+
+    private int homeStripe() {
+        return (int)Thread.currentThread().threadId() & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T pop(Stripe stripe) {
+        if (stripe.count == 0) {
+            return null;
+        }
+        T obj = (T)stripe.items[--stripe.count];
+        stripe.items[stripe.count] = null;
+        return obj;
+    }
+
+    public T borrow() {
+        int home = homeStripe();
+        T obj;
+
+        // Own stripe first, blocking on its lock since other threads rarely hold it
+        Stripe stripe = stripes[home];
+        stripe.lock.lock();
+        try {
+            obj = pop(stripe);
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        // Steal from other stripes without waiting
+        for (int i = 1; obj == null && i < stripes.length; i++) {
+            Stripe other = stripes[(home + i) & mask];
+            // The unlocked count read is only a hint to skip empty stripes, it's checked again under the lock
+            if (other.count == 0 || !other.lock.tryLock()) {
+                continue;
+            }
+            try {
+                obj = pop(other);
+            } finally {
+                other.lock.unlock();
+            }
+        }
+
+        if (obj == null) {
+            obj = createFunc.get();
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        obj.onBorrowed();
+        return obj;
+    }
+
+    public void release(T obj) {
+        obj.onReleased();
+        releases.increment();
+        Stripe stripe = stripes[homeStripe()];
+        stripe.lock.lock();
+        try {
+            if (stripe.count == maxSizePerStripe) {
+                discarded.increment();
+                return;
+            }
+            if (stripe.count == stripe.items.length) {
+                Object[] grown = new Object[(int)Math.min(maxSizePerStripe,
+                    Math.max(DEFAULT_STRIPE_CAPACITY, stripe.items.length * 2L))];
+                System.arraycopy(stripe.items, 0, grown, 0, stripe.count);
+                stripe.items = grown;
+            }
+            stripe.items[stripe.count++] = obj;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of objects retained by all stripes. Only a hint while other threads use the pool.
+     *
+     * @return the number of pooled objects.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.count;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public int getMaxSizePerStripe() {
+        return maxSizePerStripe;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getBorrows() {
+        return hits.sum() + misses.sum();
+    }
+
+    public long getReleases() {
+        return releases.sum();
+    }
+
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+}
@@ -0,0 +1,19 @@
+package edu.duke.ece651.factorysim;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Represents a conversion from a coordinate on the grid to a position in the world.
+ * The result is written into a vector supplied by the caller, so converting never allocates.
+ */
+@FunctionalInterface
+public interface CoordinateMapper {
+    /**
+     * Converts a coordinate on the grid to a position in the world.
+     *
+     * @param coordinate is the coordinate to convert.
+     * @param out is the vector to write the position into.
+     * @return `out`, for chaining.
+     */
+    Vector2 toWorld(Coordinate coordinate, Vector2 out);
+}
@@ -0,0 +1,151 @@
+package edu.duke.ece651.factorysim;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Represents a reference-counted set of crossing path tiles, grouped by row so they can be drawn in y order.
+ * A tile shared by several paths is stored once and stays in the set until every path releases it.
+ * Adding and removing a tile take constant time, tiles inside a row are kept in no particular order.
+ */
+public class CrossTileSet {
+    private int width;
+    private int height;
+    private int[] counts;
+    private int[] slots;
+    private IntArray[] rows;
+    private int size;
+
+    /**
+     * Constructs an empty set for a map.
+     *
+     * @param width is the width of the map.
+     * @param height is the height of the map.
+     */
+    public CrossTileSet(int width, int height) {
+        reset(width, height);
+    }
+
+    /**
+     * Removes all tiles and changes the dimensions of the map.
+     *
+     * @param width is the new width of the map.
+     * @param height is the new height of the map.
+     */
+    public void reset(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.counts = new int[width * height];
+        this.slots = new int[width * height];
+        this.rows = new IntArray[height];
+        this.size = 0;
+    }
+
+    private int indexOf(Coordinate c) {
+        int x = c.getX();
+        int y = c.getY();
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return -1;
+        }
+        return y * width + x;
+    }
+
+    /**
+     * Adds a reference to a tile. Tiles outside the map are ignored.
+     *
+     * @param c is the coordinate of the tile.
+     * @return true if the tile wasn't in the set before, otherwise false.
+     */
+    public boolean add(Coordinate c) {
+        int i = indexOf(c);
+        if (i < 0) {
+            return false;
+        }
+        if (counts[i]++ > 0) {
+            return false;
+        }
+        IntArray row = rows[c.getY()];
+        if (row == null) {
+            row = new IntArray(false, 8);
+            rows[c.getY()] = row;
+        }
+        slots[i] = row.size;
+        row.add(c.getX());
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a reference to a tile.
+     *
+     * @param c is the coordinate of the tile.
+     * @return true if it was the last reference and the tile left the set, otherwise false.
+     */
+    public boolean remove(Coordinate c) {
+        int i = indexOf(c);
+        if (i < 0 || counts[i] == 0) {
+            return false;
+        }
+        if (--counts[i] > 0) {
+            return false;
+        }
+
+        // Swap with the last tile of the row to avoid shifting
+        int y = c.getY();
+        IntArray row = rows[y];
+        int slot = slots[i];
+        int lastX = row.pop();
+        if (slot < row.size) {
+            row.set(slot, lastX);
+            slots[y * width + lastX] = slot;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the number of references to a tile.
+     *
+     * @param c is the coordinate of the tile.
+     * @return the number of paths holding the tile.
+     */
+    public int getCount(Coordinate c) {
+        int i = indexOf(c);
+        return i < 0 ? 0 : counts[i];
+    }
+
+    /**
+     * Gets the number of distinct tiles in the set.
+     *
+     * @return the number of tiles.
+     */
+    public int size() { return this.size; }
+
+    /**
+     * Gets the height of the map, which is the number of rows.
+     *
+     * @return the height of the map.
+     */
+    public int getHeight() { return this.height; }
+
+    /**
+     * Gets the number of tiles in a row.
+     *
+     * @param y is the row.
+     * @return the number of tiles in the row.
+     */
+    public int getRowSize(int y) {
+        IntArray row = rows[y];
+        return row == null ? 0 : row.size;
+    }
+
+    /**
+     * Gets the x of a tile in a row.
+     *
+     * @param y is the row.
+     * @param i is the index of the tile in the row.
+     * @return the x of the tile.
+     */
+    public int getX(int y, int i) {
+        return rows[y].get(i);
+    }
+}
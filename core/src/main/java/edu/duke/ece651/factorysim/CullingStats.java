@@ -0,0 +1,85 @@
+package edu.duke.ece651.factorysim;
+
+/**
+ * Records how many actors of each type were drawn or skipped by view culling during the last frame.
+ */
+public class CullingStats {
+    /**
+     * Represents the kinds of actors tracked by the culling pass.
+     */
+    public enum ActorType {
+        PATH,
+        DELIVERY,
+        BUILDING,
+        DRONE_DELIVERY
+    }
+
+    private final int[] visible = new int[ActorType.values().length];
+    private final int[] culled = new int[ActorType.values().length];
+
+    /**
+     * Clears all counters. Called at the start of every frame.
+     */
+    public void reset() {
+        for (int i = 0; i < visible.length; i++) {
+            visible[i] = 0;
+            culled[i] = 0;
+        }
+    }
+
+    /**
+     * Records the visibility result of one actor.
+     *
+     * @param type is the type of the actor.
+     * @param isVisible whether the actor is visible.
+     */
+    public void record(ActorType type, boolean isVisible) {
+        if (isVisible) {
+            visible[type.ordinal()]++;
+        } else {
+            culled[type.ordinal()]++;
+        }
+    }
+
+    /**
+     * Gets the number of actors of a type that were drawn during the last frame.
+     *
+     * @param type is the type of the actors.
+     * @return the number of visible actors of the type.
+     */
+    public int getVisible(ActorType type) { return visible[type.ordinal()]; }
+
+    /**
+     * Gets the number of actors of a type that were skipped during the last frame.
+     *
+     * @param type is the type of the actors.
+     * @return the number of culled actors of the type.
+     */
+    public int getCulled(ActorType type) { return culled[type.ordinal()]; }
+
+    /**
+     * Gets the number of actors of all types that were drawn during the last frame.
+     *
+     * @return the total number of visible actors.
+     */
+    public int getTotalVisible() {
+        int total = 0;
+        for (int n : visible) {
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of actors of all types that were skipped during the last frame.
+     *
+     * @return the total number of culled actors.
+     */
+    public int getTotalCulled() {
+        int total = 0;
+        for (int n : culled) {
+            total += n;
+        }
+        return total;
+    }
+}
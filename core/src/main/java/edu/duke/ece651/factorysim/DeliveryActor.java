@@ -1,18 +1,16 @@
 package edu.duke.ece651.factorysim;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
-import java.util.function.Function;
+public class DeliveryActor extends Actor2D implements PooledObject {
 
-public class DeliveryActor extends Actor2D {
+    private Delivery delivery;
 
-    private final Delivery delivery;
+    private final TextureRegion texture;
 
-    private final Texture texture;
-
-    private final Function<Coordinate, Vector2> coordinateToWorld;
+    private final CoordinateMapper coordinateToWorld;
 
     /**
      * Get the underlying `Delivery` instance of the delivery actor.
@@ -21,6 +19,15 @@ public class DeliveryActor extends Actor2D {
      */
     public Delivery getDelivery() { return this.delivery; }
 
+    private Coordinate coordinate;
+
+    /**
+     * Gets the coordinate of the delivery as of the last update of the actor.
+     *
+     * @return the coordinate the actor is tracking.
+     */
+    public Coordinate getCoordinate() { return this.coordinate; }
+
     /**
      * Constructs a `DeliveryActor` instance with a given absolute position.
      *
@@ -28,23 +35,69 @@ public class DeliveryActor extends Actor2D {
      * @param texture is the texture of the delivery actor.
      * @param coordinateToWorld is the function to convert a coordinate to a position in the world.
      */
-    public DeliveryActor(Delivery delivery, Texture texture, Function<Coordinate, Vector2> coordinateToWorld) {
+    public DeliveryActor(Delivery delivery, TextureRegion texture, CoordinateMapper coordinateToWorld) {
+        this(texture, coordinateToWorld);
+        track(delivery);
+    }
+
+    /**
+     * Constructs a `DeliveryActor` instance that doesn't track any delivery yet, e.g. to fill an `ObjectPool`.
+     *
+     * @param texture is the texture of the delivery actor.
+     * @param coordinateToWorld is the function to convert a coordinate to a position in the world.
+     */
+    public DeliveryActor(TextureRegion texture, CoordinateMapper coordinateToWorld) {
         super(0f, 0f);
 
-        this.delivery = delivery;
         this.texture = texture;
         this.coordinateToWorld = coordinateToWorld;
-
-        this.position.set(coordinateToWorld.apply(delivery.getCurrentCoordinate()));
     }
 
     private final Vector2 startPos = new Vector2();
     private final Vector2 targetPos = new Vector2();
+    private final Vector2 newTarget = new Vector2();
     private float progress = 1f;
     private float duration = 0f;
 
+    /**
+     * Starts tracking a delivery, resetting the actor to the delivery's current coordinate.
+     *
+     * @param delivery is the `Delivery` instance the actor used to track delivery status.
+     */
+    public void track(Delivery delivery) {
+        this.delivery = delivery;
+        this.coordinate = delivery.getCurrentCoordinate();
+        coordinateToWorld.toWorld(coordinate, this.position);
+        this.startPos.setZero();
+        this.targetPos.setZero();
+        this.progress = 1f;
+        this.duration = 0f;
+    }
+
+    @Override
+    public void onBorrowed() { }
+
+    @Override
+    public void onReleased() {
+        // Drop the reference so a pooled actor doesn't keep a finished delivery alive
+        this.delivery = null;
+        this.coordinate = null;
+    }
+
     public void update(float dt, float stepsPerSecond) {
-        Vector2 newTarget = coordinateToWorld.apply(delivery.getCurrentCoordinate());
+        update(dt, stepsPerSecond, delivery.getCurrentCoordinate());
+    }
+
+    /**
+     * Moves the actor towards a coordinate the delivery is known to be at, e.g. from a `SimulationSnapshot`.
+     *
+     * @param dt is the delta time.
+     * @param stepsPerSecond is the current simulation speed.
+     * @param current is the coordinate of the delivery.
+     */
+    public void update(float dt, float stepsPerSecond, Coordinate current) {
+        coordinate = current;
+        coordinateToWorld.toWorld(coordinate, newTarget);
 
         if (!newTarget.epsilonEquals(targetPos, 0.01f)) {
             startPos.set(position);
@@ -57,11 +110,27 @@ public class DeliveryActor extends Actor2D {
         position.set(startPos).lerp(targetPos, progress);
     }
 
+    @Override
+    public float getBoundsWidth() { return texture.getRegionWidth(); }
+
+    @Override
+    public float getBoundsHeight() { return texture.getRegionHeight(); }
+
     public void draw(SpriteBatch spriteBatch) {
         spriteBatch.draw(texture, position.x, position.y);
     }
 
     public boolean hasArrived() {
-        return delivery.isArrive() && position.epsilonEquals(targetPos);
+        return hasArrived(delivery.isArrive());
+    }
+
+    /**
+     * Checks whether the actor finished moving for a delivery whose arrival state is already known.
+     *
+     * @param deliveryArrived whether the delivery has arrived.
+     * @return true if the delivery has arrived and the actor reached it, otherwise false.
+     */
+    public boolean hasArrived(boolean deliveryArrived) {
+        return deliveryArrived && position.epsilonEquals(targetPos);
     }
 }
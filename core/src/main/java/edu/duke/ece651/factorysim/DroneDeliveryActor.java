@@ -1,34 +1,77 @@
 package edu.duke.ece651.factorysim;
 
 import com.badlogic.gdx.graphics.g2d.*;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
-import java.util.function.Function;
+public class DroneDeliveryActor extends Actor2D implements PooledObject {
 
-public class DroneDeliveryActor extends Actor2D {
-
-    private final DroneDelivery droneDelivery;
+    private DroneDelivery droneDelivery;
 
     private final Animator<TextureRegion> animator;
 
-    private final Function<Coordinate, Vector2> coordinateToWorld;
+    private final CoordinateMapper coordinateToWorld;
+
+    private final Vector2 target = new Vector2();
 
-    private final Vector2 target;
+    private final Vector2 direction = new Vector2();
 
     public DroneDelivery getDroneDelivery() { return this.droneDelivery; }
 
     public DroneDeliveryActor(DroneDelivery droneDelivery, Animation<TextureRegion> animation,
-                              Function<Coordinate, Vector2> coordinateToWorld) {
+                              CoordinateMapper coordinateToWorld) {
+        this(animation, coordinateToWorld);
+        track(droneDelivery);
+    }
+
+    /**
+     * Constructs a drone delivery actor that doesn't track any delivery yet, e.g. to fill an `ObjectPool`.
+     *
+     * @param animation is the animation of the drone.
+     * @param coordinateToWorld is the function to convert a coordinate to a position in the world.
+     */
+    public DroneDeliveryActor(Animation<TextureRegion> animation, CoordinateMapper coordinateToWorld) {
         super(0f, 0f);
-        this.droneDelivery = droneDelivery;
         this.animator = new Animator<>(animation, true);
         this.coordinateToWorld = coordinateToWorld;
+    }
+
+    /**
+     * Starts tracking a drone delivery, resetting the actor to the delivery's current coordinate.
+     *
+     * @param droneDelivery is the drone delivery to track.
+     */
+    public void track(DroneDelivery droneDelivery) {
+        this.droneDelivery = droneDelivery;
+        this.animator.setCurrentTime(0f);
+        coordinateToWorld.toWorld(droneDelivery.getCurrentCoordinate(), this.position);
+        coordinateToWorld.toWorld(droneDelivery.destination.getLocation(), this.target);
+    }
+
+    @Override
+    public void onBorrowed() { }
 
-        this.position.set(coordinateToWorld.apply(droneDelivery.getCurrentCoordinate()));
-        this.target = coordinateToWorld.apply(droneDelivery.destination.getLocation());
+    @Override
+    public void onReleased() {
+        // Drop the reference so a pooled actor doesn't keep a finished delivery alive
+        this.droneDelivery = null;
     }
 
     public void update(float dt, float stepsPerSecond, boolean realTimeEnabled) {
+        update(dt, stepsPerSecond, realTimeEnabled, droneDelivery.getTargetCoordinate(), droneDelivery.deliveryTime);
+    }
+
+    /**
+     * Animates the drone and moves it towards a known target, e.g. from a `SimulationSnapshot`.
+     *
+     * @param dt is the delta time.
+     * @param stepsPerSecond is the current simulation speed.
+     * @param realTimeEnabled whether real-time simulation is enabled.
+     * @param targetCoordinate is the coordinate the drone is flying to.
+     * @param deliveryTime is the delivery time of the drone delivery.
+     */
+    public void update(float dt, float stepsPerSecond, boolean realTimeEnabled,
+                       Coordinate targetCoordinate, double deliveryTime) {
         // Step animator
         animator.step(dt);
 
@@ -36,16 +79,34 @@ public class DroneDeliveryActor extends Actor2D {
         if (!realTimeEnabled) {
             return;
         }
-        if (droneDelivery.deliveryTime <= 0) {
+        if (deliveryTime <= 0) {
             return;
         }
-        target.set(coordinateToWorld.apply(droneDelivery.getTargetCoordinate()));
-        float speed = dt * stepsPerSecond / droneDelivery.deliveryTime;
-        position.mulAdd(new Vector2(target).sub(position).nor(), target.dst(position) * speed);
+        coordinateToWorld.toWorld(targetCoordinate, target);
+        float speed = (float)(dt * stepsPerSecond / deliveryTime);
+        position.mulAdd(direction.set(target).sub(position).nor(), target.dst(position) * speed);
+    }
+
+    @Override
+    public float getBoundsWidth() { return animator.getCurrentKeyFrame().getRegionWidth(); }
+
+    @Override
+    public float getBoundsHeight() { return animator.getCurrentKeyFrame().getRegionHeight(); }
+
+    @Override
+    public boolean isVisible(Rectangle view) {
+        // The sprite rotates around its center, so test against the circle's bounding square
+        float width = getBoundsWidth();
+        float height = getBoundsHeight();
+        float radius = Math.max(width, height) / 2f;
+        float centerX = position.x + width / 2f;
+        float centerY = position.y + height / 2f;
+        return centerX - radius <= view.x + view.width && centerX + radius >= view.x &&
+               centerY - radius <= view.y + view.height && centerY + radius >= view.y;
     }
 
     public void step() {
-        this.position.set(coordinateToWorld.apply(droneDelivery.getCurrentCoordinate()));
+        coordinateToWorld.toWorld(droneDelivery.getCurrentCoordinate(), this.position);
     }
 
     public void render(SpriteBatch spriteBatch) {
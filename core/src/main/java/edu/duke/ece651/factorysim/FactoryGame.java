@@ -1,6 +1,7 @@
 package edu.duke.ece651.factorysim;
 
 import com.badlogic.gdx.*;
+import edu.duke.ece651.factorysim.net.AsyncServerClient;
 import edu.duke.ece651.factorysim.screen.HomeScreen;
 
 /**
@@ -13,4 +14,11 @@ public class FactoryGame extends Game {
         HomeScreen homeScreen = new HomeScreen(this);
         this.setScreen(homeScreen);
     }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        // Lets a save in progress finish and keeps the cache's order of use
+        AsyncServerClient.closeInstance();
+    }
 }
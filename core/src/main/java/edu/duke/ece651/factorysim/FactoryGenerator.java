@@ -0,0 +1,394 @@
+package edu.duke.ece651.factorysim;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Generates seeded, parameterized factories for scale and load testing.
+ * The recipes are generated as a formula and loaded like `formula.json`, then buildings are placed on the tile map
+ * and connected through `Simulation.connectBuildings`, the same way the game world builds them.
+ * The same configuration always generates the same factory.
+ */
+public class FactoryGenerator {
+    // Buildings are placed on a lattice with this many tiles between them, leaving room for paths
+    private static final int SPACING = 3;
+    private static final int MARGIN = 2;
+
+    // Upper bounds that keep generated formulas small no matter how many buildings there are
+    private static final int MAX_RAW_RESOURCES = 4;
+    private static final int MAX_ITEMS_PER_LEVEL = 4;
+    private static final int MAX_INGREDIENTS = 3;
+
+    // Number of random producers considered when connecting an input, the closest ones are connected
+    private static final int SOURCE_CANDIDATES = 8;
+
+    public static final int STORAGE_CAPACITY = 100;
+
+    /**
+     * Represents the parameters of a generated factory.
+     *
+     * @param mines is the number of mines.
+     * @param factories is the number of factories.
+     * @param storages is the number of storages.
+     * @param dronePorts is the number of drone ports.
+     * @param recipeDepth is the number of recipe levels above raw resources, at least 1.
+     * @param connectionDensity is the fraction of nearby producers connected to every input, between 0 and 1.
+     *        At least one producer is always connected.
+     * @param seed is the seed of the random generator.
+     */
+    public record Config(int mines, int factories, int storages, int dronePorts, int recipeDepth,
+                         double connectionDensity, long seed) {
+        public Config {
+            if (mines < 1 || factories < 0 || storages < 0 || dronePorts < 0) {
+                throw new IllegalArgumentException("Invalid building counts");
+            }
+            if (recipeDepth < 1) {
+                throw new IllegalArgumentException("Recipe depth must be at least 1, got " + recipeDepth);
+            }
+            if (connectionDensity < 0 || connectionDensity > 1) {
+                throw new IllegalArgumentException("Connection density must be between 0 and 1, got " + connectionDensity);
+            }
+        }
+
+        /**
+         * Creates a configuration with a total number of buildings split in typical proportions:
+         * 30% mines, 50% factories, 15% storages and 5% drone ports.
+         *
+         * @param buildings is the total number of buildings.
+         * @param seed is the seed of the random generator.
+         * @return the configuration.
+         */
+        public static Config ofSize(int buildings, long seed) {
+            int mines = Math.max(1, buildings * 30 / 100);
+            int storages = buildings * 15 / 100;
+            int dronePorts = buildings * 5 / 100;
+            int factories = Math.max(0, buildings - mines - storages - dronePorts);
+            return new Config(mines, factories, storages, dronePorts, 3, 0.25, seed);
+        }
+
+        /**
+         * Gets the total number of buildings.
+         *
+         * @return the number of buildings.
+         */
+        public int buildings() {
+            return mines + factories + storages + dronePorts;
+        }
+    }
+
+    /**
+     * Represents the generated recipes, grouped by level. Level 0 holds the raw resources.
+     */
+    static class Formula {
+        final List<List<String>> levels = new ArrayList<>();
+        final Map<String, Map<String, Integer>> ingredients = new LinkedHashMap<>();
+        final Map<String, Integer> latencies = new LinkedHashMap<>();
+
+        /**
+         * Formats the formula in the format of `formula.json`, with every item also being a factory type.
+         *
+         * @return the JSON text.
+         */
+        String toJson() {
+            StringBuilder sb = new StringBuilder("{\n  \"types\": [");
+            boolean first = true;
+            for (int level = 1; level < levels.size(); level++) {
+                for (String item : levels.get(level)) {
+                    sb.append(first ? "\n" : ",\n");
+                    sb.append("    { \"name\": \"").append(item).append("\", \"recipes\": [\"").append(item).append("\"] }");
+                    first = false;
+                }
+            }
+            sb.append("\n  ],\n  \"buildings\": [],\n  \"recipes\": [");
+            first = true;
+            for (Map.Entry<String, Map<String, Integer>> recipe : ingredients.entrySet()) {
+                sb.append(first ? "\n" : ",\n");
+                sb.append("    { \"output\": \"").append(recipe.getKey()).append("\", \"ingredients\": {");
+                boolean firstIngredient = true;
+                for (Map.Entry<String, Integer> ingredient : recipe.getValue().entrySet()) {
+                    sb.append(firstIngredient ? " " : ", ");
+                    sb.append('"').append(ingredient.getKey()).append("\": ").append(ingredient.getValue());
+                    firstIngredient = false;
+                }
+                sb.append(firstIngredient ? "}" : " }");
+                sb.append(", \"latency\": ").append(latencies.get(recipe.getKey())).append(" }");
+                first = false;
+            }
+            return sb.append("\n  ]\n}\n").toString();
+        }
+    }
+
+    private final Config config;
+    private final Random random;
+    private int failedConnections = 0;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param config is the parameters of the generated factory.
+     */
+    public FactoryGenerator(Config config) {
+        this.config = config;
+        this.random = new Random(config.seed());
+    }
+
+    /**
+     * Gets the number of connections that couldn't be made during the last generation, e.g. because no path
+     * could be found.
+     *
+     * @return the number of failed connections.
+     */
+    public int getFailedConnections() { return this.failedConnections; }
+
+    /**
+     * Generates recipes for the configured depth. Every item of a level uses at least one item of the level below.
+     *
+     * @return the generated formula.
+     */
+    Formula generateFormula() {
+        Formula formula = new Formula();
+        List<String> raw = new ArrayList<>();
+        for (int i = 0; i < Math.min(MAX_RAW_RESOURCES, config.mines()); i++) {
+            String item = "raw_" + i;
+            raw.add(item);
+            formula.ingredients.put(item, new LinkedHashMap<>());
+            formula.latencies.put(item, 1 + random.nextInt(3));
+        }
+        formula.levels.add(raw);
+
+        List<String> lower = new ArrayList<>(raw);
+        int itemsPerLevel = Math.max(1, Math.min(MAX_ITEMS_PER_LEVEL, config.factories() / config.recipeDepth()));
+        for (int level = 1; level <= config.recipeDepth(); level++) {
+            List<String> items = new ArrayList<>();
+            List<String> below = formula.levels.get(level - 1);
+            for (int i = 0; i < itemsPerLevel; i++) {
+                String item = "item_" + level + "_" + i;
+                Map<String, Integer> ingredients = new LinkedHashMap<>();
+                ingredients.put(below.get(random.nextInt(below.size())), 1 + random.nextInt(3));
+                int extra = random.nextInt(MAX_INGREDIENTS);
+                for (int j = 0; j < extra; j++) {
+                    ingredients.putIfAbsent(lower.get(random.nextInt(lower.size())), 1 + random.nextInt(3));
+                }
+                formula.ingredients.put(item, ingredients);
+                formula.latencies.put(item, 1 + random.nextInt(5 * level));
+                items.add(item);
+            }
+            formula.levels.add(items);
+            lower.addAll(items);
+        }
+        return formula;
+    }
+
+    /**
+     * Generates a factory.
+     *
+     * @param logger is the logger of the generated simulation.
+     * @return the generated simulation.
+     * @throws IOException when the generated formula can't be loaded.
+     */
+    public Simulation generate(Logger logger) throws IOException {
+        random.setSeed(config.seed());
+        failedConnections = 0;
+
+        // Load the generated recipes like a formula file
+        Formula formula = generateFormula();
+        Simulation sim = SimulationIO.load(new StringReader(formula.toJson()), logger);
+
+        // Lay out a square lattice with a slot for every building, in random order
+        int side = (int)Math.ceil(Math.sqrt(config.buildings()));
+        int size = side * SPACING + MARGIN * 2;
+        sim.setTileMapDimensions(size, size);
+        List<Coordinate> slots = new ArrayList<>(side * side);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                slots.add(new Coordinate(MARGIN + x * SPACING, MARGIN + y * SPACING));
+            }
+        }
+        Collections.shuffle(slots, random);
+        Iterator<Coordinate> slot = slots.iterator();
+
+        World world = sim.getWorld();
+        Map<String, Recipe> recipes = new HashMap<>();
+        for (Recipe recipe : world.getRecipes()) {
+            recipes.put(recipe.getOutput().getName(), recipe);
+        }
+        Map<String, List<Building>> producers = new HashMap<>();
+
+        // Mines take turns over the raw resources so every resource has a producer
+        List<String> raw = formula.levels.get(0);
+        for (int i = 0; i < config.mines(); i++) {
+            String item = raw.get(i % raw.size());
+            Building mine = place(world, new MineBuilding(recipes.get(item), item + "_Mine_" + i, sim), slot.next());
+            producers.computeIfAbsent(item, (k) -> new ArrayList<>()).add(mine);
+        }
+
+        // Factories take turns over the levels from the bottom up, so inputs usually have a producer
+        List<String> products = new ArrayList<>();
+        for (int level = 1; level < formula.levels.size(); level++) {
+            products.addAll(formula.levels.get(level));
+        }
+        List<Building> factories = new ArrayList<>();
+        List<String> factoryItems = new ArrayList<>();
+        for (int i = 0; i < config.factories(); i++) {
+            String item = products.get(i % products.size());
+            Type type = new Type(item, List.of(recipes.get(item)));
+            Building factory = place(world, new FactoryBuilding(type, item + "_Factory_" + i, new ArrayList<>(), sim),
+                slot.next());
+            producers.computeIfAbsent(item, (k) -> new ArrayList<>()).add(factory);
+            factories.add(factory);
+            factoryItems.add(item);
+        }
+
+        // Storages keep a random product, or a raw resource if nothing is produced
+        List<String> stored = new ArrayList<>(producers.keySet());
+        stored.removeAll(raw);
+        if (stored.isEmpty()) {
+            stored.addAll(raw);
+        }
+        Collections.sort(stored);
+        List<Building> storages = new ArrayList<>();
+        List<String> storageItems = new ArrayList<>();
+        for (int i = 0; i < config.storages(); i++) {
+            String item = stored.get(random.nextInt(stored.size()));
+            storageItems.add(item);
+            storages.add(place(world, new StorageBuilding(item + "_Storage_" + i, new ArrayList<>(), sim,
+                new Item(item), STORAGE_CAPACITY, 1), slot.next()));
+        }
+
+        for (int i = 0; i < config.dronePorts(); i++) {
+            place(world, new DronePortBuilding("DronePort_" + i, Collections.emptyList(), sim), slot.next());
+        }
+
+        // Connect every input to some of its producers
+        for (int i = 0; i < factories.size(); i++) {
+            for (String ingredient : formula.ingredients.get(factoryItems.get(i)).keySet()) {
+                connectSources(sim, factories.get(i), producers.get(ingredient));
+            }
+        }
+        for (int i = 0; i < storages.size(); i++) {
+            connectSources(sim, storages.get(i), producers.get(storageItems.get(i)));
+        }
+        return sim;
+    }
+
+    /**
+     * Generates a factory and writes it as a save file, as a binary snapshot or JSON depending on its extension.
+     *
+     * @param savePath is the path of the save file.
+     * @param logger is the logger of the generated simulation.
+     * @return the generated simulation.
+     * @throws IOException when the generated formula can't be loaded or the save file can't be written.
+     */
+    public Simulation generate(String savePath, Logger logger) throws IOException {
+        Simulation sim = generate(logger);
+        SimulationIO.write(sim.toJson(), savePath);
+        return sim;
+    }
+
+    private static Building place(World world, Building building, Coordinate location) {
+        building.setLocation(location);
+        if (!world.tryAddBuilding(building)) {
+            throw new IllegalStateException("Failed to place " + building.getName() + " at " + location);
+        }
+        return building;
+    }
+
+    /**
+     * Connects a building to the closest few of a random sample of producers.
+     */
+    private void connectSources(Simulation sim, Building target, List<Building> candidates) {
+        if (candidates == null || candidates.isEmpty()) {
+            return;
+        }
+        List<Building> sample = new ArrayList<>(SOURCE_CANDIDATES);
+        for (int i = 0; i < Math.min(SOURCE_CANDIDATES, candidates.size()); i++) {
+            sample.add(candidates.get(random.nextInt(candidates.size())));
+        }
+        Coordinate to = target.getLocation();
+        sample.sort(Comparator.comparingInt((Building b) ->
+            Math.abs(b.getLocation().getX() - to.getX()) + Math.abs(b.getLocation().getY() - to.getY())));
+
+        int count = Math.max(1, (int)Math.round(config.connectionDensity() * sample.size()));
+        Set<Building> connected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Building source : sample) {
+            if (connected.size() >= count) {
+                break;
+            }
+            if (!connected.add(source)) {
+                continue;
+            }
+            try {
+                if (sim.connectBuildings(source, target) == null) {
+                    failedConnections++;
+                }
+            } catch (Exception e) {
+                failedConnections++;
+            }
+        }
+    }
+
+    /**
+     * Generates a save file from command line arguments.
+     * Usage: `<save.json|save.fsim> [-buildings n | -mines n -factories n -storages n -droneports n] [-depth d]
+     * [-density x] [-seed s]`.
+     *
+     * @param args is the command line arguments.
+     * @return the exit code: 0 on success, 1 if the arguments were invalid, 2 if generation failed.
+     */
+    public static int runFromArgs(String[] args) {
+        Set<String> known = Set.of("-buildings", "-mines", "-factories", "-storages", "-droneports", "-depth",
+            "-density", "-seed");
+        Config config;
+        String savePath = null;
+        try {
+            Config defaults = Config.ofSize(100, 0);
+            Map<String, String> options = new HashMap<>();
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].startsWith("-")) {
+                    if (!known.contains(args[i])) {
+                        throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                    }
+                    options.put(args[i], args[++i]);
+                } else if (savePath == null) {
+                    savePath = args[i];
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+            if (savePath == null) {
+                throw new IllegalArgumentException("Missing save file");
+            }
+            long seed = Long.parseLong(options.getOrDefault("-seed", "0"));
+            if (options.containsKey("-buildings")) {
+                defaults = Config.ofSize(Integer.parseInt(options.get("-buildings")), seed);
+            }
+            config = new Config(
+                intOption(options, "-mines", defaults.mines()),
+                intOption(options, "-factories", defaults.factories()),
+                intOption(options, "-storages", defaults.storages()),
+                intOption(options, "-droneports", defaults.dronePorts()),
+                intOption(options, "-depth", defaults.recipeDepth()),
+                Double.parseDouble(options.getOrDefault("-density", String.valueOf(defaults.connectionDensity()))),
+                seed);
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Missing option value" : e.getMessage());
+            return 1;
+        }
+
+        try {
+            FactoryGenerator generator = new FactoryGenerator(config);
+            generator.generate(savePath, new StreamLogger(new PrintStream(OutputStream.nullOutputStream())));
+            System.out.println("Generated " + config.buildings() + " buildings to " + savePath
+                + " (" + generator.getFailedConnections() + " failed connections)");
+            return 0;
+        } catch (Exception e) {
+            System.err.println("Failed to generate: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    private static int intOption(Map<String, String> options, String name, int fallback) {
+        String value = options.get(name);
+        return value == null ? fallback : Integer.parseInt(value);
+    }
+}
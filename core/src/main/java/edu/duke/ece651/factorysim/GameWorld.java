@@ -8,6 +8,11 @@ import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.viewport.*;
 import edu.duke.ece651.factorysim.screen.SimulationScreen;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Represents a central game world manager that manages resources and other actors.
@@ -26,6 +31,21 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
 
     // Rendering
     private final SpriteBatch spriteBatch;
+    private final Rectangle viewBounds = new Rectangle();
+
+    // Culling
+    private final CullingStats cullingStats = new CullingStats();
+    private final List<PathEntry> visiblePaths = new ArrayList<>();
+    private final List<DeliveryActor> visibleDeliveries = new ArrayList<>();
+    private final List<BuildingActor> visibleBuildings = new ArrayList<>();
+    private final List<DroneDeliveryActor> visibleDroneDeliveries = new ArrayList<>();
+
+    /**
+     * Gets the visible and culled actor counts of the last rendered frame.
+     *
+     * @return the culling statistics of the last rendered frame.
+     */
+    public CullingStats getCullingStats() { return this.cullingStats; }
 
     // Zoom
     private float targetZoom = 1f;
@@ -39,7 +59,41 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
 
     public Simulation getSim() { return this.sim; }
 
+    // Journals user commands are recorded to, e.g. by autosaving and session recording
+    private final List<CommandJournal> journals = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds a journal to record user commands to. Must be called under the simulation lock, together with capturing
+     * the state the journal continues from. Loading another simulation removes all journals.
+     *
+     * @param journal is the journal to add.
+     */
+    public void addJournal(CommandJournal journal) { this.journals.add(journal); }
+
+    /**
+     * Removes a journal, so user commands aren't recorded to it anymore.
+     *
+     * @param journal is the journal to remove.
+     * @return true if the journal was recorded to.
+     */
+    public boolean removeJournal(CommandJournal journal) { return this.journals.remove(journal); }
+
+    /**
+     * Checks whether user commands are recorded to a journal.
+     *
+     * @param journal is the journal to check.
+     * @return true if the journal is recorded to.
+     */
+    public boolean hasJournal(CommandJournal journal) { return this.journals.contains(journal); }
+
+    private void record(Command command) {
+        for (CommandJournal journal : journals) {
+            journal.record(command);
+        }
+    }
+
     // Real-time
+    private static final float MAX_PATH_ANIMATION_SPEED = 100f;
     private RealTimeSimulation realTime;
     private boolean realTimeEnabled = false;
 
@@ -49,30 +103,127 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
     public void enableRealTime() { this.realTimeEnabled = true; }
     public void disableRealTime() { this.realTimeEnabled = false; }
 
+    // Threaded real-time
+    private boolean realTimeThreaded = false;
+    private final Thread renderThread;
+    private final Queue<Runnable> pendingSimulationEvents = new ConcurrentLinkedQueue<>();
+    // Only touched by the render thread
+    private final Queue<Runnable> pendingInputActions = new ArrayDeque<>();
+
+    public boolean isRealTimeThreaded() { return this.realTimeThreaded; }
+
+    /**
+     * Sets whether real-time simulation steps on a dedicated worker thread instead of the render thread.
+     *
+     * @param threaded true to step on a worker thread.
+     */
+    public void setRealTimeThreaded(boolean threaded) {
+        this.realTimeThreaded = threaded;
+        this.realTime.setThreaded(threaded);
+    }
+
+    /**
+     * Runs an action that touches the simulation while holding the simulation lock, so it never overlaps with a
+     * step running on the worker thread. The snapshot is then refreshed, so the change is drawn even while paused.
+     *
+     * @param action is the action to run.
+     */
+    public void runWithSimulationLock(Runnable action) {
+        ReentrantLock lock = realTime.getLock();
+        lock.lock();
+        try {
+            action.run();
+            realTime.refreshSnapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Computes a value from the simulation while holding the simulation lock.
+     *
+     * @param action is the action computing the value.
+     * @return the computed value.
+     * @param <T> is the type of the computed value.
+     */
+    public <T> T callWithSimulationLock(Supplier<T> action) {
+        ReentrantLock lock = realTime.getLock();
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action that reads the simulation only if the simulation isn't being stepped at the moment.
+     * The snapshot isn't refreshed, so actions that change the simulation are queued with `queueInputAction` instead.
+     *
+     * @param action is the action to run.
+     * @return true if the action ran, otherwise false.
+     */
+    public boolean tryRunWithSimulationLock(Runnable action) {
+        ReentrantLock lock = realTime.getLock();
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            action.run();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the current time step of the simulation, read from the latest snapshot while the worker thread runs.
+     *
+     * @return the current time step.
+     */
+    public int getCurrentStep() {
+        SimulationSnapshot snapshot = realTime.getSnapshot();
+        return snapshot != null ? snapshot.getCurrentTime() : sim.getCurrentTime();
+    }
+
     // Resources
-    private final Texture cellTexture;
-    private final Texture mineTexture;
-    private final Texture factoryTexture;
-    private final Texture storageTexture;
-    private final Texture dronePortTexture;
-    private final Texture wasteDisposalTexture;
-
-    private final Texture itemTexture;
-    private final Texture droneTexture;
-
-    private final Texture pathTexture;
-    private final Texture pathCrossTexture;
-
-    private final Texture selectTexture;
-    private final Texture selectMineTexture;
-    private final Texture selectFactoryTexture;
-    private final Texture selectStorageTexture;
-    private final Texture selectDronePortTexture;
-    private final Texture selectWasteDisposalTexture;
-    private final Texture selectFromTexture;
-    private final Texture selectToTexture;
-
-    private final Texture removeTexture;
+    public static final String WORLD_ATLAS_PATH = "atlas/world.atlas";
+    private static final int SPRITE_BATCH_SIZE = 8191;
+
+    private final TextureAtlas worldAtlas;
+
+    private final TextureRegion cellTexture;
+    private final TextureRegion mineTexture;
+    private final TextureRegion factoryTexture;
+    private final TextureRegion storageTexture;
+    private final TextureRegion dronePortTexture;
+    private final TextureRegion wasteDisposalTexture;
+
+    private final TextureRegion itemTexture;
+    private final TextureRegion droneTexture;
+
+    private final TextureRegion pathTexture;
+    private final TextureRegion pathCrossTexture;
+
+    private final TextureRegion selectTexture;
+    private final TextureRegion selectMineTexture;
+    private final TextureRegion selectFactoryTexture;
+    private final TextureRegion selectStorageTexture;
+    private final TextureRegion selectDronePortTexture;
+    private final TextureRegion selectWasteDisposalTexture;
+    private final TextureRegion selectFromTexture;
+    private final TextureRegion selectToTexture;
+
+    private final TextureRegion removeTexture;
+
+    private int renderCalls = 0;
+
+    /**
+     * Gets the number of draw calls issued by the world's `SpriteBatch` during the last rendered frame.
+     *
+     * @return the number of draw calls of the last rendered frame.
+     */
+    public int getRenderCalls() { return this.renderCalls; }
 
     // Animation
     private final Animation<TextureRegion> mineAnimation;
@@ -102,13 +253,31 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
 
     // Actors
     private final GridActor grid;
-    private final List<BuildingActor> buildingActors = new ArrayList<>();
-    private final Map<Coordinate, BuildingActor> buildingMap = new HashMap<>();
-    private final List<PathEntry> pathEntries = new ArrayList<>();
-    private final List<Coordinate> pathCrossCoords = new ArrayList<>();
+    private final SequencedSet<BuildingActor> buildingActors = new LinkedHashSet<>();
+    private final SequencedSet<PathEntry> pathEntries = new LinkedHashSet<>();
+    private final CrossTileSet pathCrossTiles = new CrossTileSet(0, 0);
     private final List<DeliveryActor> deliveries = new ArrayList<>();
     private final List<DroneDeliveryActor> droneDeliveries = new ArrayList<>();
 
+    // Spatial index of actors on each tile, and identity lookups from simulation objects to their actors
+    private final TileIndex<BuildingActor> buildingIndex = new TileIndex<>(0, 0);
+    private final TileIndex<PathEntry> pathIndex = new TileIndex<>(0, 0);
+    private final TileIndex<DeliveryActor> deliveryIndex = new TileIndex<>(0, 0);
+    private final Map<Building, BuildingActor> buildingActorMap = new IdentityHashMap<>();
+    private final Map<Path, PathEntry> pathEntryMap = new IdentityHashMap<>();
+    private final Map<BuildingActor, List<PathEntry>> buildingPaths = new IdentityHashMap<>();
+
+    // Modification counters of the tiles whose flows were changed by connecting or disconnecting paths
+    private final TileVersions tileVersions = new TileVersions(0, 0);
+
+    // Pools of delivery actors, reused as deliveries start and finish
+    private final CoordinateMapper coordinateMapper = this::coordinateToWorld;
+    private final ObjectPool<DeliveryActor> deliveryActorPool;
+    private final ObjectPool<DroneDeliveryActor> droneDeliveryActorPool;
+
+    public ObjectPool<DeliveryActor> getDeliveryActorPool() { return this.deliveryActorPool; }
+    public ObjectPool<DroneDeliveryActor> getDroneDeliveryActorPool() { return this.droneDeliveryActorPool; }
+
     // Screen
     private final SimulationScreen screen;
 
@@ -135,52 +304,57 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
         viewport.apply();
 
         // Create sprite batch for rendering
-        this.spriteBatch = new SpriteBatch();
+        this.spriteBatch = new SpriteBatch(SPRITE_BATCH_SIZE);
 
-        // Load textures
-        this.cellTexture = new Texture("cell.png");
+        // Load texture regions, all world sprites share a single atlas page
+        this.worldAtlas = new TextureAtlas(WORLD_ATLAS_PATH);
+        this.cellTexture = findRegion("cell");
 
-        this.mineTexture = new Texture("mine.png");
-        this.factoryTexture = new Texture("factory.png");
-        this.storageTexture = new Texture("storage.png");
-        this.dronePortTexture = new Texture("droneport.png");
-        this.wasteDisposalTexture = new Texture("wastedisposal.png");
+        this.mineTexture = findRegion("mine");
+        this.factoryTexture = findRegion("factory");
+        this.storageTexture = findRegion("storage");
+        this.dronePortTexture = findRegion("droneport");
+        this.wasteDisposalTexture = findRegion("wastedisposal");
 
-        this.itemTexture = new Texture("item.png");
-        this.droneTexture = new Texture("drone.png");
+        this.itemTexture = findRegion("item");
+        this.droneTexture = findRegion("drone");
 
-        this.pathTexture = new Texture("path.png");
-        this.pathCrossTexture = new Texture("path_cross.png");
+        this.pathTexture = findRegion("path");
+        this.pathCrossTexture = findRegion("path_cross");
 
-        this.selectTexture = new Texture("select.png");
-        this.selectMineTexture = new Texture("select_mine.png");
-        this.selectFactoryTexture = new Texture("select_factory.png");
-        this.selectStorageTexture = new Texture("select_storage.png");
-        this.selectDronePortTexture = new Texture("select_droneport.png");
-        this.selectWasteDisposalTexture = new Texture("select_wastedisposal.png");
-        this.selectFromTexture = new Texture("select_from.png");
-        this.selectToTexture = new Texture("select_to.png");
+        this.selectTexture = findRegion("select");
+        this.selectMineTexture = findRegion("select_mine");
+        this.selectFactoryTexture = findRegion("select_factory");
+        this.selectStorageTexture = findRegion("select_storage");
+        this.selectDronePortTexture = findRegion("select_droneport");
+        this.selectWasteDisposalTexture = findRegion("select_wastedisposal");
+        this.selectFromTexture = findRegion("select_from");
+        this.selectToTexture = findRegion("select_to");
 
-        this.removeTexture = new Texture("remove.png");
+        this.removeTexture = findRegion("remove");
 
         // Create animations
-        this.mineAnimation = createAnimation(mineTexture, mineTexture.getHeight(),
-            mineTexture.getHeight(), 0.1f, Animation.PlayMode.LOOP);
-        this.factoryAnimation = createAnimation(factoryTexture, factoryTexture.getHeight() / 2,
-            factoryTexture.getHeight(), 0.1f, Animation.PlayMode.LOOP);
-        this.storageAnimation = createAnimation(storageTexture, storageTexture.getHeight(),
-            storageTexture.getHeight(), 0.1f, Animation.PlayMode.LOOP);
-        this.dronePortAnimation = createAnimation(dronePortTexture, dronePortTexture.getHeight() / 2,
-            dronePortTexture.getHeight(), 0.1f, Animation.PlayMode.LOOP);
+        this.mineAnimation = createAnimation(mineTexture, mineTexture.getRegionHeight(),
+            mineTexture.getRegionHeight(), 0.1f, Animation.PlayMode.LOOP);
+        this.factoryAnimation = createAnimation(factoryTexture, factoryTexture.getRegionHeight() / 2,
+            factoryTexture.getRegionHeight(), 0.1f, Animation.PlayMode.LOOP);
+        this.storageAnimation = createAnimation(storageTexture, storageTexture.getRegionHeight(),
+            storageTexture.getRegionHeight(), 0.1f, Animation.PlayMode.LOOP);
+        this.dronePortAnimation = createAnimation(dronePortTexture, dronePortTexture.getRegionHeight() / 2,
+            dronePortTexture.getRegionHeight(), 0.1f, Animation.PlayMode.LOOP);
         this.wasteDisposalAnimation = createAnimation(wasteDisposalTexture,
-            wasteDisposalTexture.getHeight() / 2, wasteDisposalTexture.getHeight(), 0.1f,
+            wasteDisposalTexture.getRegionHeight() / 2, wasteDisposalTexture.getRegionHeight(), 0.1f,
             Animation.PlayMode.LOOP);
 
-        this.pathAnimator = new Animator<>(createAnimation(pathTexture, pathTexture.getHeight(),
-            pathTexture.getHeight(), 0.1f, Animation.PlayMode.LOOP), true);
+        this.pathAnimator = new Animator<>(createAnimation(pathTexture, pathTexture.getRegionHeight(),
+            pathTexture.getRegionHeight(), 0.1f, Animation.PlayMode.LOOP), true);
 
-        this.droneAnimation = createAnimation(droneTexture, droneTexture.getHeight(),
-            droneTexture.getHeight(), 0.025f, Animation.PlayMode.LOOP);
+        this.droneAnimation = createAnimation(droneTexture, droneTexture.getRegionHeight(),
+            droneTexture.getRegionHeight(), 0.025f, Animation.PlayMode.LOOP);
+
+        // Create delivery actor pools
+        this.deliveryActorPool = new ObjectPool<>(() -> new DeliveryActor(itemTexture, coordinateMapper));
+        this.droneDeliveryActorPool = new ObjectPool<>(() -> new DroneDeliveryActor(droneAnimation, coordinateMapper));
 
         // Create the grid
         this.grid = new GridActor(gridCols, gridRows, cellSize, this.cellTexture, this.selectTexture,
@@ -188,6 +362,7 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
 
         // Set screen
         this.screen = screen;
+        this.renderThread = Thread.currentThread();
 
         // Initialize camera zoom
         updateTargetZoom(targetZoom);
@@ -209,9 +384,25 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
             this.sim.unsubscribeToOnBuildingRemoved(this::onBuildingRemoved);
         }
 
-        // Set new simulation
-        this.sim = sim;
-        this.realTime = new RealTimeSimulation(this.sim);
+        // Stop the worker thread of the previous simulation
+        RealTimeSimulation previous = this.realTime;
+        if (previous != null) {
+            previous.stop();
+            previous.getLock().lock();
+        }
+        pendingSimulationEvents.clear();
+
+        // Set new simulation, under the previous lock so an autosave never pairs a snapshot with the other journal
+        try {
+            this.sim = sim;
+            this.journals.clear();
+            this.realTime = new RealTimeSimulation(this.sim);
+            this.realTime.setThreaded(realTimeThreaded);
+        } finally {
+            if (previous != null) {
+                previous.getLock().unlock();
+            }
+        }
         this.realTimeEnabled = false;
         World world = sim.getWorld();
         TileMap tileMap = world.getTileMap();
@@ -228,37 +419,49 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
 
         // Release actors associated with the previous simulation
         buildingActors.clear();
-        buildingMap.clear();
         pathEntries.clear();
-        pathCrossCoords.clear();
-        deliveries.clear();
-        droneDeliveries.clear();
+        releaseAll(deliveries, deliveryActorPool);
+        releaseAll(droneDeliveries, droneDeliveryActorPool);
+        buildingIndex.reset(tileMap.getWidth(), tileMap.getHeight());
+        pathIndex.reset(tileMap.getWidth(), tileMap.getHeight());
+        deliveryIndex.reset(tileMap.getWidth(), tileMap.getHeight());
+        tileVersions.reset(tileMap.getWidth(), tileMap.getHeight());
+        pathCrossTiles.reset(tileMap.getWidth(), tileMap.getHeight());
+        buildingActorMap.clear();
+        pathEntryMap.clear();
+        buildingPaths.clear();
 
         // Create building actors
+        long startTime = System.nanoTime();
         for (Building building : world.getBuildings()) {
-            BuildingActor actor = actorizeBuilding(building);
-            buildingMap.put(building.getLocation(), actor);
+            actorizeBuilding(building);
         }
+        long buildingsTime = System.nanoTime();
 
-        // Create path actors
+        // Create path actors, sources are looked up by identity
         for (BuildingActor buildingActor : buildingActors) {
             Building building = buildingActor.getBuilding();
 
             // Connect sources to building
             for (Building source : building.getSources()) {
-                Optional<BuildingActor> result = buildingActors.stream()
-                    .filter((a) -> a.getBuilding() == source)
-                    .findAny();
-                result.ifPresent((sourceActor) -> {
-                    connectPath(sourceActor, buildingActor);
-                });
+                BuildingActor sourceActor = buildingActorMap.get(source);
+                if (sourceActor != null) {
+                    connectPathActor(sourceActor, buildingActor);
+                }
             }
         }
+        long pathsTime = System.nanoTime();
 
         // Create delivery actors
         for (Delivery delivery : sim.getDeliverySchedule().deliveryList) {
             onDeliveryAdded(delivery);
         }
+        long deliveriesTime = System.nanoTime();
+
+        // Record load timings
+        lastLoadBuildingsNanos = buildingsTime - startTime;
+        lastLoadPathsNanos = pathsTime - buildingsTime;
+        lastLoadDeliveriesNanos = deliveriesTime - pathsTime;
 
         // Focus on a building actor
         if (!buildingActors.isEmpty()) {
@@ -271,6 +474,41 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
         syncZoom();
     }
 
+    // Load timings of the last `setSimulation` call
+    private long lastLoadBuildingsNanos = 0;
+    private long lastLoadPathsNanos = 0;
+    private long lastLoadDeliveriesNanos = 0;
+
+    /**
+     * Gets the time the last `setSimulation` call spent creating building actors.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getLastLoadBuildingsNanos() { return this.lastLoadBuildingsNanos; }
+
+    /**
+     * Gets the time the last `setSimulation` call spent creating path actors.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getLastLoadPathsNanos() { return this.lastLoadPathsNanos; }
+
+    /**
+     * Gets the time the last `setSimulation` call spent creating delivery actors.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getLastLoadDeliveriesNanos() { return this.lastLoadDeliveriesNanos; }
+
+    /**
+     * Gets the total time the last `setSimulation` call spent creating actors.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getLastLoadNanos() {
+        return lastLoadBuildingsNanos + lastLoadPathsNanos + lastLoadDeliveriesNanos;
+    }
+
     /**
      * Gets the current logger instance used by the `GameWorld` instance.
      *
@@ -309,9 +547,24 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
     }
 
     /**
-     * Splits a texture into frames based on frame dimension, then creates an animation from it.
+     * Finds a region in the world atlas.
+     *
+     * @param name is the name of the region, which is the sprite's file name without extension.
+     * @return the region with the name.
+     * @throws IllegalArgumentException when the atlas has no region with the name.
+     */
+    private TextureRegion findRegion(String name) {
+        TextureRegion region = worldAtlas.findRegion(name);
+        if (region == null) {
+            throw new IllegalArgumentException("The world atlas has no region named " + name);
+        }
+        return region;
+    }
+
+    /**
+     * Splits a texture region into frames based on frame dimension, then creates an animation from it.
      *
-     * @param texture is the texture to split frames from.
+     * @param texture is the texture region to split frames from.
      * @param frameWidth is the width of each frame.
      * @param frameHeight is the height of each frame.
      * @param frameDuration is the duration of each frame in the animation.
@@ -319,9 +572,9 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
      * @return animation created from the texture.
      * @throws IllegalArgumentException when failed to split any frames from the texture and frame dimensions.
      */
-    private static Animation<TextureRegion> createAnimation(Texture texture, int frameWidth, int frameHeight,
+    private static Animation<TextureRegion> createAnimation(TextureRegion texture, int frameWidth, int frameHeight,
                                                             float frameDuration, Animation.PlayMode playMode) {
-        TextureRegion[][] regions = TextureRegion.split(texture, frameWidth, frameHeight);
+        TextureRegion[][] regions = texture.split(frameWidth, frameHeight);
         TextureRegion[] frames = Arrays.stream(regions)
                                        .flatMap(Arrays::stream)
                                        .toArray(TextureRegion[]::new);
@@ -362,22 +615,39 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
             }
         }
 
+        // Apply simulation events raised by the worker thread, then input that couldn't be handled during a step
+        drainPendingSimulationEvents();
+        drainPendingInputActions();
+
+        // While the worker thread runs, actors read the simulation only through its latest snapshot
+        SimulationSnapshot snapshot = realTime.getSnapshot();
+
         // Update deliveries
+        float stepsPerSecond = realTime.getEffectiveSpeed();
         if (realTimeEnabled) {
             if (!realTime.isPaused() && realTime.isRunning()) {
                 for (DeliveryActor delivery : deliveries) {
-                    delivery.update(dt, realTime.getSpeed());
+                    updateDelivery(delivery, dt, stepsPerSecond, snapshot);
                 }
             }
         } else {
             for (DeliveryActor delivery : deliveries) {
-                delivery.update(dt, Float.MAX_VALUE);
+                updateDelivery(delivery, dt, Float.MAX_VALUE, snapshot);
             }
         }
 
         // Update drone deliveries
         for (DroneDeliveryActor droneDelivery : droneDeliveries) {
-            droneDelivery.update(dt, realTime.getSpeed(), realTimeEnabled);
+            if (snapshot == null) {
+                droneDelivery.update(dt, stepsPerSecond, realTimeEnabled);
+                continue;
+            }
+            SimulationSnapshot.DeliveryState state = snapshot.getDeliveryState(droneDelivery.getDroneDelivery());
+            if (state == null) {
+                droneDelivery.update(dt, stepsPerSecond, false, null, 0);
+            } else {
+                droneDelivery.update(dt, stepsPerSecond, realTimeEnabled, state.target(), state.deliveryTime());
+            }
         }
 
         // Update buildings
@@ -386,13 +656,130 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
         }
 
         // Release arrived delivery actors
-        deliveries.removeIf(DeliveryActor::hasArrived);
+        deliveries.removeIf((delivery) -> {
+            boolean arrived;
+            if (snapshot == null) {
+                arrived = delivery.hasArrived();
+            } else {
+                SimulationSnapshot.DeliveryState state = snapshot.getDeliveryState(delivery.getDelivery());
+                arrived = delivery.hasArrived(state == null || state.arrived());
+            }
+            if (!arrived) {
+                return false;
+            }
+            deliveryIndex.remove(delivery.getCoordinate(), delivery);
+            deliveryActorPool.release(delivery);
+            return true;
+        });
+    }
+
+    /**
+     * Returns all actors of a list to their pool and clears the list.
+     *
+     * @param actors is the list of actors.
+     * @param pool is the pool the actors were borrowed from.
+     * @param <T> is the type of the actors.
+     */
+    private static <T extends PooledObject> void releaseAll(List<T> actors, ObjectPool<T> pool) {
+        for (T actor : actors) {
+            pool.release(actor);
+        }
+        actors.clear();
+    }
+
+    /**
+     * Runs the simulation events queued by the worker thread, if the simulation isn't being stepped at the moment.
+     * Otherwise, they are retried next frame so rendering never waits for a step.
+     */
+    private void drainPendingSimulationEvents() {
+        drainWithSimulationLock(pendingSimulationEvents, false);
+    }
+
+    /**
+     * Runs the input actions queued while the simulation was being stepped, if it isn't being stepped anymore.
+     * Otherwise, they are retried next frame in the order they were queued.
+     */
+    private void drainPendingInputActions() {
+        drainWithSimulationLock(pendingInputActions, true);
+    }
+
+    /**
+     * Runs and removes every action of a queue if the simulation lock can be taken without waiting.
+     *
+     * @param actions is the queue of actions.
+     * @param refresh whether the actions may change the simulation, so the snapshot is refreshed afterward.
+     */
+    private void drainWithSimulationLock(Queue<Runnable> actions, boolean refresh) {
+        if (actions.isEmpty()) {
+            return;
+        }
+        tryRunWithSimulationLock(() -> {
+            Runnable action;
+            while ((action = actions.poll()) != null) {
+                action.run();
+            }
+            if (refresh) {
+                realTime.refreshSnapshot();
+            }
+        });
+    }
+
+    /**
+     * Queues an input action that may modify the simulation, and runs it right away unless the simulation is being
+     * stepped, so input never makes rendering wait for a step.
+     *
+     * @param action is the input action.
+     */
+    private void queueInputAction(Runnable action) {
+        pendingInputActions.add(action);
+        drainPendingInputActions();
+    }
+
+    /**
+     * Checks whether a simulation event is raised outside the render thread. If so, queues the event to be handled
+     * on the render thread instead.
+     *
+     * @param event is the handler to queue.
+     * @return true if the event got queued, otherwise false.
+     */
+    private boolean deferToRenderThread(Runnable event) {
+        if (Thread.currentThread() == renderThread) {
+            return false;
+        }
+        pendingSimulationEvents.add(event);
+        return true;
+    }
+
+    /**
+     * Updates a delivery actor and moves it in the spatial index if it entered another tile.
+     *
+     * @param delivery is the delivery actor to update.
+     * @param dt is the delta time.
+     * @param stepsPerSecond is the current simulation speed.
+     * @param snapshot is the latest snapshot from the worker thread, or null to read the simulation directly.
+     */
+    private void updateDelivery(DeliveryActor delivery, float dt, float stepsPerSecond,
+                                SimulationSnapshot snapshot) {
+        Coordinate before = delivery.getCoordinate();
+        if (snapshot == null) {
+            delivery.update(dt, stepsPerSecond);
+        } else {
+            SimulationSnapshot.DeliveryState state = snapshot.getDeliveryState(delivery.getDelivery());
+            delivery.update(dt, stepsPerSecond, state != null ? state.current() : before);
+        }
+        Coordinate after = delivery.getCoordinate();
+        if (!before.equals(after)) {
+            deliveryIndex.move(before, after, delivery);
+        }
     }
 
     public void step(int n) {
-        // Step the simulation
+        // Step the simulation, waiting for a background save that is reading it
         try {
-            sim.step(n);
+            runWithSimulationLock(() -> {
+                record(new Command.Step(sim.getCurrentTime(), n));
+                sim.step(n);
+            });
         } catch (Exception e) {
             log(e.getMessage());
         }
@@ -407,41 +794,83 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
         }
     }
 
+    /**
+     * Sets a policy of the simulation.
+     *
+     * @param type is the type of the policy, e.g. `request`.
+     * @param policy is the name of the policy.
+     * @param buildingName is the name of the building, or a wildcard the simulation accepts.
+     */
+    public void setPolicy(String type, String policy, String buildingName) {
+        runWithSimulationLock(() -> {
+            sim.setPolicy(type, policy, buildingName);
+            record(new Command.SetPolicy(sim.getCurrentTime(), type, policy, buildingName));
+        });
+    }
+
+    /**
+     * Makes a user request of an item from a building.
+     *
+     * @param itemName is the name of the requested item.
+     * @param buildingName is the name of the building to request from.
+     */
+    public void makeUserRequest(String itemName, String buildingName) {
+        runWithSimulationLock(() -> {
+            sim.makeUserRequest(itemName, buildingName);
+            record(new Command.MakeUserRequest(sim.getCurrentTime(), itemName, buildingName));
+        });
+    }
+
+    /**
+     * Steps the simulation until all requests are done.
+     */
+    public void finish() {
+        runWithSimulationLock(() -> {
+            record(new Command.Finish(sim.getCurrentTime()));
+            sim.finish();
+        });
+    }
+
     public void render(float dt) {
+        // While the worker thread runs, flows and building state are read only through its latest snapshot
+        SimulationSnapshot snapshot = realTime.getSnapshot();
+
+        updateViewBounds();
+        collectVisibleActors();
         spriteBatch.begin();
 
         // Draw background grid
-        grid.drawGrid(spriteBatch);
+        grid.drawGrid(spriteBatch, viewBounds);
 
         // Draw paths
         float pathSpeed;
         if (realTimeEnabled) {
-            pathSpeed = (realTime.isPaused() || !realTime.isRunning()) ? 0f : realTime.getSpeed() * 1.625f;
+            // Capped so that turbo speeds don't turn the path animation into noise
+            float speed = Math.min(realTime.getEffectiveSpeed(), MAX_PATH_ANIMATION_SPEED);
+            pathSpeed = (realTime.isPaused() || !realTime.isRunning()) ? 0f : speed * 1.625f;
         } else {
             pathSpeed = 1f;
         }
         pathAnimator.step(pathSpeed * dt);
-        for (PathEntry path : pathEntries) {
-            path.actor.drawPaths(spriteBatch);
+        for (PathEntry path : visiblePaths) {
+            path.actor.drawPaths(spriteBatch, snapshot);
         }
 
         // Draw package deliveries
-        for (DeliveryActor delivery : deliveries) {
+        for (DeliveryActor delivery : visibleDeliveries) {
             delivery.draw(spriteBatch);
         }
 
         // Draw buildings
-        for (BuildingActor building : buildingActors) {
-            building.draw(spriteBatch);
+        for (BuildingActor building : visibleBuildings) {
+            building.draw(spriteBatch, snapshot);
         }
 
         // Draw crossing paths
-        if (!pathEntries.isEmpty()) {
-            pathEntries.getFirst().actor.drawCrosses(spriteBatch, pathCrossCoords);
-        }
+        drawCrossTiles();
 
         // Draw drone deliveries
-        for (DroneDeliveryActor droneDelivery : droneDeliveries) {
+        for (DroneDeliveryActor droneDelivery : visibleDroneDeliveries) {
             droneDelivery.render(spriteBatch);
         }
 
@@ -449,12 +878,47 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
         grid.drawSelectionBox(spriteBatch);
 
         spriteBatch.end();
+        renderCalls = spriteBatch.renderCalls;
+    }
+
+    /**
+     * Tests every actor against the current view bounds and collects the ones that need to be drawn this frame.
+     */
+    private void collectVisibleActors() {
+        cullingStats.reset();
+        collectVisible(pathEntries, visiblePaths, CullingStats.ActorType.PATH, (entry) -> entry.actor);
+        collectVisible(deliveries, visibleDeliveries, CullingStats.ActorType.DELIVERY, (actor) -> actor);
+        collectVisible(buildingActors, visibleBuildings, CullingStats.ActorType.BUILDING, (actor) -> actor);
+        collectVisible(droneDeliveries, visibleDroneDeliveries, CullingStats.ActorType.DRONE_DELIVERY,
+            (actor) -> actor);
+    }
+
+    private <T> void collectVisible(Collection<T> all, List<T> visible, CullingStats.ActorType type,
+                                    Function<T, Actor2D> toActor) {
+        visible.clear();
+        for (T item : all) {
+            boolean isVisible = toActor.apply(item).isVisible(viewBounds);
+            if (isVisible) {
+                visible.add(item);
+            }
+            cullingStats.record(type, isVisible);
+        }
     }
 
     public void resize(int width, int height) {
         viewport.update(width, height, false);
     }
 
+    /**
+     * Recalculates the area of the world currently visible through the camera.
+     */
+    private void updateViewBounds() {
+        float viewWidth = camera.viewportWidth * camera.zoom;
+        float viewHeight = camera.viewportHeight * camera.zoom;
+        viewBounds.set(camera.position.x - viewWidth / 2f, camera.position.y - viewHeight / 2f,
+            viewWidth, viewHeight);
+    }
+
     private void setCameraPosition(float x, float y) {
         camera.position.set(x, y, camera.position.z);
 
@@ -492,29 +956,14 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
 
     @Override
     public void dispose() {
+        // Stop the worker thread
+        realTime.stop();
+
         // Dispose sprite batch
         spriteBatch.dispose();
 
-        // Dispose textures
-        cellTexture.dispose();
-        mineTexture.dispose();
-        factoryTexture.dispose();
-        storageTexture.dispose();
-        dronePortTexture.dispose();
-        wasteDisposalTexture.dispose();
-        itemTexture.dispose();
-        droneTexture.dispose();
-        pathTexture.dispose();
-        pathCrossTexture.dispose();
-        selectTexture.dispose();
-        selectMineTexture.dispose();
-        selectFactoryTexture.dispose();
-        selectStorageTexture.dispose();
-        selectDronePortTexture.dispose();
-        selectWasteDisposalTexture.dispose();
-        selectFromTexture.dispose();
-        selectToTexture.dispose();
-        removeTexture.dispose();
+        // Dispose the atlas and its texture pages
+        worldAtlas.dispose();
     }
 
 
@@ -539,12 +988,38 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
      * @return converted global position.
      */
     public Vector2 coordinateToWorld(Coordinate coordinate) {
-        int clampedX = Math.max(0, Math.min(coordinate.getX(), grid.getCols() - 1));
-        int clampedY = Math.max(0, Math.min(coordinate.getY(), grid.getRows() - 1));
-        return new Vector2(
-            grid.position.x + clampedX * cellSize,
-            grid.position.y + clampedY * cellSize
-        );
+        return coordinateToWorld(coordinate, new Vector2());
+    }
+
+    /**
+     * Converts a coordinate on the grid to a global position without allocating.
+     *
+     * @param coordinate is the coordinate on the grid to convert.
+     * @param out is the vector to write the converted global position into.
+     * @return `out`, for chaining.
+     */
+    public Vector2 coordinateToWorld(Coordinate coordinate, Vector2 out) {
+        return out.set(coordinateToWorldX(coordinate.getX()), coordinateToWorldY(coordinate.getY()));
+    }
+
+    /**
+     * Converts the x of a coordinate on the grid to a global x.
+     *
+     * @param x is the x of the coordinate.
+     * @return converted global x.
+     */
+    public float coordinateToWorldX(int x) {
+        return grid.position.x + Math.max(0, Math.min(x, grid.getCols() - 1)) * cellSize;
+    }
+
+    /**
+     * Converts the y of a coordinate on the grid to a global y.
+     *
+     * @param y is the y of the coordinate.
+     * @return converted global y.
+     */
+    public float coordinateToWorldY(int y) {
+        return grid.position.y + Math.max(0, Math.min(y, grid.getRows() - 1)) * cellSize;
     }
 
     /**
@@ -609,7 +1084,8 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
 
         // Add the actor
         buildingActors.add(actor);
-        buildingMap.put(location, actor); // Add to building map for fast lookup
+        buildingIndex.add(location, actor);
+        buildingActorMap.put(building, actor);
         return actor;
     }
 
@@ -651,7 +1127,10 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
     public BuildingActor buildMine(String name, Recipe miningRecipe, Coordinate coordinate) {
         name = sim.getWorld().resolveBuildingNameConflict(name);
         MineBuilding mine = new MineBuilding(miningRecipe, name, sim);
-        return buildBuilding(mine, mineAnimation, coordinate);
+        BuildingActor actor = buildBuilding(mine, mineAnimation, coordinate);
+        record(new Command.BuildMine(sim.getCurrentTime(), name, miningRecipe.getOutput().getName(),
+            coordinate.getX(), coordinate.getY()));
+        return actor;
     }
 
     /**
@@ -665,7 +1144,10 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
     public BuildingActor buildFactory(String name, Type factoryType, Coordinate coordinate) {
         name = sim.getWorld().resolveBuildingNameConflict(name);
         FactoryBuilding factory = new FactoryBuilding(factoryType, name, new ArrayList<>(), sim);
-        return buildBuilding(factory, factoryAnimation, coordinate);
+        BuildingActor actor = buildBuilding(factory, factoryAnimation, coordinate);
+        record(new Command.BuildFactory(sim.getCurrentTime(), name, factoryType.getName(), coordinate.getX(),
+            coordinate.getY()));
+        return actor;
     }
 
     /**
@@ -682,13 +1164,18 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
                                       double priority, Coordinate coordinate) {
         name = sim.getWorld().resolveBuildingNameConflict(name);
         StorageBuilding storage = new StorageBuilding(name, new ArrayList<>(), sim, storageItem, maxCapacity, priority);
-        return buildBuilding(storage, storageAnimation, coordinate);
+        BuildingActor actor = buildBuilding(storage, storageAnimation, coordinate);
+        record(new Command.BuildStorage(sim.getCurrentTime(), name, storageItem.getName(), maxCapacity, priority,
+            coordinate.getX(), coordinate.getY()));
+        return actor;
     }
 
     public BuildingActor buildDronePort(String name, Coordinate coordinate) {
         name = sim.getWorld().resolveBuildingNameConflict(name);
         DronePortBuilding dronePort = new DronePortBuilding(name, Collections.emptyList(), sim);
-        return buildBuilding(dronePort, dronePortAnimation, coordinate);
+        BuildingActor actor = buildBuilding(dronePort, dronePortAnimation, coordinate);
+        record(new Command.BuildDronePort(sim.getCurrentTime(), name, coordinate.getX(), coordinate.getY()));
+        return actor;
     }
 
     public BuildingActor buildWasteDisposal(String name,
@@ -699,7 +1186,18 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
         name = sim.getWorld().resolveBuildingNameConflict(name);
         WasteDisposalBuilding wasteDisposal =
             new WasteDisposalBuilding(name, wasteTypes, disposalRateMaps, timeSteps, sim);
-        return buildBuilding(wasteDisposal, wasteDisposalAnimation, coordinate);
+        BuildingActor actor = buildBuilding(wasteDisposal, wasteDisposalAnimation, coordinate);
+
+        // Each waste type is recorded with its capacity, disposal rate and time steps
+        List<Command.Waste> wastes = new ArrayList<>();
+        for (Map.Entry<Item, Integer> entry : wasteTypes.entrySet()) {
+            Item item = entry.getKey();
+            wastes.add(new Command.Waste(item.getName(), entry.getValue(), disposalRateMaps.get(item),
+                timeSteps.get(item)));
+        }
+        record(new Command.BuildWasteDisposal(sim.getCurrentTime(), name, coordinate.getX(), coordinate.getY(),
+            wastes));
+        return actor;
     }
 
     /**
@@ -709,54 +1207,54 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
      */
     public void removeBuilding(BuildingActor buildingActor) {
         sim.removeBuilding(buildingActor.getBuilding());
+        record(new Command.RemoveBuilding(sim.getCurrentTime(), buildingActor.getBuilding().getName()));
     }
 
     /**
      * The event listener being called when a building is fully removed.
+     * Its paths are disconnected right away, at the time step it got removed, the same way `CommandReplayer`
+     * disconnects them when it replays the removal. Only its actors are removed on the render thread.
      *
      * @param building is the building that got fully removed.
      * @throws IllegalArgumentException when the building is not an actor in the game world.
      */
     private void onBuildingRemoved(Building building) {
         // Find its actor
-        BuildingActor actor = null;
-        for (BuildingActor a : buildingActors) {
-            if (a.getBuilding() == building) {
-                actor = a;
-                break;
-            }
-        }
+        BuildingActor actor = buildingActorMap.get(building);
         if (actor == null) {
             throw new IllegalArgumentException("The building does not have an actor in the game world");
         }
 
-        // Demolish the building (delete its actor)
-        demolishBuilding(actor);
+        // Disconnect its paths from the simulation
+        List<PathEntry> disconnected = new ArrayList<>();
+        for (PathEntry entry : getPathEntries(actor)) {
+            if (!disconnected.contains(entry)) {
+                disconnected.addAll(disconnectPathEntries(entry.from, entry.to));
+                disconnected.addAll(disconnectPathEntries(entry.to, entry.from));
+            }
+        }
+
+        // Demolish the building (delete its actor and the actors of its paths)
+        if (deferToRenderThread(() -> demolishBuilding(actor, disconnected))) {
+            return;
+        }
+        demolishBuilding(actor, disconnected);
     }
 
     /**
      * Completely remove a building's actor.
      *
      * @param buildingActor is the building actor to remove.
+     * @param disconnected is the path entries of the building that got disconnected.
      */
-    private void demolishBuilding(BuildingActor buildingActor) {
+    private void demolishBuilding(BuildingActor buildingActor, List<PathEntry> disconnected) {
         // Remove building actor
-        buildingMap.remove(buildingActor.getBuilding().getLocation());
+        buildingIndex.remove(buildingActor.getBuilding().getLocation(), buildingActor);
+        buildingActorMap.remove(buildingActor.getBuilding());
         buildingActors.remove(buildingActor);
 
-        // Collect paths
-        List<PathEntry> toRemove = new ArrayList<>();
-        for (PathEntry entry : pathEntries) {
-            if (entry.from == buildingActor || entry.to == buildingActor) {
-                toRemove.add(entry);
-            }
-        }
-
-        // Disconnect
-        for (PathEntry entry : toRemove) {
-            disconnectPath(entry.from, entry.to);
-            disconnectPath(entry.to, entry.from);
-        }
+        // Remove path actors
+        removePathEntries(disconnected);
     }
 
     /**
@@ -770,23 +1268,82 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
     private PathActor actorizePath(Path path, BuildingActor from, BuildingActor to) {
         // Create actor
         PathActor actor = new PathActor(path, sim.getWorld().getTileMap(), pathAnimator, pathCrossTexture,
-            this::coordinateToWorld);
-        pathEntries.add(new PathEntry(actor, path, from, to));
+            coordinateMapper, tileVersions);
+        addPathEntry(new PathEntry(actor, path, from, to));
 
-        // Cache and sort paths
+        // Reference the crossing tiles, tiles shared with other paths are only stored once
         for (Coordinate c : actor.getCrossCoordinates()) {
-            pathCrossCoords.add(c);
+            pathCrossTiles.add(c);
         }
-        pathCrossCoords.sort((a, b) -> {
-            float ay = coordinateToWorld(a).y;
-            float by = coordinateToWorld(b).y;
-            return Float.compare(by, ay);
-        });
 
         return actor;
     }
 
+    /**
+     * Marks the tiles of a path as changed, so path actors on them recompile their render commands.
+     *
+     * @param path is the path whose tiles changed.
+     */
+    private void touchTiles(Path path) {
+        for (Coordinate c : path.getSteps()) {
+            tileVersions.touch(c);
+        }
+    }
+
+    /**
+     * Draws every crossing tile once, row by row from top to bottom (lower y = being drawn later).
+     * Rows and tiles outside the view are skipped.
+     */
+    private void drawCrossTiles() {
+        if (pathCrossTiles.size() == 0) {
+            return;
+        }
+
+        // Sprites are drawn from their bottom-left corner, so a tile below the view may still reach into it
+        float spriteWidth = pathCrossTexture.getRegionWidth();
+        float spriteHeight = pathCrossTexture.getRegionHeight();
+        int top = Math.min(pathCrossTiles.getHeight() - 1,
+            (int)Math.floor((viewBounds.y + viewBounds.height - grid.position.y) / cellSize));
+        int bottom = Math.max(0, (int)Math.floor((viewBounds.y - spriteHeight - grid.position.y) / cellSize));
+        for (int y = top; y >= bottom; y--) {
+            int rowSize = pathCrossTiles.getRowSize(y);
+            if (rowSize == 0) {
+                continue;
+            }
+            float worldY = coordinateToWorldY(y);
+            for (int i = 0; i < rowSize; i++) {
+                float worldX = coordinateToWorldX(pathCrossTiles.getX(y, i));
+                if (worldX > viewBounds.x + viewBounds.width || worldX + spriteWidth < viewBounds.x) {
+                    continue;
+                }
+                spriteBatch.draw(pathCrossTexture, worldX, worldY);
+            }
+        }
+    }
+
+    /**
+     * Gets the reference-counted set of crossing tiles drawn on top of buildings.
+     *
+     * @return the crossing tiles of all paths.
+     */
+    public CrossTileSet getPathCrossTiles() { return this.pathCrossTiles; }
+
+    /**
+     * Connects two buildings with a path and creates its actor.
+     *
+     * @param from is the source building actor.
+     * @param to is the destination building actor.
+     * @return the actor of the connecting path.
+     * @throws IllegalArgumentException when the buildings can't be connected.
+     */
     public PathActor connectPath(BuildingActor from, BuildingActor to) {
+        PathActor actor = connectPathActor(from, to);
+        record(new Command.ConnectPath(sim.getCurrentTime(), from.getBuilding().getName(),
+            to.getBuilding().getName()));
+        return actor;
+    }
+
+    private PathActor connectPathActor(BuildingActor from, BuildingActor to) {
         // Prevent connecting to self
         if (from == to) {
             throw new IllegalArgumentException("Cannot connect to self");
@@ -797,50 +1354,92 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
         if (path == null) {
             throw new IllegalArgumentException("Cannot connect " + from.getBuilding().getName() + " to " + to.getBuilding().getName() + ": No valid path");
         }
+        realTime.markFlowsChanged();
+
+        // Connecting may change the flows of tiles shared with other paths
+        touchTiles(path);
 
         // If the path is already an actor, return the actor
-        for (PathEntry entry : pathEntries) {
-            if (entry.path == path) {
-                return entry.actor;
-            }
+        PathEntry existing = pathEntryMap.get(path);
+        if (existing != null) {
+            return existing.actor;
         }
 
         // Create the actor
         return actorizePath(path, from, to);
     }
 
+    /**
+     * Disconnects two buildings and removes the actors of their paths.
+     * Nothing happens if the buildings are working or not connected.
+     *
+     * @param from is the source building actor.
+     * @param to is the destination building actor.
+     */
     public void disconnectPath(BuildingActor from, BuildingActor to) {
+        if (disconnectPathActor(from, to)) {
+            record(new Command.DisconnectPath(sim.getCurrentTime(), from.getBuilding().getName(),
+                to.getBuilding().getName()));
+        }
+    }
+
+    private boolean disconnectPathActor(BuildingActor from, BuildingActor to) {
+        List<PathEntry> disconnected = disconnectPathEntries(from, to);
+        removePathEntries(disconnected);
+        return !disconnected.isEmpty();
+    }
+
+    /**
+     * Disconnects two buildings in the simulation, without removing the actors of their paths.
+     *
+     * @param from is the source building actor.
+     * @param to is the destination building actor.
+     * @return the path entries from the source to the destination, or an empty list if nothing got disconnected.
+     */
+    private List<PathEntry> disconnectPathEntries(BuildingActor from, BuildingActor to) {
         // Ignore self disconnection
         if (from == to) {
-            return;
+            return Collections.emptyList();
         }
 
         // Can't remove the path if the two buildings are working
         if (!from.getBuilding().canBeRemovedImmediately() || !to.getBuilding().canBeRemovedImmediately()) {
-            return;
+            return Collections.emptyList();
         }
 
         // Find matching path entries
         List<PathEntry> toRemove = new ArrayList<>();
-        for (PathEntry entry : pathEntries) {
+        for (PathEntry entry : getPathEntries(from)) {
             if (entry.from == from && entry.to == to) {
                 toRemove.add(entry);
             }
         }
         if (toRemove.isEmpty()) {
-            return;
+            return toRemove;
         }
 
         // Try to disconnect
         try {
             sim.disconnectBuildings(from.getBuilding(), to.getBuilding());
         } catch (Exception ignored) { }
+        realTime.markFlowsChanged();
+        return toRemove;
+    }
 
-        // Remove path entries and cross coordinates
-        for (PathEntry entry : toRemove) {
-            pathEntries.remove(entry);
+    /**
+     * Removes path entries and their cross coordinates, skipping the ones that were already removed.
+     *
+     * @param entries is the path entries to remove.
+     */
+    private void removePathEntries(List<PathEntry> entries) {
+        for (PathEntry entry : entries) {
+            if (pathEntryMap.get(entry.path) != entry) {
+                continue;
+            }
+            touchTiles(entry.path);
+            removePathEntry(entry);
             for (Coordinate c : entry.actor.getCrossCoordinates()) {
-                pathCrossCoords.remove(c);
+                pathCrossTiles.remove(c);
             }
         }
     }
@@ -852,7 +1451,94 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
      * @return the building actor instance at that coordinate or null.
      */
     private BuildingActor getBuildingAt(Coordinate c) {
-        return buildingMap.get(c);
+        List<BuildingActor> actors = buildingIndex.get(c);
+        return actors.isEmpty() ? null : actors.getFirst();
+    }
+
+    /**
+     * Gets the actor of a building.
+     *
+     * @param building is the building to get the actor of.
+     * @return the actor of the building or null.
+     */
+    public BuildingActor getBuildingActor(Building building) {
+        return buildingActorMap.get(building);
+    }
+
+    /**
+     * Gets the actors of all paths going through a certain coordinate.
+     *
+     * @param c is the coordinate to get the actors.
+     * @return a list of path actors at that coordinate.
+     */
+    public List<PathActor> getPathActorsAt(Coordinate c) {
+        List<PathEntry> entries = pathIndex.get(c);
+        List<PathActor> actors = new ArrayList<>(entries.size());
+        for (PathEntry entry : entries) {
+            actors.add(entry.actor);
+        }
+        return actors;
+    }
+
+    /**
+     * Gets the actors of all in-flight deliveries at a certain coordinate.
+     *
+     * @param c is the coordinate to get the actors.
+     * @return an unmodifiable list of delivery actors at that coordinate.
+     */
+    public List<DeliveryActor> getDeliveriesAt(Coordinate c) {
+        return deliveryIndex.get(c);
+    }
+
+    /**
+     * Gets the path entries connected to a building actor.
+     *
+     * @param buildingActor is the building actor.
+     * @return the path entries starting or ending at the building actor.
+     */
+    private List<PathEntry> getPathEntries(BuildingActor buildingActor) {
+        return buildingPaths.getOrDefault(buildingActor, Collections.emptyList());
+    }
+
+    /**
+     * Adds a path entry and registers it to every index.
+     *
+     * @param entry is the path entry to add.
+     */
+    private void addPathEntry(PathEntry entry) {
+        pathEntries.add(entry);
+        pathEntryMap.put(entry.path, entry);
+        buildingPaths.computeIfAbsent(entry.from, (k) -> new ArrayList<>()).add(entry);
+        buildingPaths.computeIfAbsent(entry.to, (k) -> new ArrayList<>()).add(entry);
+        for (Coordinate c : entry.path.getSteps()) {
+            pathIndex.add(c, entry);
+        }
+    }
+
+    /**
+     * Removes a path entry and unregisters it from every index.
+     *
+     * @param entry is the path entry to remove.
+     */
+    private void removePathEntry(PathEntry entry) {
+        pathEntries.remove(entry);
+        pathEntryMap.remove(entry.path);
+        removeBuildingPath(entry.from, entry);
+        removeBuildingPath(entry.to, entry);
+        for (Coordinate c : entry.path.getSteps()) {
+            pathIndex.remove(c, entry);
+        }
+    }
+
+    private void removeBuildingPath(BuildingActor buildingActor, PathEntry entry) {
+        List<PathEntry> entries = buildingPaths.get(buildingActor);
+        if (entries == null) {
+            return;
+        }
+        entries.remove(entry);
+        if (entries.isEmpty()) {
+            buildingPaths.remove(buildingActor);
+        }
     }
 
 
@@ -892,11 +1578,11 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
     }
 
     public abstract class BuildPhase implements Phase {
-        private final Texture selectTexture;
+        private final TextureRegion selectTexture;
 
         protected final String name;
 
-        protected BuildPhase(Texture selectTexture, String name) {
+        protected BuildPhase(TextureRegion selectTexture, String name) {
             this.selectTexture = selectTexture;
             this.name = name;
         }
@@ -1237,11 +1923,14 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
             Coordinate c = worldToCoordinate(pos);
 
             // Invoke current phase's `onClick` event
-            if (button == Input.Buttons.LEFT) {
-                phase.onLeftClick(c);
-            } else {
-                phase.onRightClick(c);
-            }
+            // Phases may modify the simulation, so they are queued rather than overlapping with a step
+            queueInputAction(() -> {
+                if (button == Input.Buttons.LEFT) {
+                    phase.onLeftClick(c);
+                } else {
+                    phase.onRightClick(c);
+                }
+            });
         }
         return true;
     }
@@ -1254,11 +1943,14 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
             Coordinate c = worldToCoordinate(pos);
 
             // Invoke current phase's `onRelease` event
-            if (button == Input.Buttons.LEFT) {
-                phase.onLeftRelease(c);
-            } else {
-                phase.onRightRelease(c);
-            }
+            // Phases may modify the simulation, so they are queued rather than overlapping with a step
+            queueInputAction(() -> {
+                if (button == Input.Buttons.LEFT) {
+                    phase.onLeftRelease(c);
+                } else {
+                    phase.onRightRelease(c);
+                }
+            });
         }
         return true;
     }
@@ -1306,17 +1998,34 @@ public class GameWorld implements Disposable, InputProcessor, DeliveryListener {
 
     @Override
     public void onDeliveryAdded(Delivery delivery) {
+        if (deferToRenderThread(() -> onDeliveryAdded(delivery))) {
+            return;
+        }
         if (delivery instanceof DroneDelivery droneDelivery) {
-            droneDeliveries.add(new DroneDeliveryActor(droneDelivery, droneAnimation, this::coordinateToWorld));
+            DroneDeliveryActor actor = droneDeliveryActorPool.borrow();
+            actor.track(droneDelivery);
+            droneDeliveries.add(actor);
         } else {
-            deliveries.add(new DeliveryActor(delivery, itemTexture, this::coordinateToWorld));
+            DeliveryActor actor = deliveryActorPool.borrow();
+            actor.track(delivery);
+            deliveries.add(actor);
+            deliveryIndex.add(actor.getCoordinate(), actor);
         }
     }
 
     @Override
     public void onDeliveryFinished(Delivery delivery) {
+        if (deferToRenderThread(() -> onDeliveryFinished(delivery))) {
+            return;
+        }
         if (delivery instanceof DroneDelivery droneDelivery) {
-            droneDeliveries.removeIf((actor) -> actor.getDroneDelivery() == droneDelivery);
+            droneDeliveries.removeIf((actor) -> {
+                if (actor.getDroneDelivery() != droneDelivery) {
+                    return false;
+                }
+                droneDeliveryActorPool.release(actor);
+                return true;
+            });
         }
     }
 }
@@ -1,19 +1,36 @@
 package edu.duke.ece651.factorysim;
 
-import com.badlogic.gdx.graphics.*;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
 /**
  * Represents a grid entity.
  */
 public class GridActor extends Actor2D {
+    /**
+     * Number of cells along each side of a chunk.
+     */
+    public static final int CHUNK_SIZE = 16;
+
+    // Vertex layout used by `SpriteBatch`: 4 vertices of (x, y, color, u, v)
+    private static final int VERTICES_PER_CELL = 20;
+
     private int cols;
     private int rows;
     private final int cellSize;
 
-    private final Texture cellTexture;
-    private Texture selectTexture;
+    private TextureRegion cellTexture;
+
+    // Baked cell vertices of each chunk, indexed by `chunkRow * chunkCols + chunkCol`
+    private int chunkCols;
+    private int chunkRows;
+    private float[][] chunkVertices;
+    private final Vector2 bakedPosition = new Vector2();
+    private boolean chunksDirty = true;
+    private TextureRegion selectTexture;
 
     private final Color selectColor = Color.WHITE.cpy();
 
@@ -47,19 +64,50 @@ public class GridActor extends Actor2D {
      */
     public int getHeight() { return rows * cellSize; }
 
+    /**
+     * Gets the number of chunk columns the grid is split into.
+     *
+     * @return the number of chunk columns.
+     */
+    public int getChunkCols() { return (cols + CHUNK_SIZE - 1) / CHUNK_SIZE; }
+
+    /**
+     * Gets the number of chunk rows the grid is split into.
+     *
+     * @return the number of chunk rows.
+     */
+    public int getChunkRows() { return (rows + CHUNK_SIZE - 1) / CHUNK_SIZE; }
+
+    /**
+     * Gets the reference of the texture of each cell.
+     *
+     * @return the reference of the texture of each cell.
+     */
+    public TextureRegion getCellTexture() { return this.cellTexture; }
+
+    /**
+     * Sets a new texture for each cell. The baked chunks are rebuilt on the next draw.
+     *
+     * @param t the new cell texture.
+     */
+    public void setCellTexture(TextureRegion t) {
+        this.cellTexture = t;
+        this.chunksDirty = true;
+    }
+
     /**
      * Gets the reference of the current texture of the selection box.
      *
      * @return the reference of the current texture of the selection box.
      */
-    public Texture getSelectTexture() { return this.selectTexture; }
+    public TextureRegion getSelectTexture() { return this.selectTexture; }
 
     /**
      * Sets a new texture for the selection box.
      *
      * @param t the new selection box texture.
      */
-    public void setSelectTexture(Texture t) { this.selectTexture = t; }
+    public void setSelectTexture(TextureRegion t) { this.selectTexture = t; }
 
     /**
      * Sets a new color for the selection box.
@@ -75,13 +123,13 @@ public class GridActor extends Actor2D {
      * @param cols is the number of cells horizontally.
      * @param rows is the number of cells vertically.
      * @param cellSize is the size of each cell.
-     * @param cellTexture is the texture of each cell in the grid.
-     * @param selectTexture is the texture of the selection box.
+     * @param cellTexture is the texture region of each cell in the grid.
+     * @param selectTexture is the texture region of the selection box.
      * @param x is the <b>bottom-left</b> x coordinate value of the actor's position.
      * @param y is the <b>bottom-left</b> y coordinate value of the actor's position.
      */
     public GridActor(int cols, int rows, int cellSize,
-                     Texture cellTexture, Texture selectTexture,
+                     TextureRegion cellTexture, TextureRegion selectTexture,
                      float x, float y) {
         super(x, y);
         this.cols = cols;
@@ -91,17 +139,95 @@ public class GridActor extends Actor2D {
         this.selectTexture = selectTexture;
     }
 
+    /**
+     * Draws every chunk of the grid.
+     *
+     * @param spriteBatch is the `SpriteBatch` instance used to draw.
+     */
     public void drawGrid(SpriteBatch spriteBatch) {
-        // Draw the grid
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
-                float x = position.x + col * cellSize;
-                float y = position.y + row * cellSize;
-                spriteBatch.draw(cellTexture, x, y);
+        drawGrid(spriteBatch, null);
+    }
+
+    /**
+     * Draws the chunks of the grid that overlap the view rectangle.
+     *
+     * @param spriteBatch is the `SpriteBatch` instance used to draw.
+     * @param view is the visible area in world space, or null to draw every chunk.
+     */
+    public void drawGrid(SpriteBatch spriteBatch, Rectangle view) {
+        if (chunksDirty || !bakedPosition.equals(position)) {
+            rebuildChunks();
+        }
+
+        // Find the range of chunks that overlap the view
+        int minChunkCol = 0;
+        int minChunkRow = 0;
+        int maxChunkCol = chunkCols - 1;
+        int maxChunkRow = chunkRows - 1;
+        if (view != null) {
+            float chunkWorldSize = (float)CHUNK_SIZE * cellSize;
+            minChunkCol = Math.max(minChunkCol, (int)Math.floor((view.x - position.x) / chunkWorldSize));
+            minChunkRow = Math.max(minChunkRow, (int)Math.floor((view.y - position.y) / chunkWorldSize));
+            maxChunkCol = Math.min(maxChunkCol, (int)Math.floor((view.x + view.width - position.x) / chunkWorldSize));
+            maxChunkRow = Math.min(maxChunkRow, (int)Math.floor((view.y + view.height - position.y) / chunkWorldSize));
+        }
+
+        // Draw each visible chunk with a single call
+        for (int chunkRow = minChunkRow; chunkRow <= maxChunkRow; chunkRow++) {
+            for (int chunkCol = minChunkCol; chunkCol <= maxChunkCol; chunkCol++) {
+                float[] vertices = chunkVertices[chunkRow * chunkCols + chunkCol];
+                spriteBatch.draw(cellTexture.getTexture(), vertices, 0, vertices.length);
             }
         }
     }
 
+    /**
+     * Bakes the vertices of every cell into per-chunk arrays so drawing a chunk doesn't recompute any cell.
+     */
+    private void rebuildChunks() {
+        chunkCols = getChunkCols();
+        chunkRows = getChunkRows();
+        chunkVertices = new float[chunkCols * chunkRows][];
+        float color = Color.WHITE_FLOAT_BITS;
+        float u = cellTexture.getU();
+        float v = cellTexture.getV();
+        float u2 = cellTexture.getU2();
+        float v2 = cellTexture.getV2();
+
+        for (int chunkRow = 0; chunkRow < chunkRows; chunkRow++) {
+            for (int chunkCol = 0; chunkCol < chunkCols; chunkCol++) {
+                int startCol = chunkCol * CHUNK_SIZE;
+                int startRow = chunkRow * CHUNK_SIZE;
+                int endCol = Math.min(startCol + CHUNK_SIZE, cols);
+                int endRow = Math.min(startRow + CHUNK_SIZE, rows);
+
+                float[] vertices = new float[(endCol - startCol) * (endRow - startRow) * VERTICES_PER_CELL];
+                int i = 0;
+                for (int row = startRow; row < endRow; row++) {
+                    for (int col = startCol; col < endCol; col++) {
+                        float x = position.x + col * cellSize;
+                        float y = position.y + row * cellSize;
+                        i = putCell(vertices, i, x, y, x + cellSize, y + cellSize, color, u, v, u2, v2);
+                    }
+                }
+                chunkVertices[chunkRow * chunkCols + chunkCol] = vertices;
+            }
+        }
+
+        bakedPosition.set(position);
+        chunksDirty = false;
+    }
+
+    private static int putCell(float[] vertices, int i, float x, float y, float x2, float y2, float color,
+                               float u, float v, float u2, float v2) {
+        // Texture coordinates have v pointing down, so the bottom of the cell uses v2
+        vertices[i++] = x;  vertices[i++] = y;  vertices[i++] = color; vertices[i++] = u;  vertices[i++] = v2;
+        vertices[i++] = x;  vertices[i++] = y2; vertices[i++] = color; vertices[i++] = u;  vertices[i++] = v;
+        vertices[i++] = x2; vertices[i++] = y2; vertices[i++] = color; vertices[i++] = u2; vertices[i++] = v;
+        vertices[i++] = x2; vertices[i++] = y;  vertices[i++] = color; vertices[i++] = u2; vertices[i++] = v2;
+        return i;
+    }
+
     /**
      * Draw the selection box based on previously updated mouse position.
      *
@@ -131,6 +257,7 @@ public class GridActor extends Actor2D {
     public void resize(int cols, int rows) {
         this.cols = cols;
         this.rows = rows;
+        this.chunksDirty = true;
     }
 
     public void onMouseMoved(Vector2 mousePos) {
@@ -3,37 +3,123 @@ package edu.duke.ece651.factorysim;
 import java.util.*;
 import java.util.function.Supplier;
 
+/**
+ * Represents a pool of reusable objects kept on a preallocated array stack.
+ * Borrowing pops the most recently released object, or creates a new one if the pool is empty.
+ * Objects released while the pool already retains its maximum size are discarded.
+ * This pool isn't thread-safe, see `ConcurrentObjectPool` for a pool shared between threads.
+ *
+ * @param <T> is the type of pooled objects.
+ */
 public class ObjectPool<T extends PooledObject> {
-    private final Queue<T> pool = new LinkedList<>();
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+    private static final int DEFAULT_CAPACITY = 16;
+
     private final Supplier<T> createFunc;
+    private final int maxSize;
+    private Object[] items;
+    private int count = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long releases = 0;
+    private long discarded = 0;
 
     public ObjectPool(Supplier<T> createFunc) {
-        this.createFunc = createFunc;
+        this(createFunc, 0, UNBOUNDED);
     }
 
     public ObjectPool(Supplier<T> createFunc, int size) {
-        this(createFunc);
-        for (int i = 0; i < size; i++) {
-            pool.offer(createFunc.get());
+        this(createFunc, size, UNBOUNDED);
+    }
+
+    /**
+     * Constructs a pool with a bound on how many released objects it retains.
+     *
+     * @param createFunc is the function to create a new object when the pool is empty.
+     * @param size is the number of objects to create up front.
+     * @param maxSize is the maximum number of objects retained by the pool.
+     */
+    public ObjectPool(Supplier<T> createFunc, int size, int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size must not be negative, got " + maxSize);
+        }
+        this.createFunc = createFunc;
+        this.maxSize = maxSize;
+        this.items = new Object[Math.min(maxSize, Math.max(size, DEFAULT_CAPACITY))];
+        for (int i = 0; i < Math.min(size, maxSize); i++) {
+            items[count++] = createFunc.get();
         }
     }
 
+    @SuppressWarnings("unchecked")
     public T borrow() {
-        T obj = pool.poll();
-        if (obj == null) {
+        T obj;
+        if (count > 0) {
+            obj = (T)items[--count];
+            items[count] = null;
+            hits++;
+        } else {
             obj = createFunc.get();
+            misses++;
         }
         obj.onBorrowed();
         return obj;
     }
 
     public void release(T obj) {
-        pool.offer(obj);
         obj.onReleased();
+        releases++;
+        if (count == maxSize) {
+            discarded++;
+            return;
+        }
+        if (count == items.length) {
+            items = Arrays.copyOf(items, (int)Math.min(maxSize, Math.max(DEFAULT_CAPACITY, items.length * 2L)));
+        }
+        items[count++] = obj;
     }
 
     public int size() {
-        return pool.size();
+        return count;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of borrows served by a pooled object.
+     *
+     * @return the number of hits.
+     */
+    public long getHits() {
+        return hits;
     }
-}
 
+    /**
+     * Gets the number of borrows that had to create a new object.
+     *
+     * @return the number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getBorrows() {
+        return hits + misses;
+    }
+
+    public long getReleases() {
+        return releases;
+    }
+
+    /**
+     * Gets the number of released objects dropped because the pool was full.
+     *
+     * @return the number of discarded objects.
+     */
+    public long getDiscarded() {
+        return discarded;
+    }
+}
@@ -1,11 +1,10 @@
 package edu.duke.ece651.factorysim;
 
-import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.graphics.g2d.*;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
 import java.util.*;
-import java.util.function.Function;
 
 public class PathActor extends Actor2D {
     private final TileMap tileMap;
@@ -13,22 +12,73 @@ public class PathActor extends Actor2D {
     private final Animator<TextureRegion> pathAnimator;
     private final TextureRegion crossTexture;
 
-    private final Function<Coordinate, Vector2> coordinateToWorld;
+    private final CoordinateMapper coordinateToWorld;
+
+    private final TileVersions tileVersions;
 
     private final List<Coordinate> paths;
     private final List<Coordinate> crosses;
 
+    // Render commands of the non-cross tiles, stored as x, y, rotation, kind in the same order as `paths`.
+    // They depend on the flows of the tiles, so they are recompiled when any of the tiles is touched.
+    private static final int COMMAND_STRIDE = 4;
+    private static final float KIND_PATH = 0f;
+    private static final float KIND_CROSS = 1f;
+    private final float[] pathCommands;
+    private int compiledVersion;
+    private int checkedVersion;
+    private int compiledFlowsVersion = 0;
+    private boolean dirty = false;
+    private int compileCount = 0;
+
+    // World positions of the cross tiles, stored as x, y pairs in the same order as `crosses`
+    private final float[] crossPositions;
+
+    private final Rectangle bounds = new Rectangle();
+
+    // Scratch space reused across calls
+    private final int[] flowDirs = new int[2];
+    private final int[] tileFlows = new int[4];
+    private final Vector2 tmp = new Vector2();
+    private final Vector2 tmpOther = new Vector2();
+
     public Iterable<Coordinate> getNonCrossPathCoordinates() { return this.paths; }
     public Iterable<Coordinate> getCrossCoordinates() { return this.crosses; }
 
+    /**
+     * Constructs a path actor whose render commands are compiled once and only recompiled on `invalidate`.
+     *
+     * @param path is the path to draw.
+     * @param tileMap is the tile map the path is on.
+     * @param pathAnimator is the animator of directional path tiles.
+     * @param crossTexture is the texture of cross tiles.
+     * @param coordinateToWorld is the conversion from a coordinate to a position in the world.
+     */
+    public PathActor(Path path, TileMap tileMap,
+                     Animator<TextureRegion> pathAnimator, TextureRegion crossTexture,
+                     CoordinateMapper coordinateToWorld) {
+        this(path, tileMap, pathAnimator, crossTexture, coordinateToWorld, null);
+    }
+
+    /**
+     * Constructs a path actor whose render commands are recompiled when any of its tiles is touched.
+     *
+     * @param path is the path to draw.
+     * @param tileMap is the tile map the path is on.
+     * @param pathAnimator is the animator of directional path tiles.
+     * @param crossTexture is the texture of cross tiles.
+     * @param coordinateToWorld is the conversion from a coordinate to a position in the world.
+     * @param tileVersions is the modification counters of the tile map, or null.
+     */
     public PathActor(Path path, TileMap tileMap,
-                     Animator<TextureRegion> pathAnimator, Texture crossTexture,
-                     Function<Coordinate, Vector2> coordinateToWorld) {
+                     Animator<TextureRegion> pathAnimator, TextureRegion crossTexture,
+                     CoordinateMapper coordinateToWorld, TileVersions tileVersions) {
         super(0f, 0f);
         this.tileMap = tileMap;
         this.pathAnimator = pathAnimator;
-        this.crossTexture = new TextureRegion(crossTexture);
+        this.crossTexture = crossTexture;
         this.coordinateToWorld = coordinateToWorld;
+        this.tileVersions = tileVersions;
 
         // Split paths and crosses
         this.paths = new ArrayList<>();
@@ -65,32 +115,189 @@ public class PathActor extends Actor2D {
 
         // Sort crosses by y (lower y = being drawn later)
         crosses.sort((a, b) -> {
-            float ay = coordinateToWorld.apply(a).y;
-            float by = coordinateToWorld.apply(b).y;
+            float ay = coordinateToWorld.toWorld(a, tmp).y;
+            float by = coordinateToWorld.toWorld(b, tmpOther).y;
             return Float.compare(by, ay);
         });
+
+        // Convert every tile to its world position once
+        this.crossPositions = toWorldPositions(this.crosses);
+        this.pathCommands = new float[this.paths.size() * COMMAND_STRIDE];
+        for (int i = 0; i < this.paths.size(); i++) {
+            coordinateToWorld.toWorld(this.paths.get(i), tmp);
+            pathCommands[i * COMMAND_STRIDE] = tmp.x;
+            pathCommands[i * COMMAND_STRIDE + 1] = tmp.y;
+        }
+        compile(null);
+
+        // Calculate the area covered by all drawable tiles
+        calculateBounds();
     }
 
-    public void drawPaths(SpriteBatch spriteBatch) {
-        int[] flowDirs = new int[2];
-        for (Coordinate c : paths) {
-            int[] flows = tileMap.getFlows(c);
+    private float[] toWorldPositions(List<Coordinate> coordinates) {
+        float[] positions = new float[coordinates.size() * 2];
+        for (int i = 0; i < coordinates.size(); i++) {
+            coordinateToWorld.toWorld(coordinates.get(i), tmp);
+            positions[i * 2] = tmp.x;
+            positions[i * 2 + 1] = tmp.y;
+        }
+        return positions;
+    }
+
+    private void calculateBounds() {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < pathCommands.length; i += COMMAND_STRIDE) {
+            minX = Math.min(minX, pathCommands[i]);
+            minY = Math.min(minY, pathCommands[i + 1]);
+            maxX = Math.max(maxX, pathCommands[i]);
+            maxY = Math.max(maxY, pathCommands[i + 1]);
+        }
+        for (int i = 0; i < crossPositions.length; i += 2) {
+            minX = Math.min(minX, crossPositions[i]);
+            minY = Math.min(minY, crossPositions[i + 1]);
+            maxX = Math.max(maxX, crossPositions[i]);
+            maxY = Math.max(maxY, crossPositions[i + 1]);
+        }
+        if (minX > maxX) {
+            bounds.set(0f, 0f, 0f, 0f);
+            return;
+        }
+
+        // Tiles are drawn from their bottom-left corner, so extend by the size of the largest tile sprite
+        float tileSize = Math.max(crossTexture.getRegionWidth(), crossTexture.getRegionHeight());
+        position.set(minX, minY);
+        bounds.set(minX, minY, maxX - minX + tileSize, maxY - minY + tileSize);
+    }
+
+    @Override
+    public float getBoundsWidth() { return bounds.width; }
+
+    @Override
+    public float getBoundsHeight() { return bounds.height; }
+
+    @Override
+    public boolean isVisible(Rectangle view) {
+        return (bounds.width > 0f || bounds.height > 0f) && bounds.overlaps(view);
+    }
+
+    /**
+     * Compiles the render commands of the non-cross tiles from their current flows.
+     * A tile that is no longer linear is drawn as a cross.
+     *
+     * @param snapshot is the snapshot to read the flows from, or null to read the tile map directly.
+     */
+    private void compile(SimulationSnapshot snapshot) {
+        for (int i = 0; i < paths.size(); i++) {
+            int offset = i * COMMAND_STRIDE;
+            Coordinate c = paths.get(i);
+            int[] flows = snapshot == null ? tileMap.getFlows(c) : snapshot.getFlows(c, tileFlows);
             int num = getFlowDirs(flows, flowDirs);
             if (num == 2 && isLinear(flowDirs[0], flowDirs[1])) {
-                drawPath(spriteBatch, c, flows, flowDirs);
+                int out = (flows[flowDirs[0]] > 0) ? flowDirs[0] : flowDirs[1];
+                pathCommands[offset + 2] = getRotationFromDirection(out);
+                pathCommands[offset + 3] = KIND_PATH;
             } else {
-                drawCross(spriteBatch, c);
+                pathCommands[offset + 2] = 0f;
+                pathCommands[offset + 3] = KIND_CROSS;
             }
         }
+        compiledVersion = tileVersions == null ? 0 : tileVersions.getVersion();
+        checkedVersion = compiledVersion;
+        compiledFlowsVersion = snapshot == null ? 0 : snapshot.getFlowsVersion();
+        dirty = false;
+        compileCount++;
     }
 
-    public void drawCrosses(SpriteBatch spriteBatch) {
-        drawCrosses(spriteBatch, this.crosses);
+    /**
+     * Recompiles the render commands if they were invalidated or any of the non-cross tiles was touched since
+     * they were compiled. Checking the tiles only happens once per change of the map's version.
+     */
+    private void compileIfStale() {
+        if (dirty || compiledFlowsVersion != 0) {
+            compile(null);
+            return;
+        }
+        if (tileVersions == null || tileVersions.getVersion() == checkedVersion) {
+            return;
+        }
+        for (Coordinate c : paths) {
+            if (tileVersions.isChangedSince(c, compiledVersion)) {
+                compile(null);
+                return;
+            }
+        }
+        checkedVersion = tileVersions.getVersion();
     }
 
-    public void drawCrosses(SpriteBatch spriteBatch, Iterable<Coordinate> crosses) {
-        for (Coordinate c : crosses) {
-            drawCross(spriteBatch, c);
+    /**
+     * Recompiles the render commands if they were invalidated or weren't compiled from the flows of the snapshot.
+     *
+     * @param snapshot is the latest snapshot from the worker thread.
+     */
+    private void compileIfStale(SimulationSnapshot snapshot) {
+        if (dirty || snapshot.getFlowsVersion() != compiledFlowsVersion) {
+            compile(snapshot);
+        }
+    }
+
+    /**
+     * Forces the render commands to be recompiled before the next draw, e.g. after flows changed on a map whose
+     * changes aren't tracked.
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Gets how many times the render commands were compiled.
+     *
+     * @return the number of compilations, including the one at construction.
+     */
+    public int getCompileCount() { return this.compileCount; }
+
+    public void drawPaths(SpriteBatch spriteBatch) {
+        drawPaths(spriteBatch, null);
+    }
+
+    /**
+     * Draws the non-cross tiles, recompiling their render commands first if they are stale.
+     *
+     * @param spriteBatch is the sprite batch to draw with.
+     * @param snapshot is the latest snapshot from the worker thread to read the flows from, or null to read the
+     *                 tile map directly.
+     */
+    public void drawPaths(SpriteBatch spriteBatch, SimulationSnapshot snapshot) {
+        if (pathCommands.length == 0) {
+            return;
+        }
+        if (snapshot == null) {
+            compileIfStale();
+        } else {
+            compileIfStale(snapshot);
+        }
+
+        TextureRegion texture = pathAnimator.getCurrentKeyFrame();
+        float width = texture.getRegionWidth();
+        float height = texture.getRegionHeight();
+        float originX = width / 2f;
+        float originY = height / 2f;
+        float[] commands = pathCommands;
+        for (int i = 0; i < commands.length; i += COMMAND_STRIDE) {
+            if (commands[i + 3] == KIND_PATH) {
+                spriteBatch.draw(texture, commands[i], commands[i + 1], originX, originY,
+                    width, height, 1f, 1f, commands[i + 2]);
+            } else {
+                spriteBatch.draw(crossTexture, commands[i], commands[i + 1]);
+            }
+        }
+    }
+
+    public void drawCrosses(SpriteBatch spriteBatch) {
+        for (int i = 0; i < crossPositions.length; i += 2) {
+            drawCross(spriteBatch, crossPositions[i], crossPositions[i + 1]);
         }
     }
 
@@ -130,21 +337,7 @@ public class PathActor extends Actor2D {
         };
     }
 
-    private void drawPath(SpriteBatch spriteBatch, Coordinate c, int[] flows, int[] dirs) {
-        int out = (flows[dirs[0]] > 0) ? dirs[0] : dirs[1];
-        float rotation = getRotationFromDirection(out);
-
-        TextureRegion texture = pathAnimator.getCurrentKeyFrame();
-        int width = texture.getRegionWidth();
-        int height = texture.getRegionHeight();
-        Vector2 pos = coordinateToWorld.apply(c);
-
-        spriteBatch.draw(texture, pos.x, pos.y, width / 2f, height / 2f,
-                width, height, 1f, 1f, rotation);
-    }
-
-    private void drawCross(SpriteBatch spriteBatch, Coordinate c) {
-        Vector2 pos = coordinateToWorld.apply(c);
-        spriteBatch.draw(crossTexture, pos.x, pos.y);
+    private void drawCross(SpriteBatch spriteBatch, float x, float y) {
+        spriteBatch.draw(crossTexture, x, y);
     }
 }
@@ -1,18 +1,53 @@
 package edu.duke.ece651.factorysim;
 
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Handles real-time simulation by accumulating delta time and stepping the simulation.
+ * In threaded mode, the simulation is instead stepped by a dedicated worker thread, which publishes a
+ * `SimulationSnapshot` after each step for the render thread to read.
+ * In turbo mode, the target speed is ignored and the simulation is stepped as fast as possible, in batches
+ * sized from the measured cost of a step so that each batch fits in a frame budget.
  */
 public class RealTimeSimulation {
     private final Simulation simulation;
 
     // Timing settings
-    private float stepsPerSecond = 5f; // Default: 5 steps per second
+    private volatile float stepsPerSecond = 5f; // Default: 5 steps per second
     private float accumulatedTime = 0f;
 
     // State
-    private boolean running = false;
-    private boolean paused = false;
+    private volatile boolean running = false;
+    private volatile boolean paused = false;
+
+    // Turbo mode
+    private static final long DEFAULT_FRAME_BUDGET_NANOS = 8_000_000L;
+    private static final int MAX_TURBO_BATCH = 100_000;
+    private static final double STEP_COST_SMOOTHING = 0.2;
+    private volatile boolean turbo = false;
+    private volatile long frameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private volatile double nanosPerStep = 0;
+
+    // Achieved speed, measured over a short window by the thread that steps. The render thread's window is only
+    // touched by the render thread, and the worker thread measures with its own window
+    private static final long SPEED_WINDOW_NANOS = 500_000_000L;
+    private final SpeedWindow speedWindow = new SpeedWindow();
+    private volatile float achievedSpeed = 0f;
+
+    // Threaded mode
+    private static final long PAUSED_POLL_NANOS = 10_000_000L;
+    private static final int MAX_STEPS_BEHIND = 5;
+    // Fair, so that the render thread isn't starved by back-to-back turbo batches
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final AtomicReference<SimulationSnapshot> snapshot = new AtomicReference<>();
+    // Whether paths changed since the last snapshot, guarded by the lock
+    private boolean flowsChanged = false;
+    private boolean threaded = false;
+    private Thread worker;
+    private volatile boolean stopRequested = false;
+    private int lastSeenTime = 0;
 
     /**
      * Creates a real-time simulation handler.
@@ -23,33 +58,139 @@ public class RealTimeSimulation {
         this.simulation = simulation;
     }
 
+    /**
+     * Gets the lock held while the simulation is being stepped, by the worker thread or in `update`.
+     * Any other thread touching the simulation, e.g. to save it in the background, must hold this lock.
+     *
+     * @return the simulation lock
+     */
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
     /**
      * Updates the simulation based on the provided delta time.
+     * In threaded mode, no step is executed here.
      *
      * @param deltaTime time since the last frame in seconds
-     * @return the number of steps executed this update
+     * @return the number of steps executed this update, or since the last update in threaded mode
      */
     public int update(float deltaTime) {
         if (!running || paused) {
             return 0;
         }
 
+        if (threaded) {
+            SimulationSnapshot latest = snapshot.get();
+            if (latest == null) {
+                return 0;
+            }
+            int steps = latest.getCurrentTime() - lastSeenTime;
+            lastSeenTime = latest.getCurrentTime();
+            return steps;
+        }
+
         // Calculate how much time must pass to execute one step
         float timePerStep = 1f / stepsPerSecond;
 
-        // Add the current frame's time to our accumulated time
-        accumulatedTime += deltaTime;
+        // Another thread, e.g. a background save, is reading the simulation, so skip stepping this frame
+        // rather than freezing the render thread
+        if (!lock.tryLock()) {
+            accumulatedTime = Math.min(accumulatedTime + deltaTime, timePerStep * MAX_STEPS_BEHIND);
+            return 0;
+        }
+        try {
+            if (turbo) {
+                return runTurboFrame();
+            }
+
+            // Add the current frame's time to our accumulated time
+            accumulatedTime += deltaTime;
+
+            // Calculate how many steps to run this frame
+            int stepsToRun = 0;
+
+            while (accumulatedTime >= timePerStep) {
+                simulation.step(1);
+                accumulatedTime -= timePerStep;
+                stepsToRun++;
+            }
+
+            recordSteps(speedWindow, stepsToRun, System.nanoTime());
+            return stepsToRun;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Steps the simulation in batches until the frame budget is used up.
+     *
+     * @return the number of steps executed
+     */
+    private int runTurboFrame() {
+        long deadline = System.nanoTime() + frameBudgetNanos;
+        int steps = 0;
+        long now = System.nanoTime();
+        while (now < deadline) {
+            int batch = getBatchSize(deadline - now);
+            simulation.step(batch);
+            long end = System.nanoTime();
+            recordBatchCost(batch, end - now);
+            steps += batch;
+            now = end;
+        }
+        recordSteps(speedWindow, steps, now);
+        return steps;
+    }
+
+    /**
+     * Calculates how many steps fit in a time budget given the measured cost of a step.
+     *
+     * @param budgetNanos the time budget in nanoseconds
+     * @return the batch size, at least 1
+     */
+    private int getBatchSize(long budgetNanos) {
+        if (nanosPerStep <= 0) {
+            return 1;
+        }
+        return (int)Math.max(1, Math.min(MAX_TURBO_BATCH, budgetNanos / nanosPerStep));
+    }
+
+    private void recordBatchCost(int batch, long elapsedNanos) {
+        double cost = (double)elapsedNanos / batch;
+        nanosPerStep = nanosPerStep <= 0 ? cost : nanosPerStep + (cost - nanosPerStep) * STEP_COST_SMOOTHING;
+    }
+
+    /**
+     * Represents the steps counted since the start of a window, owned by a single thread.
+     */
+    private static class SpeedWindow {
+        private long start = 0;
+        private int steps = 0;
 
-        // Calculate how many steps to run this frame
-        int stepsToRun = 0;
+        private void reset() {
+            start = 0;
+            steps = 0;
+        }
+    }
 
-        while (accumulatedTime >= timePerStep) {
-            simulation.step(1);
-            accumulatedTime -= timePerStep;
-            stepsToRun++;
+    private void recordSteps(SpeedWindow window, int steps, long now) {
+        if (window.start == 0) {
+            window.start = now;
+        }
+        window.steps += steps;
+        long elapsed = now - window.start;
+        if (elapsed >= SPEED_WINDOW_NANOS) {
+            achievedSpeed = (float)(window.steps * 1_000_000_000.0 / elapsed);
+            window.start = now;
+            window.steps = 0;
         }
+    }
 
-        return stepsToRun;
+    private void resetSpeedWindow() {
+        speedWindow.reset();
+        achievedSpeed = 0f;
     }
 
     /**
@@ -59,6 +200,10 @@ public class RealTimeSimulation {
         running = true;
         paused = false;
         accumulatedTime = 0f;
+        resetSpeedWindow();
+        if (threaded) {
+            startWorker();
+        }
     }
 
     /**
@@ -66,6 +211,7 @@ public class RealTimeSimulation {
      */
     public void pause() {
         paused = true;
+        achievedSpeed = 0f;
     }
 
     /**
@@ -73,6 +219,9 @@ public class RealTimeSimulation {
      */
     public void resume() {
         if (running) {
+            if (!threaded) {
+                resetSpeedWindow();
+            }
             paused = false;
             // Reset accumulated time to avoid executing too many steps at once
             // accumulatedTime = 0f;
@@ -86,6 +235,8 @@ public class RealTimeSimulation {
         running = false;
         paused = false;
         accumulatedTime = 0f;
+        stopWorker();
+        resetSpeedWindow();
     }
 
     /**
@@ -108,6 +259,73 @@ public class RealTimeSimulation {
         return stepsPerSecond;
     }
 
+    /**
+     * Enables or disables turbo mode, in which the simulation is stepped as fast as possible.
+     *
+     * @param turbo true to ignore the target speed and step as fast as possible
+     */
+    public void setTurbo(boolean turbo) {
+        this.turbo = turbo;
+        this.accumulatedTime = 0f;
+    }
+
+    /**
+     * Checks if turbo mode is enabled.
+     *
+     * @return true if turbo mode is enabled, otherwise false
+     */
+    public boolean isTurbo() {
+        return turbo;
+    }
+
+    /**
+     * Sets how long a turbo batch may take, which bounds how long a frame or the simulation lock is held.
+     *
+     * @param seconds the frame budget in seconds (min 0.001)
+     */
+    public void setFrameBudget(float seconds) {
+        this.frameBudgetNanos = (long)(Math.max(0.001f, seconds) * 1_000_000_000L);
+    }
+
+    /**
+     * Gets how long a turbo batch may take.
+     *
+     * @return the frame budget in seconds
+     */
+    public float getFrameBudget() {
+        return frameBudgetNanos / 1_000_000_000f;
+    }
+
+    /**
+     * Gets the measured cost of a single step, used to size turbo batches.
+     *
+     * @return the average time of a step in nanoseconds, or 0 if no batch has been measured yet
+     */
+    public double getNanosPerStep() {
+        return nanosPerStep;
+    }
+
+    /**
+     * Gets the speed the simulation actually ran at, measured over the last half second.
+     *
+     * @return the achieved steps per second, or 0 if not measured yet
+     */
+    public float getAchievedSpeed() {
+        return achievedSpeed;
+    }
+
+    /**
+     * Gets the speed actors should be animated at: the achieved speed in turbo mode, otherwise the target speed.
+     *
+     * @return steps per second
+     */
+    public float getEffectiveSpeed() {
+        if (turbo && achievedSpeed > 0) {
+            return achievedSpeed;
+        }
+        return stepsPerSecond;
+    }
+
     /**
      * Checks if the simulation is currently running.
      *
@@ -125,4 +343,148 @@ public class RealTimeSimulation {
     public boolean isPaused() {
         return paused;
     }
+
+    /**
+     * Enables or disables stepping the simulation on a dedicated worker thread.
+     * Switching while running starts or stops the worker immediately.
+     *
+     * @param threaded true to step on a worker thread, false to step in `update`
+     */
+    public void setThreaded(boolean threaded) {
+        if (this.threaded == threaded) {
+            return;
+        }
+        this.threaded = threaded;
+        if (!running) {
+            return;
+        }
+        if (threaded) {
+            startWorker();
+        } else {
+            stopWorker();
+            accumulatedTime = 0f;
+        }
+    }
+
+    /**
+     * Checks if the simulation is stepped on a worker thread.
+     *
+     * @return true if threaded mode is enabled, otherwise false
+     */
+    public boolean isThreaded() {
+        return threaded;
+    }
+
+    /**
+     * Gets the latest snapshot published by the worker thread.
+     *
+     * @return the latest snapshot, or null if the worker thread isn't running or hasn't stepped yet
+     */
+    public SimulationSnapshot getSnapshot() {
+        return worker == null ? null : snapshot.get();
+    }
+
+    /**
+     * Publishes a new snapshot after the simulation was changed outside a step, e.g. by building or connecting,
+     * so the render thread sees the change even while paused. Does nothing unless the worker thread is running.
+     * The caller must hold the simulation lock.
+     */
+    public void refreshSnapshot() {
+        if (worker == null) {
+            return;
+        }
+        snapshot.set(SimulationSnapshot.capture(simulation, snapshot.get(), flowsChanged));
+        flowsChanged = false;
+    }
+
+    /**
+     * Marks the flows of the tile map as changed, e.g. after connecting or disconnecting a path, so the next snapshot
+     * copies them again instead of sharing the previous ones. The caller must hold the simulation lock.
+     */
+    public void markFlowsChanged() {
+        flowsChanged = true;
+    }
+
+    private void startWorker() {
+        if (worker != null) {
+            return;
+        }
+        stopRequested = false;
+        lastSeenTime = simulation.getCurrentTime();
+        resetSpeedWindow();
+        worker = new Thread(this::runWorker, "simulation-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void stopWorker() {
+        if (worker == null) {
+            return;
+        }
+        stopRequested = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+        snapshot.set(null);
+    }
+
+    /**
+     * The loop of the worker thread, steps the simulation at the target rate until asked to stop.
+     */
+    private void runWorker() {
+        SpeedWindow window = new SpeedWindow();
+        long nextStepTime = System.nanoTime();
+        while (!stopRequested) {
+            if (paused) {
+                LockSupport.parkNanos(PAUSED_POLL_NANOS);
+                nextStepTime = System.nanoTime();
+                continue;
+            }
+
+            long now = System.nanoTime();
+            if (!turbo && now < nextStepTime) {
+                LockSupport.parkNanos(nextStepTime - now);
+                continue;
+            }
+
+            // In turbo mode, step a whole batch per lock so the lock is held for about one frame budget
+            int batch = turbo ? getBatchSize(frameBudgetNanos) : 1;
+            SimulationSnapshot captured = null;
+            lock.lock();
+            try {
+                long batchStart = System.nanoTime();
+                simulation.step(batch);
+                if (turbo) {
+                    recordBatchCost(batch, System.nanoTime() - batchStart);
+                }
+                // Published under the lock, so it never replaces a newer snapshot from `refreshSnapshot`
+                captured = SimulationSnapshot.capture(simulation, snapshot.get(), flowsChanged);
+                flowsChanged = false;
+                snapshot.set(captured);
+            } catch (Exception e) {
+                System.err.println(e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+            if (captured != null) {
+                recordSteps(window, batch, System.nanoTime());
+            }
+
+            if (turbo) {
+                nextStepTime = System.nanoTime();
+                continue;
+            }
+
+            // Schedule the next step, dropping steps if too far behind to avoid sudden bursts
+            long timePerStep = (long)(1_000_000_000L / stepsPerSecond);
+            nextStepTime += timePerStep;
+            if (now - nextStepTime > timePerStep * MAX_STEPS_BEHIND) {
+                nextStepTime = now;
+            }
+        }
+    }
 }
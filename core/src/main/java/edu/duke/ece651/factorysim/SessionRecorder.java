@@ -0,0 +1,125 @@
+package edu.duke.ece651.factorysim;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Records the sessions of a game world as `CommandJournal`s, so they can be reproduced without the GUI by
+ * `CommandReplayer`.
+ * <p>
+ * A recording, `session-<timestamp>.fsj`, starts with the state of the simulation and holds every user command after
+ * it. The journal is attached under the simulation lock together with serializing the state, so no command is missed
+ * or recorded twice, and the state is encoded and written after the lock is released. Stopping ends the recording
+ * with the time step and state hash of the simulation, which the replayer checks its result against. Loading another
+ * simulation detaches the journal, so a recording must be stopped before that to be ended, and a new one started
+ * after.
+ */
+public class SessionRecorder implements Closeable {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final GameWorld world;
+    private final Path dir;
+    private CommandJournal journal = null;
+    private Path path = null;
+
+    /**
+     * Constructs a recorder. It does nothing until started.
+     *
+     * @param world is the game world to record.
+     * @param dir is the directory of the recordings, it is created if needed.
+     */
+    public SessionRecorder(GameWorld world, Path dir) {
+        this.world = world;
+        this.dir = dir;
+    }
+
+    /**
+     * Gets the default recordings directory, in the user's home directory.
+     *
+     * @return the default recordings directory.
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".factorysim", "recordings");
+    }
+
+    /**
+     * Starts recording the current simulation of the game world, ending the recording in progress first.
+     *
+     * @return the path of the new recording.
+     * @throws IOException when the recording can't be written.
+     */
+    public synchronized Path start() throws IOException {
+        stop();
+        Files.createDirectories(dir);
+        String name = "session-" + LocalDateTime.now().format(TIMESTAMP);
+        Path next = dir.resolve(name + "." + CommandJournal.EXTENSION);
+        for (int i = 1; Files.exists(next); i++) {
+            next = dir.resolve(name + "-" + i + "." + CommandJournal.EXTENSION);
+        }
+        CommandJournal nextJournal = new CommandJournal(Files.newOutputStream(next, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE));
+
+        // Capture the state and attach at the same point, commands meanwhile wait in the journal for its header
+        String json;
+        try {
+            json = world.callWithSimulationLock(() -> {
+                world.addJournal(nextJournal);
+                return world.getSim().toJson();
+            });
+            nextJournal.begin(json);
+        } catch (IOException | RuntimeException e) {
+            world.runWithSimulationLock(() -> world.removeJournal(nextJournal));
+            nextJournal.close();
+            Files.deleteIfExists(next);
+            throw e;
+        }
+        journal = nextJournal;
+        path = next;
+        return next;
+    }
+
+    /**
+     * Ends the recording in progress with the time step and state hash of the simulation. A recording whose journal
+     * was detached by loading another simulation is closed without an end, since the state no longer matches.
+     *
+     * @throws IOException when the end can't be written.
+     */
+    public synchronized void stop() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        CommandJournal ending = journal;
+        journal = null;
+        path = null;
+        CommandJournal.End end = world.callWithSimulationLock(() -> {
+            if (!world.removeJournal(ending)) {
+                return null;
+            }
+            Simulation sim = world.getSim();
+            return new CommandJournal.End(sim.getCurrentTime(), CommandJournal.stateHash(sim.toJson()));
+        });
+        if (end == null) {
+            ending.close();
+        } else {
+            ending.end(end);
+        }
+    }
+
+    /**
+     * Gets the path of the recording in progress.
+     *
+     * @return the path, or null if not recording.
+     */
+    public synchronized Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stop();
+    }
+}
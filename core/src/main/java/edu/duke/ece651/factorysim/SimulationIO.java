@@ -0,0 +1,170 @@
+package edu.duke.ece651.factorysim;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.Path;
+
+/**
+ * Loads and saves simulations from and to streams.
+ * `Simulation` only loads from a file, so a loaded stream is copied to a single temporary file in fixed-size chunks,
+ * which is deleted even if loading fails. Saving writes the document from `Simulation.toJson` without a temporary
+ * file, so the document is held in memory once while it's written.
+ */
+public final class SimulationIO {
+    private SimulationIO() { }
+
+    /**
+     * Loads a simulation from a save or formula document.
+     *
+     * @param in is the stream to read the JSON document from, it is read to the end but not closed.
+     * @param logger is the logger of the loaded simulation.
+     * @return the loaded simulation.
+     * @throws IOException when the stream can't be read or the temporary file can't be written.
+     */
+    public static Simulation load(InputStream in, Logger logger) throws IOException {
+        Path file = Files.createTempFile("factorysim", ".json");
+        try {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return loadFile(file, logger);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Loads a simulation from a save or formula document.
+     *
+     * @param in is the reader to read the JSON document from, it is read to the end but not closed.
+     * @param logger is the logger of the loaded simulation.
+     * @return the loaded simulation.
+     * @throws IOException when the reader fails or the temporary file can't be written.
+     */
+    public static Simulation load(Reader in, Logger logger) throws IOException {
+        Path file = Files.createTempFile("factorysim", ".json");
+        try {
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                in.transferTo(out);
+            }
+            return loadFile(file, logger);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Loads a simulation from a binary snapshot.
+     *
+     * @param in is the stream to read the snapshot from, it is not closed.
+     * @param logger is the logger of the loaded simulation.
+     * @return the loaded simulation.
+     * @throws IOException when the snapshot is malformed or can't be read.
+     */
+    public static Simulation loadBinary(InputStream in, Logger logger) throws IOException {
+        Path file = Files.createTempFile("factorysim", ".json");
+        try {
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                BinarySave.decode(in, out);
+            }
+            return loadFile(file, logger);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Loads a simulation from a file, as a binary snapshot or JSON depending on its extension.
+     *
+     * @param path is the path of the file.
+     * @param logger is the logger of the loaded simulation.
+     * @return the loaded simulation.
+     * @throws IOException when the file can't be read.
+     */
+    public static Simulation load(String path, Logger logger) throws IOException {
+        if (!BinarySave.isBinary(path)) {
+            return loadFile(Paths.get(path), logger);
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+            return loadBinary(in, logger);
+        }
+    }
+
+    private static Simulation loadFile(Path file, Logger logger) {
+        Simulation sim = new Simulation(WorldBuilder.buildEmptyWorld(), 0, logger);
+        sim.load(file.toString());
+        return sim;
+    }
+
+    /**
+     * Saves a simulation. The caller must make sure the simulation isn't being stepped.
+     *
+     * @param sim is the simulation to save.
+     * @param out is the stream to write the JSON document to, it is flushed but not closed.
+     * @throws IOException when the stream can't be written.
+     */
+    public static void save(Simulation sim, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        save(sim, writer);
+    }
+
+    /**
+     * Saves a simulation. The caller must make sure the simulation isn't being stepped.
+     *
+     * @param sim is the simulation to save.
+     * @param out is the writer to write the JSON document to, it is flushed but not closed.
+     * @throws IOException when the writer fails.
+     */
+    public static void save(Simulation sim, Writer out) throws IOException {
+        out.write(sim.toJson());
+        out.flush();
+    }
+
+    /**
+     * Saves a simulation as a compressed binary snapshot. The caller must make sure the simulation isn't being stepped.
+     *
+     * @param sim is the simulation to save.
+     * @param out is the stream to write the snapshot to, it is flushed but not closed.
+     * @throws IOException when the stream can't be written.
+     */
+    public static void saveBinary(Simulation sim, OutputStream out) throws IOException {
+        BinarySave.encode(new StringReader(sim.toJson()), out, true);
+    }
+
+    /**
+     * Saves a simulation to a file, as a binary snapshot or JSON depending on its extension.
+     * The caller must make sure the simulation isn't being stepped.
+     *
+     * @param sim is the simulation to save.
+     * @param path is the path of the file.
+     * @throws IOException when the file can't be written.
+     */
+    public static void save(Simulation sim, String path) throws IOException {
+        if (!BinarySave.isBinary(path)) {
+            sim.save(path);
+            return;
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(path))) {
+            saveBinary(sim, out);
+        }
+    }
+
+    /**
+     * Writes an already serialized save document to a file, as a binary snapshot or JSON depending on its extension.
+     * Lets a caller serialize under the simulation lock and write the file after releasing it.
+     *
+     * @param json is the JSON save document, e.g. from `Simulation.toJson`.
+     * @param path is the path of the file.
+     * @throws IOException when the file can't be written.
+     */
+    public static void write(String json, String path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(path))) {
+            if (BinarySave.isBinary(path)) {
+                BinarySave.encode(new StringReader(json), out, true);
+            } else {
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                writer.write(json);
+                writer.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package edu.duke.ece651.factorysim;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents an immutable copy of the parts of a simulation's state that are needed for rendering.
+ * Snapshots are captured by the thread that steps the simulation and read by the render thread.
+ */
+public class SimulationSnapshot {
+    /**
+     * Represents the state of a single delivery at the time of the snapshot.
+     *
+     * @param current is the coordinate the delivery is at.
+     * @param target is the coordinate a drone delivery is flying to, or null for other deliveries.
+     * @param arrived whether the delivery has arrived.
+     * @param deliveryTime is the delivery time of a drone delivery, or 0 for other deliveries.
+     */
+    public record DeliveryState(Coordinate current, Coordinate target, boolean arrived, double deliveryTime) { }
+
+    // Versions of captured flows, shared by all snapshots so that flows captured from different runs never match
+    private static final AtomicInteger FLOWS_VERSIONS = new AtomicInteger();
+
+    private final int currentTime;
+    private final Map<Delivery, DeliveryState> deliveries;
+    private final int mapWidth;
+    private final int mapHeight;
+    private final int[] flows;
+    private final int flowsVersion;
+    private final Set<Building> pendingRemoval;
+
+    /**
+     * Constructs a snapshot from already captured values.
+     *
+     * @param currentTime is the current time step of the simulation.
+     * @param deliveries is the state of every scheduled delivery.
+     * @param mapWidth is the width of the tile map.
+     * @param mapHeight is the height of the tile map.
+     * @param flows is the four flows of every tile, row by row. It must not be modified afterward.
+     * @param flowsVersion is the version of the flows, equal for snapshots with the same flows.
+     * @param pendingRemoval is the buildings pending to be removed.
+     */
+    public SimulationSnapshot(int currentTime, Map<Delivery, DeliveryState> deliveries, int mapWidth, int mapHeight,
+                              int[] flows, int flowsVersion, Set<Building> pendingRemoval) {
+        this.currentTime = currentTime;
+        this.deliveries = Collections.unmodifiableMap(deliveries);
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.flows = flows;
+        this.flowsVersion = flowsVersion;
+        this.pendingRemoval = Collections.unmodifiableSet(pendingRemoval);
+    }
+
+    /**
+     * Captures a snapshot of a simulation. The caller must make sure the simulation isn't being stepped.
+     *
+     * @param sim is the simulation to capture.
+     * @return the captured snapshot.
+     */
+    public static SimulationSnapshot capture(Simulation sim) {
+        return capture(sim, null, true);
+    }
+
+    /**
+     * Captures a snapshot of a simulation, sharing the flows of the previous snapshot if they didn't change.
+     * The caller must make sure the simulation isn't being stepped.
+     *
+     * @param sim is the simulation to capture.
+     * @param previous is the previous snapshot of the simulation, or null.
+     * @param flowsChanged whether paths were connected or disconnected since the previous snapshot.
+     * @return the captured snapshot.
+     */
+    public static SimulationSnapshot capture(Simulation sim, SimulationSnapshot previous, boolean flowsChanged) {
+        Map<Delivery, DeliveryState> deliveries = new IdentityHashMap<>();
+        for (Delivery delivery : sim.getDeliverySchedule().deliveryList) {
+            if (delivery instanceof DroneDelivery droneDelivery) {
+                deliveries.put(delivery, new DeliveryState(droneDelivery.getCurrentCoordinate(),
+                    droneDelivery.getTargetCoordinate(), droneDelivery.isArrive(), droneDelivery.deliveryTime));
+            } else {
+                deliveries.put(delivery, new DeliveryState(delivery.getCurrentCoordinate(), null,
+                    delivery.isArrive(), 0));
+            }
+        }
+
+        // Flows only change when paths are added or removed, so most snapshots share the previous flows uncopied
+        TileMap tileMap = sim.getWorld().getTileMap();
+        int width = tileMap.getWidth();
+        int height = tileMap.getHeight();
+        boolean sameMap = previous != null && previous.mapWidth == width && previous.mapHeight == height;
+        int[] flows;
+        int flowsVersion;
+        if (sameMap && !flowsChanged) {
+            flows = previous.flows;
+            flowsVersion = previous.flowsVersion;
+        } else {
+            flows = new int[width * height * 4];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    System.arraycopy(tileMap.getFlows(new Coordinate(x, y)), 0, flows, (y * width + x) * 4, 4);
+                }
+            }
+            if (sameMap && Arrays.equals(previous.flows, flows)) {
+                flows = previous.flows;
+                flowsVersion = previous.flowsVersion;
+            } else {
+                flowsVersion = FLOWS_VERSIONS.incrementAndGet();
+            }
+        }
+
+        Set<Building> pendingRemoval = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Building building : sim.getWorld().getBuildings()) {
+            if (building.isPendingRemoval()) {
+                pendingRemoval.add(building);
+            }
+        }
+
+        return new SimulationSnapshot(sim.getCurrentTime(), deliveries, width, height, flows, flowsVersion,
+            pendingRemoval);
+    }
+
+    /**
+     * Gets the time step of the simulation when the snapshot was captured.
+     *
+     * @return the time step of the snapshot.
+     */
+    public int getCurrentTime() { return this.currentTime; }
+
+    /**
+     * Gets the state of a delivery when the snapshot was captured.
+     *
+     * @param delivery is the delivery.
+     * @return the state of the delivery, or null if the delivery was no longer scheduled.
+     */
+    public DeliveryState getDeliveryState(Delivery delivery) {
+        return deliveries.get(delivery);
+    }
+
+    /**
+     * Gets the version of the flows, which is equal for snapshots whose flows are all equal.
+     *
+     * @return the version of the flows.
+     */
+    public int getFlowsVersion() { return this.flowsVersion; }
+
+    /**
+     * Gets the flows of a tile when the snapshot was captured.
+     *
+     * @param c is the coordinate of the tile.
+     * @param out is the array to write the four flows to.
+     * @return `out`, filled with zeros if the tile is outside the map.
+     */
+    public int[] getFlows(Coordinate c, int[] out) {
+        int x = c.getX();
+        int y = c.getY();
+        if (x < 0 || x >= mapWidth || y < 0 || y >= mapHeight) {
+            Arrays.fill(out, 0);
+            return out;
+        }
+        System.arraycopy(flows, (y * mapWidth + x) * 4, out, 0, 4);
+        return out;
+    }
+
+    /**
+     * Checks whether a building was pending to be removed when the snapshot was captured.
+     *
+     * @param building is the building.
+     * @return true if the building was pending removal, otherwise false.
+     */
+    public boolean isPendingRemoval(Building building) {
+        return pendingRemoval.contains(building);
+    }
+}
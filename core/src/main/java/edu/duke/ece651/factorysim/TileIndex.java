@@ -0,0 +1,146 @@
+package edu.duke.ece651.factorysim;
+
+import java.util.*;
+
+/**
+ * Represents a grid-bucketed spatial index that maps each tile of a map to the items on it.
+ * Adding, removing and looking up items only touches the bucket of a single tile.
+ *
+ * @param <T> is the type of indexed items.
+ */
+public class TileIndex<T> {
+    private int width;
+    private int height;
+    private List<List<T>> buckets;
+    private int size;
+
+    /**
+     * Constructs an empty index for a map.
+     *
+     * @param width is the width of the map.
+     * @param height is the height of the map.
+     */
+    public TileIndex(int width, int height) {
+        reset(width, height);
+    }
+
+    /**
+     * Removes all items and changes the dimensions of the indexed map.
+     *
+     * @param width is the new width of the map.
+     * @param height is the new height of the map.
+     */
+    public void reset(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.buckets = new ArrayList<>(Collections.nCopies(width * height, null));
+        this.size = 0;
+    }
+
+    /**
+     * Gets the width of the indexed map.
+     *
+     * @return the width of the indexed map.
+     */
+    public int getWidth() { return this.width; }
+
+    /**
+     * Gets the height of the indexed map.
+     *
+     * @return the height of the indexed map.
+     */
+    public int getHeight() { return this.height; }
+
+    /**
+     * Gets the total number of indexed items.
+     *
+     * @return the number of indexed items.
+     */
+    public int size() { return this.size; }
+
+    private int indexOf(Coordinate c) {
+        int x = c.getX();
+        int y = c.getY();
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return -1;
+        }
+        return y * width + x;
+    }
+
+    /**
+     * Adds an item to a tile. Items outside the map are ignored.
+     *
+     * @param c is the coordinate of the tile.
+     * @param item is the item to add.
+     * @return true if the item was added, otherwise false.
+     */
+    public boolean add(Coordinate c, T item) {
+        int i = indexOf(c);
+        if (i < 0) {
+            return false;
+        }
+        List<T> bucket = buckets.get(i);
+        if (bucket == null) {
+            bucket = new ArrayList<>(2);
+            buckets.set(i, bucket);
+        }
+        bucket.add(item);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes an item from a tile.
+     *
+     * @param c is the coordinate of the tile.
+     * @param item is the item to remove.
+     * @return true if the item was on the tile and got removed, otherwise false.
+     */
+    public boolean remove(Coordinate c, T item) {
+        int i = indexOf(c);
+        if (i < 0) {
+            return false;
+        }
+        List<T> bucket = buckets.get(i);
+        if (bucket == null) {
+            return false;
+        }
+        for (int j = 0; j < bucket.size(); j++) {
+            if (bucket.get(j) == item) {
+                // Order inside a tile doesn't matter, so swap with the last item to avoid shifting
+                int last = bucket.size() - 1;
+                bucket.set(j, bucket.get(last));
+                bucket.remove(last);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves an item from one tile to another.
+     *
+     * @param from is the coordinate of the tile the item is on.
+     * @param to is the coordinate of the tile to move the item to.
+     * @param item is the item to move.
+     */
+    public void move(Coordinate from, Coordinate to, T item) {
+        remove(from, item);
+        add(to, item);
+    }
+
+    /**
+     * Gets all items on a tile.
+     *
+     * @param c is the coordinate of the tile.
+     * @return an unmodifiable view of the items on the tile.
+     */
+    public List<T> get(Coordinate c) {
+        int i = indexOf(c);
+        if (i < 0 || buckets.get(i) == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(buckets.get(i));
+    }
+}
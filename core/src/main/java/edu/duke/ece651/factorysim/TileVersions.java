@@ -0,0 +1,75 @@
+package edu.duke.ece651.factorysim;
+
+/**
+ * Represents modification counters for the tiles of a map, used to detect changes to tiles (e.g. their flows)
+ * without comparing their contents. Touching a tile bumps a global version and stamps the tile with it, so
+ * anything compiled from a set of tiles at some version is stale once any of those tiles has a newer stamp.
+ */
+public class TileVersions {
+    private int width;
+    private int height;
+    private int[] stamps;
+    private int version;
+
+    /**
+     * Constructs counters for a map with no tile touched yet.
+     *
+     * @param width is the width of the map.
+     * @param height is the height of the map.
+     */
+    public TileVersions(int width, int height) {
+        reset(width, height);
+    }
+
+    /**
+     * Changes the dimensions of the map and forgets all touches. The global version keeps increasing so that
+     * anything compiled before the reset is stale.
+     *
+     * @param width is the new width of the map.
+     * @param height is the new height of the map.
+     */
+    public void reset(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.stamps = new int[width * height];
+        this.version++;
+    }
+
+    /**
+     * Marks a tile as changed. Tiles outside the map are ignored.
+     *
+     * @param c is the coordinate of the tile.
+     */
+    public void touch(Coordinate c) {
+        int x = c.getX();
+        int y = c.getY();
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return;
+        }
+        version++;
+        stamps[y * width + x] = version;
+    }
+
+    /**
+     * Gets the version of the whole map, which changes whenever any tile is touched.
+     *
+     * @return the global version.
+     */
+    public int getVersion() { return this.version; }
+
+    /**
+     * Checks whether a tile was touched after a version.
+     *
+     * @param c is the coordinate of the tile.
+     * @param version is the version to compare to.
+     * @return true if the tile was touched after the version, otherwise false.
+     */
+    public boolean isChangedSince(Coordinate c, int version) {
+        int x = c.getX();
+        int y = c.getY();
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return false;
+        }
+        return stamps[y * width + x] > version;
+    }
+}
@@ -0,0 +1,475 @@
+package edu.duke.ece651.factorysim.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking client of the factorysim server.
+ * <p>
+ * Every request returns a `CompletableFuture` right away and is queued. A single dispatcher thread owns the
+ * connection and sends the queued requests back to back, in submission order, so callers can pipeline several
+ * requests without waiting for the earlier replies. Each request has a timeout, after which its future fails with a
+ * `TimeoutException`. A request that is cancelled or times out while still queued is never sent; one that is
+ * already on the wire runs to completion, but its reply is discarded.
+ * <p>
+ * With a `ContentCache`, presets and saves are kept on disk, and saves are written through once the server has them.
+ * In offline mode, or when the server can't be reached, they are served from the cache. Unless the server implements
+ * the conditional downloads of `ServerApi`, they are downloaded in full while online, so the cache saves no traffic.
+ */
+public class AsyncServerClient implements Closeable {
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private static AsyncServerClient instance;
+
+    /**
+     * Represents a download that is skipped when the content matches a cached copy.
+     */
+    @FunctionalInterface
+    private interface ConditionalFetch {
+        String fetch(String knownHash) throws Exception;
+    }
+
+    /**
+     * Represents one blocking call to the server.
+     *
+     * @param <T> is the type of the reply.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call(ServerApi api) throws Exception;
+    }
+
+    private record Request<T>(String name, Call<T> call, CompletableFuture<T> future) { }
+
+    // Queued by `close` to wake the dispatcher up, without interrupting a request on the wire
+    private static final Request<Void> STOP = new Request<>("stop", null, null);
+
+    private final ServerApi api;
+    private final Duration timeout;
+    private final BlockingQueue<Request<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final DeltaSync deltaSync = new DeltaSync();
+    private final AtomicLong cacheHitCount = new AtomicLong();
+    private final AtomicLong cacheMissCount = new AtomicLong();
+    private volatile ContentCache cache = null;
+    private volatile boolean offline = false;
+    private volatile boolean closed = false;
+    // Who logged in last, for keying cached saves even if the server couldn't be reached; only touched by the dispatcher
+    private String saveKey = null;
+
+    /**
+     * Gets the client of the real server, shared by the whole GUI.
+     *
+     * @return the shared client.
+     */
+    public static synchronized AsyncServerClient getInstance() {
+        if (instance == null) {
+            instance = new AsyncServerClient(new ServerConnectionManagerApi(), DEFAULT_TIMEOUT);
+            try {
+                instance.setCache(new ContentCache(ContentCache.defaultDirectory(), ContentCache.DEFAULT_MAX_BYTES));
+            } catch (IOException e) {
+                // Works without a cache, only slower
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a client and starts its dispatcher thread.
+     *
+     * @param api is the blocking server API the requests are sent through.
+     * @param timeout is the default timeout of a request, measured from when it is submitted.
+     */
+    public AsyncServerClient(ServerApi api, Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.api = api;
+        this.timeout = timeout;
+        this.dispatcher = new Thread(this::dispatch, "server-client");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Queues a request with the default timeout.
+     *
+     * @param name is a short description of the request, used in error messages.
+     * @param call is the blocking call to make.
+     * @param <T> is the type of the reply.
+     * @return the future of the reply.
+     */
+    public <T> CompletableFuture<T> submit(String name, Call<T> call) {
+        return submit(name, call, timeout);
+    }
+
+    /**
+     * Queues a request.
+     *
+     * @param name is a short description of the request, used in error messages.
+     * @param call is the blocking call to make.
+     * @param timeout is the timeout of the request, measured from now.
+     * @param <T> is the type of the reply.
+     * @return the future of the reply.
+     */
+    public <T> CompletableFuture<T> submit(String name, Call<T> call, Duration timeout) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (queue) {
+            if (closed) {
+                future.completeExceptionally(new IllegalStateException("Client is closed, can't " + name));
+                return future;
+            }
+            future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            queue.add(new Request<>(name, call, future));
+        }
+        return future;
+    }
+
+    /**
+     * Connects and logs into the server. In offline mode, the server isn't contacted and only the cached saves of the
+     * user can be loaded.
+     *
+     * @param host is the host of the server.
+     * @param port is the port of the server.
+     * @param username is the name of the user.
+     * @param password is the password of the user.
+     * @return the future that completes once logged in.
+     */
+    public CompletableFuture<Void> connect(String host, int port, String username, String password) {
+        return submit("connect", (api) -> {
+            deltaSync.reset();
+            saveKey = "save/" + host + ":" + port + "/" + username;
+            if (!offline) {
+                api.connect(host, port, username, password);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Creates a new user on the server.
+     *
+     * @param host is the host of the server.
+     * @param port is the port of the server.
+     * @param username is the name of the user.
+     * @param password is the password of the user.
+     * @return the future that completes once signed up.
+     */
+    public CompletableFuture<Void> signup(String host, int port, String username, String password) {
+        return submit("sign up", (api) -> {
+            api.signup(host, port, username, password);
+            return null;
+        });
+    }
+
+    /**
+     * Downloads a preset, or reads it from the cache if it hasn't changed.
+     *
+     * @param host is the host of the server.
+     * @param port is the port of the server.
+     * @param preset is the name of the preset.
+     * @return the future of the JSON document of the preset.
+     */
+    public CompletableFuture<String> loadPreset(String host, int port, String preset) {
+        return submit("load preset", (api) -> loadCached("preset/" + host + ":" + port + "/" + preset,
+            (knownHash) -> api.loadPresetIfChanged(host, port, preset, knownHash)));
+    }
+
+    /**
+     * Downloads the save of the logged in user, or reads it from the cache if it hasn't changed.
+     *
+     * @return the future of the JSON save document.
+     */
+    public CompletableFuture<String> loadUserSave() {
+        return submit("load save", (api) -> {
+            String json = saveKey == null ? api.loadUserSave() : loadCached(saveKey, api::loadUserSaveIfChanged);
+            deltaSync.acknowledge(api, json);
+            return json;
+        });
+    }
+
+    private String loadCached(String key, ConditionalFetch fetch) throws Exception {
+        ContentCache cache = this.cache;
+        if (cache == null) {
+            return fetch.fetch(null);
+        }
+        String knownHash = cache.getHash(key);
+        if (offline) {
+            String json = knownHash == null ? null : cache.read(key);
+            if (json == null) {
+                throw new IOException("Offline, and " + key + " isn't cached");
+            }
+            cacheHitCount.incrementAndGet();
+            return json;
+        }
+
+        String json;
+        try {
+            json = fetch.fetch(knownHash);
+        } catch (IOException e) {
+            // Can't reach the server, a possibly stale copy is better than nothing
+            String cached = knownHash == null ? null : cache.read(key);
+            if (cached == null) {
+                throw e;
+            }
+            cacheHitCount.incrementAndGet();
+            return cached;
+        }
+        if (json == null) {
+            String cached = cache.read(key);
+            if (cached != null) {
+                cacheHitCount.incrementAndGet();
+                return cached;
+            }
+            // The cached file went missing since its hash was read
+            json = fetch.fetch(null);
+        }
+        cacheMissCount.incrementAndGet();
+        cache.put(key, json);
+        return json;
+    }
+
+    /**
+     * Uploads the save of the logged in user.
+     *
+     * @param json is the JSON save document.
+     * @return the future that completes once the server has stored the save.
+     */
+    public CompletableFuture<Void> saveUserSave(String json) {
+        return submit("save", (api) -> {
+            api.saveUserSave(json);
+            deltaSync.reset();
+            cacheSave(json);
+            return null;
+        });
+    }
+
+    /**
+     * Uploads the save of the logged in user as a patch against the last save the server acknowledged, falling back
+     * to the full document when there is none, or the server's save has moved on.
+     *
+     * @param json is the JSON save document.
+     * @return the future of how the save was uploaded.
+     */
+    public CompletableFuture<DeltaSync.Result> syncUserSave(String json) {
+        return submit("save", (api) -> {
+            DeltaSync.Result result = deltaSync.save(api, json);
+            cacheSave(json);
+            return result;
+        });
+    }
+
+    /**
+     * Caches a save the server has acknowledged, so the next load doesn't need to download it.
+     *
+     * @param json is the JSON save document.
+     */
+    private void cacheSave(String json) {
+        ContentCache cache = this.cache;
+        if (cache == null || saveKey == null) {
+            return;
+        }
+        try {
+            cache.put(saveKey, json);
+        } catch (IOException e) {
+            // The save is on the server, only the cached copy is stale
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            Request<?> request;
+            try {
+                request = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (request == STOP) {
+                break;
+            }
+            send(request);
+        }
+        // Only reached early when interrupted, whatever is still queued will never be sent
+        for (Request<?> request = queue.poll(); request != null; request = queue.poll()) {
+            if (request != STOP) {
+                request.future().completeExceptionally(
+                    new IllegalStateException("Client is closed, can't " + request.name()));
+            }
+        }
+    }
+
+    private <T> void send(Request<T> request) {
+        if (request.future().isDone()) {
+            // Cancelled or timed out while queued
+            skippedCount.incrementAndGet();
+            return;
+        }
+        sentCount.incrementAndGet();
+        try {
+            request.future().complete(request.call().call(api));
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            request.future().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Sets the cache that presets and saves are revalidated against.
+     *
+     * @param cache is the cache, or null to always download.
+     */
+    public void setCache(ContentCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Sets whether presets and saves are only read from the cache, without contacting the server.
+     *
+     * @param offline whether to work offline.
+     */
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    /**
+     * Checks whether presets and saves are only read from the cache.
+     *
+     * @return true if working offline.
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Gets the number of presets and saves read from the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    /**
+     * Gets the number of presets and saves downloaded because they weren't cached or had changed.
+     *
+     * @return the number of cache misses.
+     */
+    public long getCacheMissCount() {
+        return cacheMissCount.get();
+    }
+
+    /**
+     * Gets the number of requests waiting to be sent.
+     *
+     * @return the number of queued requests.
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the number of requests sent to the server.
+     *
+     * @return the number of sent requests.
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * Gets the number of requests dropped before being sent, because they were cancelled or timed out.
+     *
+     * @return the number of skipped requests.
+     */
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    /**
+     * Gets the number of sent requests the server failed.
+     *
+     * @return the number of failed requests.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Gets the cause of a failed request, unwrapping the exceptions `CompletableFuture` wraps it in.
+     *
+     * @param e is the exception a future failed with.
+     * @return the original exception.
+     */
+    public static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Waits for the reply of a request, for callers that are already off the render thread.
+     *
+     * @param future is the future of the request.
+     * @param <T> is the type of the reply.
+     * @return the reply.
+     * @throws Exception the exception the request failed with.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops accepting requests and waits a while for the queued ones to be sent, so a save in progress isn't lost.
+     * Then writes the cache's index, which keeps the order cached entries were read in.
+     */
+    @Override
+    public void close() {
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        }
+        try {
+            dispatcher.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ContentCache cache = this.cache;
+        if (cache != null) {
+            try {
+                cache.close();
+            } catch (IOException e) {
+                // Only the order of use is lost
+            }
+        }
+    }
+
+    /**
+     * Closes the client shared by the whole GUI, if it was created.
+     */
+    public static synchronized void closeInstance() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+}
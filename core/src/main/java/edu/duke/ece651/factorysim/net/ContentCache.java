@@ -0,0 +1,249 @@
+package edu.duke.ece651.factorysim.net;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * On-disk cache of presets and saves downloaded from the server.
+ * <p>
+ * Entries are keyed by name, e.g. `preset/localhost:6510/doors`, and remember the SHA-256 hash of their content,
+ * so a download can be compared with the cached copy. Each entry is a file in the cache directory, and an index file
+ * keeps the keys, hashes and sizes in least recently used order. Once the files take more than the size cap, the
+ * least recently used entries are evicted. The index is written when entries are added or removed, and on `close`
+ * if entries were only read since, so reading never writes to disk.
+ */
+public class ContentCache implements Closeable {
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final String INDEX_FILE = "index.json";
+
+    private record Entry(String file, String hash, long size) { }
+
+    private final Path dir;
+    private final long maxBytes;
+    // In access order, so the first entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+    // Whether the order of use changed since the index was written
+    private boolean indexDirty = false;
+
+    /**
+     * Opens a cache, creating its directory if needed. An unreadable index is treated as an empty cache.
+     *
+     * @param dir is the cache directory.
+     * @param maxBytes is the size cap of the cached files.
+     * @throws IOException when the directory can't be created.
+     */
+    public ContentCache(Path dir, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size cap must be positive");
+        }
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(dir);
+        loadIndex();
+    }
+
+    /**
+     * Gets the default cache directory, in the user's home directory.
+     *
+     * @return the default cache directory.
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".factorysim", "cache");
+    }
+
+    /**
+     * Hashes content the way the cache and server compare it.
+     *
+     * @param content is the content to hash.
+     * @return the hex SHA-256 hash of the UTF-8 content.
+     */
+    public static String hash(String content) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Gets the hash of a cached entry.
+     *
+     * @param key is the key of the entry.
+     * @return the hash of the entry's content, or null if it isn't cached.
+     */
+    public synchronized String getHash(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.hash();
+    }
+
+    /**
+     * Reads a cached entry, and marks it as recently used. The new order of use is written with the index later.
+     *
+     * @param key is the key of the entry.
+     * @return the content of the entry, or null if it isn't cached or its file is gone.
+     * @throws IOException when the entry's file is gone and the index can't be written.
+     */
+    public synchronized String read(String key) throws IOException {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        String content;
+        try {
+            content = Files.readString(dir.resolve(entry.file()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            remove(key);
+            return null;
+        }
+        indexDirty = true;
+        return content;
+    }
+
+    /**
+     * Adds or replaces an entry, evicting the least recently used entries if over the size cap.
+     * Content larger than the whole cap isn't cached.
+     *
+     * @param key is the key of the entry.
+     * @param content is the content of the entry.
+     * @return the hash of the content.
+     * @throws IOException when the entry or the index can't be written.
+     */
+    public synchronized String put(String key, String content) throws IOException {
+        String hash = hash(content);
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            remove(key);
+            return hash;
+        }
+        String file = hash(key).substring(0, 32) + ".json";
+        Path tmp = Files.createTempFile(dir, "entry", ".tmp");
+        try {
+            Files.write(tmp, bytes);
+            Files.move(tmp, dir.resolve(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        Entry old = entries.put(key, new Entry(file, hash, bytes.length));
+        if (old != null) {
+            totalBytes -= old.size();
+        }
+        totalBytes += bytes.length;
+        evict();
+        saveIndex();
+        return hash;
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key is the key of the entry.
+     * @throws IOException when the index can't be written.
+     */
+    public synchronized void remove(String key) throws IOException {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.size();
+            Files.deleteIfExists(dir.resolve(entry.file()));
+            saveIndex();
+        }
+    }
+
+    /**
+     * Writes the index if the order of use changed since it was last written.
+     *
+     * @throws IOException when the index can't be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (indexDirty) {
+            saveIndex();
+        }
+    }
+
+    private void evict() throws IOException {
+        Iterator<Entry> it = entries.values().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Entry entry = it.next();
+            it.remove();
+            totalBytes -= entry.size();
+            Files.deleteIfExists(dir.resolve(entry.file()));
+        }
+    }
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return the number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total size of the cached files.
+     *
+     * @return the size in bytes.
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private void loadIndex() {
+        Path index = dir.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return;
+        }
+        try {
+            JsonValue root = new JsonReader().parse(Files.readString(index, StandardCharsets.UTF_8));
+            for (JsonValue e = root.child; e != null; e = e.next) {
+                Entry entry = new Entry(e.getString("file"), e.getString("hash"), e.getLong("size"));
+                if (Files.exists(dir.resolve(entry.file()))) {
+                    entries.put(e.getString("key"), entry);
+                    totalBytes += entry.size();
+                }
+            }
+        } catch (Exception e) {
+            // A cache is only an optimization, start over rather than fail
+            entries.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private void saveIndex() throws IOException {
+        Path tmp = Files.createTempFile(dir, "index", ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                JsonWriter writer = new JsonWriter(out);
+                writer.setOutputType(JsonValue.OutputType.json);
+                writer.array();
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writer.object();
+                    writer.set("key", entry.getKey());
+                    writer.set("file", entry.getValue().file());
+                    writer.set("hash", entry.getValue().hash());
+                    writer.set("size", entry.getValue().size());
+                    writer.pop();
+                }
+                writer.pop();
+            }
+            Files.move(tmp, dir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            indexDirty = false;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
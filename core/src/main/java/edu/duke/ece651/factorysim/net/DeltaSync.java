@@ -0,0 +1,85 @@
+package edu.duke.ece651.factorysim.net;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * Uploads saves as patches against the last save the server acknowledged.
+ * <p>
+ * Stepping changes the stock and queues of every building, not only the buildings, paths, requests and policies the
+ * user touched, so what is dirty is found by comparing each entry with the index of the acknowledged save rather
+ * than by recording edits. Only the index is kept, not the document. A full save is sent when nothing was
+ * acknowledged yet, or when the server's save has moved to another revision. Servers that don't support patches are
+ * sent full saves without parsing or indexing them. Not thread-safe, `AsyncServerClient` calls it from its dispatcher thread.
+ */
+public class DeltaSync {
+    /**
+     * Represents how a save was uploaded.
+     *
+     * @param delta whether a patch was sent instead of the full document.
+     * @param length is the number of characters sent.
+     * @param changedEntries is the number of fields and entries the patch changed, or -1 for a full save.
+     */
+    public record Result(boolean delta, int length, int changedEntries) { }
+
+    private SaveDelta.Index acknowledged = null;
+
+    /**
+     * Uploads a save, as a patch if possible.
+     *
+     * @param api is the server API to upload through.
+     * @param json is the JSON save document.
+     * @return how the save was uploaded.
+     * @throws Exception when the upload fails.
+     */
+    public Result save(ServerApi api, String json) throws Exception {
+        if (!api.supportsSaveDeltas()) {
+            acknowledged = null;
+            api.saveUserSave(json);
+            return new Result(false, json.length(), -1);
+        }
+
+        JsonValue doc = new JsonReader().parse(json);
+        if (acknowledged != null) {
+            SaveDelta.Delta delta = SaveDelta.diff(acknowledged, doc);
+            try {
+                api.saveUserSaveDelta(delta.patch());
+                acknowledged = delta.next();
+                return new Result(true, delta.patch().length(), delta.changedEntries());
+            } catch (RevisionMismatchException e) {
+                // Saved from elsewhere since, overwrite it with a full save
+            }
+        }
+        acknowledged = null;
+        api.saveUserSave(json);
+        acknowledged = SaveDelta.index(doc);
+        return new Result(false, json.length(), -1);
+    }
+
+    /**
+     * Records a save that is known to be on the server, e.g. one that was just downloaded.
+     * Nothing is recorded if the server doesn't support patches.
+     *
+     * @param api is the server API the save was downloaded through.
+     * @param json is the JSON save document.
+     */
+    public void acknowledge(ServerApi api, String json) {
+        acknowledged = api.supportsSaveDeltas() ? SaveDelta.index(new JsonReader().parse(json)) : null;
+    }
+
+    /**
+     * Forgets the acknowledged save, e.g. after logging in as another user, so the next save is sent in full.
+     */
+    public void reset() {
+        acknowledged = null;
+    }
+
+    /**
+     * Checks whether there is an acknowledged save to send patches against.
+     *
+     * @return true if the next save can be a patch.
+     */
+    public boolean hasAcknowledged() {
+        return acknowledged != null;
+    }
+}
@@ -0,0 +1,26 @@
+package edu.duke.ece651.factorysim.net;
+
+/**
+ * Thrown when a save patch doesn't apply, because the server's save isn't the revision the patch was computed
+ * against, or patching it doesn't give the expected revision.
+ */
+public class RevisionMismatchException extends Exception {
+    /**
+     * Constructs the exception.
+     *
+     * @param expected is the revision the patch expected.
+     * @param actual is the revision that was found.
+     */
+    public RevisionMismatchException(String expected, String actual) {
+        super("Expected save revision " + expected + ", found " + actual);
+    }
+
+    /**
+     * Constructs the exception.
+     *
+     * @param message is the detail message.
+     */
+    public RevisionMismatchException(String message) {
+        super(message);
+    }
+}
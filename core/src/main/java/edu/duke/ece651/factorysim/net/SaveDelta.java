@@ -0,0 +1,374 @@
+package edu.duke.ece651.factorysim.net;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Computes and applies patches between two versions of a save document.
+ * <p>
+ * Every top-level field of a save is indexed by a digest. A field holding an array or an object is further split
+ * into entries: array elements are keyed by their `name` or `output`, or by their content if they have neither, and
+ * object members by their name. A patch then only carries the entries that were added, changed or removed, plus
+ * their order when it can't be inferred. The revision of a document is the digest of its index, so both sides can
+ * check that a patch applies to the document it was computed against, and that applying it gives the same document.
+ */
+public final class SaveDelta {
+    private static final String[] ID_FIELDS = {"name", "output"};
+    private static final int DIGEST_BYTES = 8;
+
+    private SaveDelta() { }
+
+    private enum Kind { ARRAY, OBJECT, VALUE }
+
+    private record Field(Kind kind, String digest, LinkedHashMap<String, String> entries) { }
+
+    /**
+     * Represents the digests of a save document, which is all that is needed to compute a patch against it.
+     */
+    public static final class Index {
+        private final String revision;
+        private final LinkedHashMap<String, Field> fields;
+
+        private Index(String revision, LinkedHashMap<String, Field> fields) {
+            this.revision = revision;
+            this.fields = fields;
+        }
+
+        /**
+         * Gets the revision of the indexed document.
+         *
+         * @return the revision.
+         */
+        public String getRevision() {
+            return revision;
+        }
+    }
+
+    /**
+     * Represents a patch and the index of the document it produces.
+     *
+     * @param patch is the JSON patch.
+     * @param next is the index of the patched document.
+     * @param changedEntries is the number of fields and entries the patch sets or removes.
+     */
+    public record Delta(String patch, Index next, int changedEntries) { }
+
+    /**
+     * Indexes a save document.
+     *
+     * @param doc is the parsed save document.
+     * @return the index of the document.
+     */
+    public static Index index(JsonValue doc) {
+        return index(doc, newDigest(), null);
+    }
+
+    /**
+     * Indexes a save document, optionally keeping the keyed entries of its containers so they aren't serialized twice.
+     */
+    private static Index index(JsonValue doc, MessageDigest md, Map<String, LinkedHashMap<String, Entry>> entriesOut) {
+        LinkedHashMap<String, Field> fields = new LinkedHashMap<>();
+        StringBuilder revision = new StringBuilder();
+        for (JsonValue value = doc.child; value != null; value = value.next) {
+            Field field;
+            if (value.isArray() || value.isObject()) {
+                LinkedHashMap<String, Entry> entries = entries(value, md);
+                if (entriesOut != null) {
+                    entriesOut.put(value.name, entries);
+                }
+                LinkedHashMap<String, String> digests = new LinkedHashMap<>();
+                StringBuilder combined = new StringBuilder();
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    digests.put(entry.getKey(), entry.getValue().digest());
+                    combined.append(entry.getKey()).append('=').append(entry.getValue().digest()).append(';');
+                }
+                field = new Field(value.isArray() ? Kind.ARRAY : Kind.OBJECT, digest(md, combined.toString()), digests);
+            } else {
+                field = new Field(Kind.VALUE, digest(md, value.toJson(JsonValue.OutputType.json)), null);
+            }
+            fields.put(value.name, field);
+            revision.append(value.name).append('=').append(field.digest()).append(';');
+        }
+        return new Index(digest(md, revision.toString()), fields);
+    }
+
+    private record Entry(String json, String digest) { }
+
+    /**
+     * Keys the entries of an array or object, in order.
+     */
+    private static LinkedHashMap<String, Entry> entries(JsonValue container, MessageDigest md) {
+        LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        Map<String, Integer> seen = new HashMap<>();
+        for (JsonValue child = container.child; child != null; child = child.next) {
+            String json = child.toJson(JsonValue.OutputType.json);
+            String digest = digest(md, json);
+            String key = container.isObject() ? child.name : keyOf(child, digest);
+            int count = seen.merge(key, 1, Integer::sum);
+            if (count > 1) {
+                key = key + "#" + (count - 1);
+            }
+            entries.put(key, new Entry(json, digest));
+        }
+        return entries;
+    }
+
+    private static String keyOf(JsonValue element, String digest) {
+        if (element.isObject()) {
+            for (String id : ID_FIELDS) {
+                JsonValue value = element.get(id);
+                if (value != null && value.isString()) {
+                    return id + ":" + value.asString();
+                }
+            }
+        }
+        return "#" + digest;
+    }
+
+    /**
+     * Computes the patch from an indexed document to a new one.
+     *
+     * @param base is the index of the document the patch applies to.
+     * @param doc is the parsed new document.
+     * @return the patch and the index of the new document.
+     */
+    public static Delta diff(Index base, JsonValue doc) {
+        Map<String, LinkedHashMap<String, Entry>> entries = new HashMap<>();
+        Index next = index(doc, newDigest(), entries);
+        int changed = 0;
+        StringWriter out = new StringWriter();
+        try {
+            JsonWriter writer = new JsonWriter(out);
+            writer.setOutputType(JsonValue.OutputType.json);
+            writer.object();
+            writer.set("base", base.revision);
+            writer.set("revision", next.revision);
+
+            // Fields that are new, changed kind, or aren't containers are sent whole
+            writer.object("fields");
+            for (JsonValue value = doc.child; value != null; value = value.next) {
+                Field field = next.fields.get(value.name);
+                Field old = base.fields.get(value.name);
+                if (old == null || old.kind() != field.kind() || (field.kind() == Kind.VALUE
+                    && !old.digest().equals(field.digest()))) {
+                    writer.json(value.name, value.toJson(JsonValue.OutputType.json));
+                    changed++;
+                }
+            }
+            writer.pop();
+
+            // Containers only send the entries that differ
+            writer.array("sections");
+            for (JsonValue value = doc.child; value != null; value = value.next) {
+                Field field = next.fields.get(value.name);
+                Field old = base.fields.get(value.name);
+                if (old == null || old.kind() != field.kind() || field.kind() == Kind.VALUE
+                    || old.digest().equals(field.digest())) {
+                    continue;
+                }
+                writer.object();
+                writer.set("name", value.name);
+                writer.array("set");
+                for (Map.Entry<String, Entry> entry : entries.get(value.name).entrySet()) {
+                    if (!entry.getValue().digest().equals(old.entries().get(entry.getKey()))) {
+                        writer.object();
+                        writer.set("key", entry.getKey());
+                        writer.json("value", entry.getValue().json());
+                        writer.pop();
+                        changed++;
+                    }
+                }
+                writer.pop();
+                List<String> removed = removedKeys(old.entries().keySet(), field.entries().keySet());
+                writeStrings(writer, "removed", removed);
+                changed += removed.size();
+                List<String> order = new ArrayList<>(field.entries().keySet());
+                if (!expectedOrder(old.entries().keySet(), removed, order).equals(order)) {
+                    writeStrings(writer, "order", order);
+                }
+                writer.pop();
+            }
+            writer.pop();
+
+            List<String> removed = removedKeys(base.fields.keySet(), next.fields.keySet());
+            writeStrings(writer, "removed", removed);
+            changed += removed.size();
+            List<String> order = new ArrayList<>(next.fields.keySet());
+            if (!expectedOrder(base.fields.keySet(), removed, order).equals(order)) {
+                writeStrings(writer, "order", order);
+            }
+            writer.pop();
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Delta(out.toString(), next, changed);
+    }
+
+    private static void writeStrings(JsonWriter writer, String name, List<String> values) throws IOException {
+        writer.array(name);
+        for (String value : values) {
+            writer.value(value);
+        }
+        writer.pop();
+    }
+
+    private static List<String> removedKeys(Set<String> before, Set<String> after) {
+        List<String> removed = new ArrayList<>();
+        for (String key : before) {
+            if (!after.contains(key)) {
+                removed.add(key);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Gets the order the receiver ends up with without an explicit order: kept keys in place, new ones at the end.
+     */
+    private static List<String> expectedOrder(Set<String> before, List<String> removed, List<String> after) {
+        Set<String> kept = new LinkedHashSet<>(before);
+        removed.forEach(kept::remove);
+        List<String> order = new ArrayList<>(kept);
+        for (String key : after) {
+            if (!before.contains(key)) {
+                order.add(key);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Applies a patch to a save document.
+     *
+     * @param base is the JSON document the patch was computed against.
+     * @param patch is the JSON patch.
+     * @return the patched JSON document.
+     * @throws RevisionMismatchException when the patch was computed against another document, or doesn't reproduce
+     *                                   the document it was computed from.
+     */
+    public static String apply(String base, String patch) throws RevisionMismatchException {
+        MessageDigest md = newDigest();
+        JsonReader reader = new JsonReader();
+        JsonValue doc = reader.parse(base);
+        JsonValue p = reader.parse(patch);
+        String baseRevision = index(doc).revision;
+        if (!baseRevision.equals(p.getString("base"))) {
+            throw new RevisionMismatchException(p.getString("base"), baseRevision);
+        }
+
+        // The value of every field after patching, as JSON
+        Map<String, JsonValue> baseFields = new HashMap<>();
+        LinkedHashMap<String, String> fields = new LinkedHashMap<>();
+        for (JsonValue value = doc.child; value != null; value = value.next) {
+            baseFields.put(value.name, value);
+            fields.put(value.name, null);
+        }
+        for (String name : strings(p.get("removed"))) {
+            fields.remove(name);
+        }
+        for (JsonValue value = p.get("fields").child; value != null; value = value.next) {
+            fields.put(value.name, value.toJson(JsonValue.OutputType.json));
+        }
+        for (JsonValue section = p.get("sections").child; section != null; section = section.next) {
+            String name = section.getString("name");
+            JsonValue old = baseFields.get(name);
+            if (old == null || (!old.isArray() && !old.isObject())) {
+                throw new RevisionMismatchException("No field " + name + " to patch");
+            }
+            fields.put(name, patchSection(old, section, md));
+        }
+        JsonValue order = p.get("order");
+        if (order != null) {
+            LinkedHashMap<String, String> ordered = new LinkedHashMap<>();
+            for (String name : strings(order)) {
+                ordered.put(name, fields.get(name));
+            }
+            fields = ordered;
+        }
+
+        StringBuilder out = new StringBuilder("{");
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (out.length() > 1) {
+                out.append(',');
+            }
+            out.append(new JsonValue(field.getKey()).toJson(JsonValue.OutputType.json)).append(':');
+            out.append(field.getValue() != null ? field.getValue()
+                : baseFields.get(field.getKey()).toJson(JsonValue.OutputType.json));
+        }
+        String result = out.append('}').toString();
+
+        String revision = index(reader.parse(result)).revision;
+        if (!revision.equals(p.getString("revision"))) {
+            throw new RevisionMismatchException(p.getString("revision"), revision);
+        }
+        return result;
+    }
+
+    private static String patchSection(JsonValue old, JsonValue section, MessageDigest md) {
+        LinkedHashMap<String, String> entries = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> entry : entries(old, md).entrySet()) {
+            entries.put(entry.getKey(), entry.getValue().json());
+        }
+        for (String key : strings(section.get("removed"))) {
+            entries.remove(key);
+        }
+        for (JsonValue entry = section.get("set").child; entry != null; entry = entry.next) {
+            entries.put(entry.getString("key"), entry.get("value").toJson(JsonValue.OutputType.json));
+        }
+        JsonValue order = section.get("order");
+        if (order != null) {
+            LinkedHashMap<String, String> ordered = new LinkedHashMap<>();
+            for (String key : strings(order)) {
+                ordered.put(key, entries.get(key));
+            }
+            entries = ordered;
+        }
+
+        StringBuilder out = new StringBuilder(old.isArray() ? "[" : "{");
+        boolean first = true;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            if (old.isObject()) {
+                out.append(new JsonValue(entry.getKey()).toJson(JsonValue.OutputType.json)).append(':');
+            }
+            out.append(entry.getValue());
+        }
+        return out.append(old.isArray() ? ']' : '}').toString();
+    }
+
+    private static List<String> strings(JsonValue array) {
+        List<String> values = new ArrayList<>();
+        if (array != null) {
+            for (JsonValue value = array.child; value != null; value = value.next) {
+                values.add(value.asString());
+            }
+        }
+        return values;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String digest(MessageDigest md, String s) {
+        byte[] hash = md.digest(s.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash, 0, DIGEST_BYTES);
+    }
+}
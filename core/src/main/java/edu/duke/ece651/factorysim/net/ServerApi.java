@@ -0,0 +1,109 @@
+package edu.duke.ece651.factorysim.net;
+
+/**
+ * Represents the blocking operations offered by the factorysim server.
+ * Implementations don't need to be thread-safe, `AsyncServerClient` calls them from a single thread.
+ */
+public interface ServerApi {
+    /**
+     * Connects and logs into the server.
+     *
+     * @param host is the host of the server.
+     * @param port is the port of the server.
+     * @param username is the name of the user.
+     * @param password is the password of the user.
+     * @throws Exception when the server can't be reached or the credentials are rejected.
+     */
+    void connect(String host, int port, String username, String password) throws Exception;
+
+    /**
+     * Creates a new user on the server.
+     *
+     * @param host is the host of the server.
+     * @param port is the port of the server.
+     * @param username is the name of the user.
+     * @param password is the password of the user.
+     * @throws Exception when the server can't be reached or the user already exists.
+     */
+    void signup(String host, int port, String username, String password) throws Exception;
+
+    /**
+     * Downloads a preset.
+     *
+     * @param host is the host of the server.
+     * @param port is the port of the server.
+     * @param preset is the name of the preset.
+     * @return the JSON document of the preset.
+     * @throws Exception when the server can't be reached or the preset doesn't exist.
+     */
+    String loadPreset(String host, int port, String preset) throws Exception;
+
+    /**
+     * Downloads the save of the logged in user.
+     *
+     * @return the JSON save document.
+     * @throws Exception when not logged in or the server can't be reached.
+     */
+    String loadUserSave() throws Exception;
+
+    /**
+     * Uploads the save of the logged in user.
+     *
+     * @param json is the JSON save document.
+     * @throws Exception when not logged in or the server can't be reached.
+     */
+    void saveUserSave(String json) throws Exception;
+
+    /**
+     * Checks whether the server accepts patches through `saveUserSaveDelta`. Servers that don't keep the default
+     * implementation, and callers only send them full saves.
+     *
+     * @return true if the server accepts save patches.
+     */
+    default boolean supportsSaveDeltas() {
+        return false;
+    }
+
+    /**
+     * Uploads a patch of the save of the logged in user, computed by `SaveDelta.diff`.
+     * Only called if `supportsSaveDeltas` returns true.
+     *
+     * @param patch is the JSON patch, which names the revision it applies to.
+     * @throws RevisionMismatchException when the server's save isn't the revision the patch applies to.
+     * @throws UnsupportedOperationException when the server doesn't support patches.
+     * @throws Exception when not logged in or the server can't be reached.
+     */
+    default void saveUserSaveDelta(String patch) throws Exception {
+        throw new UnsupportedOperationException("Server doesn't support save patches");
+    }
+
+    /**
+     * Downloads a preset unless it matches a cached copy.
+     * The default implementation downloads the whole preset and compares it locally, so it saves no traffic; servers
+     * that can compare hashes should override this so unchanged presets aren't sent.
+     *
+     * @param host is the host of the server.
+     * @param port is the port of the server.
+     * @param preset is the name of the preset.
+     * @param knownHash is the `ContentCache.hash` of the cached copy, or null if there is none.
+     * @return the JSON document of the preset, or null if it matches the cached copy.
+     * @throws Exception when the server can't be reached or the preset doesn't exist.
+     */
+    default String loadPresetIfChanged(String host, int port, String preset, String knownHash) throws Exception {
+        String json = loadPreset(host, port, preset);
+        return knownHash != null && knownHash.equals(ContentCache.hash(json)) ? null : json;
+    }
+
+    /**
+     * Downloads the save of the logged in user unless it matches a cached copy.
+     * Like `loadPresetIfChanged`, the default implementation downloads the whole save and compares it locally.
+     *
+     * @param knownHash is the `ContentCache.hash` of the cached copy, or null if there is none.
+     * @return the JSON save document, or null if it matches the cached copy.
+     * @throws Exception when not logged in or the server can't be reached.
+     */
+    default String loadUserSaveIfChanged(String knownHash) throws Exception {
+        String json = loadUserSave();
+        return knownHash != null && knownHash.equals(ContentCache.hash(json)) ? null : json;
+    }
+}
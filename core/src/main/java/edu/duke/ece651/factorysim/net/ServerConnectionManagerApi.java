@@ -0,0 +1,33 @@
+package edu.duke.ece651.factorysim.net;
+
+import edu.duke.ece651.factorysim.client.ServerConnectionManager;
+
+/**
+ * Adapts the `ServerConnectionManager` singleton, which holds the persistent connection to the real server.
+ */
+public class ServerConnectionManagerApi implements ServerApi {
+    @Override
+    public void connect(String host, int port, String username, String password) throws Exception {
+        ServerConnectionManager.getInstance().connect(host, port, username, password);
+    }
+
+    @Override
+    public void signup(String host, int port, String username, String password) throws Exception {
+        ServerConnectionManager.getInstance().signup(host, port, username, password);
+    }
+
+    @Override
+    public String loadPreset(String host, int port, String preset) throws Exception {
+        return ServerConnectionManager.getInstance().loadPreset(host, port, preset);
+    }
+
+    @Override
+    public String loadUserSave() throws Exception {
+        return ServerConnectionManager.getInstance().loadUserSave();
+    }
+
+    @Override
+    public void saveUserSave(String json) throws Exception {
+        ServerConnectionManager.getInstance().saveUserSave(json);
+    }
+}
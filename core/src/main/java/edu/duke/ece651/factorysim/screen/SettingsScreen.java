@@ -11,6 +11,9 @@ import com.badlogic.gdx.utils.ScreenUtils;
 import com.kotcrab.vis.ui.VisUI;
 import com.kotcrab.vis.ui.widget.*;
 
+import java.time.Duration;
+
+import edu.duke.ece651.factorysim.Autosaver;
 import edu.duke.ece651.factorysim.Constants;
 import edu.duke.ece651.factorysim.FactoryGame;
 import edu.duke.ece651.factorysim.Tuple;
@@ -33,6 +36,19 @@ public class SettingsScreen implements Screen {
     // Server preset field
     private VisTextField presetField;
 
+    // Offline mode checkbox
+    private VisCheckBox offlineCheckBox;
+
+    // Autosave interval fields
+    private VisTextField autosaveSecondsField;
+    private VisTextField autosaveStepsField;
+
+    // Session recording checkbox
+    private VisCheckBox recordSessionsCheckBox;
+
+    // Log spilling checkbox
+    private VisCheckBox spillLogsCheckBox;
+
     // Map size options
     private final String[] mapSizeOptions = {
         "Tiny (16x9 grid)",
@@ -61,6 +77,12 @@ public class SettingsScreen implements Screen {
     public static final String HOST_KEY = "server_host";
     public static final String PORT_KEY = "server_port";
     public static final String PRESET_KEY = "server_preset";
+    public static final String OFFLINE_KEY = "offline";
+    public static final String AUTOSAVE_SECONDS_KEY = "autosave_seconds";
+    public static final String AUTOSAVE_STEPS_KEY = "autosave_steps";
+    public static final int DEFAULT_AUTOSAVE_SECONDS = 60;
+    public static final String RECORD_SESSIONS_KEY = "record_sessions";
+    public static final String SPILL_LOGS_KEY = "spill_logs";
 
     public SettingsScreen(FactoryGame game) {
         this.game = game;
@@ -150,6 +172,33 @@ public class SettingsScreen implements Screen {
         settingsTable.add(presetField).expandX().fillX().padBottom(10).row();
         presetField.setText(getStoredPreset());
 
+        // Offline mode, which only loads presets and saves that were downloaded before
+        settingsTable.add(new VisLabel("Offline:")).left().padRight(10);
+        offlineCheckBox = new VisCheckBox("Use cached presets and saves only");
+        offlineCheckBox.setChecked(getStoredOffline());
+        settingsTable.add(offlineCheckBox).left().padBottom(10).row();
+
+        // Autosave intervals, 0 turns an interval off
+        Autosaver.Config autosave = getStoredAutosaveConfig();
+        settingsTable.add(new VisLabel("Autosave (s):")).left().padRight(10);
+        autosaveSecondsField = new VisTextField(Long.toString(autosave.interval().toSeconds()));
+        settingsTable.add(autosaveSecondsField).expandX().fillX().padBottom(10).row();
+        settingsTable.add(new VisLabel("Autosave (steps):")).left().padRight(10);
+        autosaveStepsField = new VisTextField(Integer.toString(autosave.stepInterval()));
+        settingsTable.add(autosaveStepsField).expandX().fillX().padBottom(10).row();
+
+        // Session recording, for replaying sessions without the GUI
+        settingsTable.add(new VisLabel("Record:")).left().padRight(10);
+        recordSessionsCheckBox = new VisCheckBox("Record sessions for replay");
+        recordSessionsCheckBox.setChecked(getStoredRecordSessions());
+        settingsTable.add(recordSessionsCheckBox).left().padBottom(10).row();
+
+        // Log spilling, so lines evicted from the log panel aren't lost
+        settingsTable.add(new VisLabel("Logs:")).left().padRight(10);
+        spillLogsCheckBox = new VisCheckBox("Keep older log lines on disk");
+        spillLogsCheckBox.setChecked(getStoredSpillLogs());
+        settingsTable.add(spillLogsCheckBox).left().padBottom(10).row();
+
         // Buttons
         VisTextButton backButton = new VisTextButton("Back", "blue");
         backButton.addListener(new ClickListener() {
@@ -193,6 +242,11 @@ public class SettingsScreen implements Screen {
         prefs.putString(HOST_KEY, hostField.getText());
         prefs.putInteger(PORT_KEY, Integer.parseInt(portField.getText()));
         prefs.putString(PRESET_KEY, presetField.getText());
+        prefs.putBoolean(OFFLINE_KEY, offlineCheckBox.isChecked());
+        prefs.putInteger(AUTOSAVE_SECONDS_KEY, Math.max(0, Integer.parseInt(autosaveSecondsField.getText())));
+        prefs.putInteger(AUTOSAVE_STEPS_KEY, Math.max(0, Integer.parseInt(autosaveStepsField.getText())));
+        prefs.putBoolean(RECORD_SESSIONS_KEY, recordSessionsCheckBox.isChecked());
+        prefs.putBoolean(SPILL_LOGS_KEY, spillLogsCheckBox.isChecked());
         prefs.flush();
 
         Gdx.app.log("SettingsScreen",
@@ -261,4 +315,26 @@ public class SettingsScreen implements Screen {
         Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
         return prefs.getString(PRESET_KEY, "");
     }
+
+    public static boolean getStoredOffline() {
+        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
+        return prefs.getBoolean(OFFLINE_KEY, false);
+    }
+
+    public static Autosaver.Config getStoredAutosaveConfig() {
+        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
+        int seconds = Math.max(0, prefs.getInteger(AUTOSAVE_SECONDS_KEY, DEFAULT_AUTOSAVE_SECONDS));
+        int steps = Math.max(0, prefs.getInteger(AUTOSAVE_STEPS_KEY, 0));
+        return new Autosaver.Config(Duration.ofSeconds(seconds), steps);
+    }
+
+    public static boolean getStoredRecordSessions() {
+        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
+        return prefs.getBoolean(RECORD_SESSIONS_KEY, false);
+    }
+
+    public static boolean getStoredSpillLogs() {
+        Preferences prefs = Gdx.app.getPreferences(PREFS_NAME);
+        return prefs.getBoolean(SPILL_LOGS_KEY, false);
+    }
 }
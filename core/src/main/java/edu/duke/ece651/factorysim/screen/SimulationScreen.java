@@ -8,16 +8,22 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.*;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.kotcrab.vis.ui.VisUI;
+import com.kotcrab.vis.ui.util.dialog.Dialogs;
+import com.kotcrab.vis.ui.util.dialog.OptionDialogAdapter;
 import com.kotcrab.vis.ui.widget.file.FileChooser;
 import com.kotcrab.vis.ui.widget.*;
 
+import static com.kotcrab.vis.ui.util.dialog.Dialogs.showErrorDialog;
+
 import edu.duke.ece651.factorysim.*;
-import edu.duke.ece651.factorysim.client.ServerConnectionManager;
+import edu.duke.ece651.factorysim.Logger;
+import edu.duke.ece651.factorysim.net.AsyncServerClient;
 import edu.duke.ece651.factorysim.screen.ui.*;
 import edu.duke.ece651.factorysim.screen.util.*;
 import edu.duke.ece651.factorysim.screen.listeners.UIEventListenerFactory;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
 
 /**
  * This class is responsible for displaying the simulation screen and handling user input.
@@ -31,6 +37,10 @@ public class SimulationScreen implements Screen {
     private Stage stage;
     private TopBar topBar;
     private LogPanel logPanel;
+    private PanelLogger panelLogger;
+    private BackgroundTasks backgroundTasks;
+    private Autosaver autosaver;
+    private SessionRecorder recorder;
     private VisTable infoPanelContainer;
     private InfoPanel currentInfoPanel;
     private ControlPanel controlPanel;
@@ -93,6 +103,9 @@ public class SimulationScreen implements Screen {
         gridCols = gridDimensions[0];
         gridRows = gridDimensions[1];
 
+        // Saves, loads and server round-trips run in the background
+        backgroundTasks = new BackgroundTasks();
+
         // Create game world
         this.world = new GameWorld(gridCols, gridRows, Constants.CELL_SIZE, new StreamLogger(System.out), this,
             0f, 0f);
@@ -149,18 +162,30 @@ public class SimulationScreen implements Screen {
         setupLayout();
         attachEventListeners();
 
-        // Try to load preset if specified
+        // Autosave in the background, after dealing with an autosave left by a session that didn't end cleanly
+        autosaver = new Autosaver(this.world, Autosaver.defaultDirectory(), SettingsScreen.getStoredAutosaveConfig());
+        offerRecovery();
+
+        // Record the session for headless replay, restarting with every loaded simulation
+        if (SettingsScreen.getStoredRecordSessions()) {
+            recorder = new SessionRecorder(this.world, SessionRecorder.defaultDirectory());
+            startRecording();
+        }
+
+        // Try to load preset if specified, fetching and parsing it off the render thread
+        AsyncServerClient.getInstance().setOffline(SettingsScreen.getStoredOffline());
         String preset = SettingsScreen.getStoredPreset();
         if (preset != null && !preset.isEmpty()) {
-            try {
-                Tuple<String, Integer> hostAndPort = SettingsScreen.getStoredHostAndPort();
-                String host = hostAndPort.first();
-                int port = hostAndPort.second();
-                String json = ServerConnectionManager.getInstance().loadPreset(host, port, preset);
-                File tempFile = App.createTempFile("temp", ".json", json);
-                loadSimulation(tempFile.getAbsolutePath());
-                App.deleteTempFile(tempFile);
-            } catch (Exception ignored) { }
+            Tuple<String, Integer> hostAndPort = SettingsScreen.getStoredHostAndPort();
+            Logger logger = this.world.getLogger();
+            backgroundTasks.submit("Loading preset", () -> {
+                String json = AsyncServerClient.await(AsyncServerClient.getInstance().loadPreset(hostAndPort.first(),
+                    hostAndPort.second(), preset));
+                return SimulationIO.load(new StringReader(json), logger);
+            }, (sim) -> {
+                loadSimulation(sim);
+                updateStepCount();
+            }, (e) -> { });
         }
     }
 
@@ -198,6 +223,13 @@ public class SimulationScreen implements Screen {
         // Create UI panels
         topBar = new TopBar(currentStep, stage);
         logPanel = new LogPanel();
+        if (SettingsScreen.getStoredSpillLogs()) {
+            try {
+                logPanel.enableSpillToDisk(LogPanel.defaultSpillDirectory());
+            } catch (IOException e) {
+                System.err.println("Failed to keep older log lines on disk: " + e.getMessage());
+            }
+        }
         infoPanelContainer = new VisTable();
         infoPanelContainer.setVisible(false);
         controlPanel = new ControlPanel();
@@ -221,7 +253,8 @@ public class SimulationScreen implements Screen {
         buildingButtonsPanel.pad(10);
 
         // Set up logging
-        world.setLogger(new PanelLogger(logPanel));
+        panelLogger = new PanelLogger(logPanel);
+        world.setLogger(panelLogger);
     }
 
     /**
@@ -368,12 +401,18 @@ public class SimulationScreen implements Screen {
             // Get the building from the current info panel
             Building building = currentInfoPanel.getBuilding();
 
-            // Update the info panel data with the current building state
+            // Update the info panel data with the current building state, skipped while a step is in progress
             if (building != null) {
-                currentInfoPanel.updateData(building);
+                world.tryRunWithSimulationLock(() -> currentInfoPanel.updateData(building));
             }
         }
 
+        // Move messages logged since the last frame to the log panel
+        panelLogger.drain();
+
+        // Show the progress of background saves and loads
+        topBar.setBusyStatus(backgroundTasks.getStatus());
+
         stage.act(delta);
         stage.draw();
     }
@@ -410,6 +449,10 @@ public class SimulationScreen implements Screen {
     @Override
     public void hide() {
         Gdx.input.setInputProcessor(null);
+
+        // Leaving the screen or closing the game ends the session cleanly, so there is nothing to recover
+        closeAutosaver();
+        stopRecording();
     }
 
     /**
@@ -417,7 +460,12 @@ public class SimulationScreen implements Screen {
      */
     @Override
     public void dispose() {
+        // Let a save in progress finish before the world goes away
+        backgroundTasks.close();
+        closeAutosaver();
+        stopRecording();
         world.dispose();
+        logPanel.dispose();
 
         // Dispose textures
         selectTexture.dispose();
@@ -433,6 +481,40 @@ public class SimulationScreen implements Screen {
         }
     }
 
+    private void closeAutosaver() {
+        try {
+            autosaver.close();
+        } catch (IOException e) {
+            System.out.println("Failed to delete the autosave: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts recording the current simulation in the background, if sessions are recorded.
+     */
+    private void startRecording() {
+        if (recorder == null) {
+            return;
+        }
+        backgroundTasks.submit("Recording", recorder::start,
+            (path) -> logPanel.appendLog("Recording session to: " + path),
+            (e) -> logPanel.appendLog("[WARN] Failed to record the session: " + e.getMessage()));
+    }
+
+    /**
+     * Ends the recording in progress, if any, with the state of the current simulation.
+     */
+    private void stopRecording() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.stop();
+        } catch (IOException e) {
+            System.out.println("Failed to end the session recording: " + e.getMessage());
+        }
+    }
+
     public void loadFormula(String jsonPath) {
         Simulation sim = new Simulation(WorldBuilder.buildEmptyWorld(), 0, this.world.getLogger());
         sim.load(jsonPath);
@@ -448,13 +530,59 @@ public class SimulationScreen implements Screen {
         realTimeMenu = new RealTimeMenu(this);
         stage.addActor(realTimeMenu);
 
+        stopRecording();
         this.world.setSimulation(sim);
+        startRecording();
     }
 
-    public void loadSimulation(String jsonPath) {
-        Simulation sim = new Simulation(WorldBuilder.buildEmptyWorld(), 0, this.world.getLogger());
-        sim.load(jsonPath);
+    /**
+     * Asks whether to recover the autosave left by a session that didn't end cleanly, if there is one, and starts
+     * autosaving once it is recovered or discarded.
+     */
+    private void offerRecovery() {
+        boolean recoverable;
+        try {
+            recoverable = autosaver.hasRecovery();
+        } catch (IOException e) {
+            recoverable = false;
+        }
+        if (!recoverable) {
+            autosaver.start();
+            return;
+        }
+
+        Dialogs.showOptionDialog(stage, "Recover", "The last session didn't end cleanly. Recover its autosave?",
+            Dialogs.OptionDialogType.YES_NO, new OptionDialogAdapter() {
+                @Override
+                public void yes() {
+                    Logger logger = world.getLogger();
+                    backgroundTasks.submit("Recovering", () -> autosaver.recover(logger), (sim) -> {
+                        loadSimulation(sim);
+                        updateStepCount();
+                        logPanel.appendLog("Recovered the autosave at step " + sim.getCurrentTime());
+                        autosaver.start();
+                    }, (e) -> {
+                        showErrorDialog(stage, "Failed to recover the autosave: " + e.getMessage());
+                        autosaver.start();
+                    });
+                }
 
+                @Override
+                public void no() {
+                    backgroundTasks.submit("Discarding autosave", () -> {
+                        autosaver.discard();
+                        return null;
+                    }, (ignored) -> autosaver.start(), (e) -> autosaver.start());
+                }
+            });
+    }
+
+    /**
+     * Replaces the simulation of the game world with an already loaded one.
+     *
+     * @param sim is the loaded simulation.
+     */
+    public void loadSimulation(Simulation sim) {
         // Remove old menu from stage if it exists
         if (realTimeMenu != null) {
             realTimeMenu.remove();
@@ -465,24 +593,89 @@ public class SimulationScreen implements Screen {
         realTimeMenu = new RealTimeMenu(this);
         stage.addActor(realTimeMenu);
 
+        // Loading detaches the journals, so the recording ends before and the autosave needs a new snapshot after
+        stopRecording();
         this.world.setSimulation(sim);
+        if (autosaver != null) {
+            autosaver.requestSnapshot();
+        }
+        startRecording();
 
         logPanel.setVerbosity(sim.getVerbosity());
     }
 
-    public void saveSimulation(String jsonPath) {
-        this.world.getSim().save(jsonPath);
+    /**
+     * Loads a simulation from a file in the background, then replaces the simulation of the game world with it on the
+     * render thread.
+     *
+     * @param path is the path of a JSON save or a binary snapshot.
+     */
+    public void loadSimulationAsync(String path) {
+        Logger logger = this.world.getLogger();
+        backgroundTasks.submit("Loading", () -> SimulationIO.load(path, logger), (sim) -> {
+            loadSimulation(sim);
+            updateStepCount();
+            logPanel.appendLog("Simulation loaded from: " + path);
+        }, (e) -> showErrorDialog(stage, "Failed to load simulation: " + e.getMessage()));
+    }
+
+    /**
+     * Saves the simulation to a file in the background.
+     * The simulation is serialized under the simulation lock, which is released before the file is written, so
+     * stepping only pauses while the consistent copy is taken.
+     *
+     * @param path is the path of a JSON save or a binary snapshot.
+     */
+    public void saveSimulationAsync(String path) {
+        GameWorld world = this.world;
+        Simulation sim = world.getSim();
+        backgroundTasks.submit("Saving", () -> {
+            String json = world.callWithSimulationLock(sim::toJson);
+            SimulationIO.write(json, path);
+            return path;
+        }, (saved) -> logPanel.appendLog("Simulation saved to: " + saved),
+            (e) -> showErrorDialog(stage, "Failed to save simulation: " + e.getMessage()));
+    }
+
+    /**
+     * Uploads the simulation to the server in the background, serializing it the same way as `saveSimulationAsync`.
+     * Only what changed since the last save the server acknowledged is sent, if the server supports it.
+     */
+    public void saveToDatabaseAsync() {
+        GameWorld world = this.world;
+        Simulation sim = world.getSim();
+        backgroundTasks.submit("Saving to DB", () -> {
+            String json = world.callWithSimulationLock(sim::toJson);
+            return AsyncServerClient.await(AsyncServerClient.getInstance().syncUserSave(json));
+        }, (result) -> logPanel.appendLog("Simulation saved to DB (" + (result.delta() ? "patch of "
+                + result.changedEntries() + " changes, " : "full save, ") + result.length() + " characters)"),
+            (e) -> showErrorDialog(stage, e.getMessage()));
+    }
+
+    /**
+     * Downloads and parses the user's save from the server in the background, then replaces the simulation of the
+     * game world with it on the render thread.
+     */
+    public void loadFromDatabaseAsync() {
+        Logger logger = this.world.getLogger();
+        backgroundTasks.submit("Loading from DB", () -> {
+            String json = AsyncServerClient.await(AsyncServerClient.getInstance().loadUserSave());
+            return SimulationIO.load(new StringReader(json), logger);
+        }, (sim) -> {
+            loadSimulation(sim);
+            updateStepCount();
+        }, (e) -> showErrorDialog(stage, e.getMessage()));
     }
 
     // set verbosity
     public void setVerbosity(int verbosity) {
-        this.world.getSim().setVerbosity(verbosity);
+        this.world.runWithSimulationLock(() -> this.world.getSim().setVerbosity(verbosity));
     }
 
     // make user request
     public void makeUserRequest(String itemName, String buildingName) {
         try {
-            this.world.getSim().makeUserRequest(itemName, buildingName);
+            this.world.makeUserRequest(itemName, buildingName);
         } catch (Exception e) {
             logPanel.appendLog("[ERROR] Failed to make user request: " + e.getMessage());
         }
@@ -490,7 +683,7 @@ public class SimulationScreen implements Screen {
 
     //get current step
     public int getCurrentStep() {
-        return this.world.getSim().getCurrentTime();
+        return this.world.getCurrentStep();
     }
 
     //step simulation by n steps
@@ -504,7 +697,7 @@ public class SimulationScreen implements Screen {
 
     //set policy
     public void setPolicy(String type, String policy, String buildingName) {
-        this.world.getSim().setPolicy(type, policy, buildingName);
+        this.world.setPolicy(type, policy, buildingName);
     }
 
     //finish simulation
@@ -513,7 +706,7 @@ public class SimulationScreen implements Screen {
         if (this.world.isRealTimeEnabled()) {
             stopRealTimeSimulation();
         }
-        this.world.getSim().finish();
+        this.world.finish();
     }
 
     /**
@@ -577,6 +770,51 @@ public class SimulationScreen implements Screen {
         return this.world.isRealTimeEnabled();
     }
 
+    /**
+     * Sets whether real-time simulation runs as fast as possible instead of at the set speed.
+     *
+     * @param turbo true to run as fast as possible
+     */
+    public void setRealTimeTurbo(boolean turbo) {
+        this.world.getRealTime().setTurbo(turbo);
+    }
+
+    /**
+     * Checks if real-time simulation runs as fast as possible.
+     *
+     * @return true if turbo mode is enabled
+     */
+    public boolean isRealTimeTurbo() {
+        return this.world.getRealTime().isTurbo();
+    }
+
+    /**
+     * Gets the speed real-time simulation actually runs at.
+     *
+     * @return achieved steps per second
+     */
+    public float getRealTimeAchievedSpeed() {
+        return this.world.getRealTime().getAchievedSpeed();
+    }
+
+    /**
+     * Sets whether real-time simulation steps on a background thread.
+     *
+     * @param threaded true to step on a background thread
+     */
+    public void setRealTimeThreaded(boolean threaded) {
+        this.world.setRealTimeThreaded(threaded);
+    }
+
+    /**
+     * Checks if real-time simulation steps on a background thread.
+     *
+     * @return true if threaded
+     */
+    public boolean isRealTimeThreaded() {
+        return this.world.isRealTimeThreaded();
+    }
+
     /**
      * Checks if real-time simulation is paused.
      *
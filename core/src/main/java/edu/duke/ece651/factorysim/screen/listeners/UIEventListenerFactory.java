@@ -8,16 +8,10 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.kotcrab.vis.ui.widget.file.FileChooser;
 import com.kotcrab.vis.ui.widget.VisSelectBox;
 
-import edu.duke.ece651.factorysim.App;
-import edu.duke.ece651.factorysim.client.ServerConnectionManager;
 import edu.duke.ece651.factorysim.screen.ui.ControlPanel;
 import edu.duke.ece651.factorysim.screen.ui.TopBar;
 import edu.duke.ece651.factorysim.screen.SimulationScreen;
 
-import java.io.File;
-
-import static com.kotcrab.vis.ui.util.dialog.Dialogs.showErrorDialog;
-
 /**
  * Event listeners for the UI components.
  */
@@ -76,15 +70,8 @@ public class UIEventListenerFactory {
         return new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                try {
-                    String json = ServerConnectionManager.getInstance().loadUserSave();
-                    File tempFile = App.createTempFile("temp", ".json", json);
-                    screen.loadSimulation(tempFile.getAbsolutePath());
-                    App.deleteTempFile(tempFile);
-                } catch (Exception e) {
-                    showErrorDialog(stage, e.getMessage());
-                }
-                topBar.updateStepCount(screen.getCurrentStep());
+                // Runs in the background, the step count is updated once the simulation is loaded
+                screen.loadFromDatabaseAsync();
             }
         };
     }
@@ -99,12 +86,7 @@ public class UIEventListenerFactory {
         return new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                try {
-                    String json = screen.getWorld().getSim().toJson();
-                    ServerConnectionManager.getInstance().saveUserSave(json);
-                } catch (Exception e) {
-                    showErrorDialog(stage, e.getMessage());
-                }
+                screen.saveToDatabaseAsync();
                 topBar.updateStepCount(screen.getCurrentStep());
             }
         };
@@ -0,0 +1,162 @@
+package edu.duke.ece651.factorysim.screen.ui;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.ui.Widget;
+import com.badlogic.gdx.scenes.scene2d.utils.Cullable;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+
+import edu.duke.ece651.factorysim.screen.util.LogBuffer;
+
+/**
+ * Virtualized view of a log buffer with one fixed-height row per line.
+ * When placed in a scroll pane, only the rows inside the visible area are drawn.
+ * Lines aren't wrapped, the view is as wide as the widest line kept in the buffer.
+ */
+public class LogListView extends Widget implements Cullable {
+    private static final float PADDING = 8f;
+
+    private final LogBuffer buffer;
+    private final BitmapFont font;
+    private final Color color;
+    private final float lineHeight;
+    private final GlyphLayout glyphLayout = new GlyphLayout();
+    private final Color oldColor = new Color();
+    private float maxLineWidth = 0;
+    private boolean maxLineWidthStale = false;
+
+    // Widths of the lines in the buffer, a ring in lockstep with the buffer so evicted widths are known
+    private final float[] lineWidths;
+    private int widthsStart = 0;
+    private int widthsSize = 0;
+    private Rectangle cullingArea;
+    private Drawable background;
+    private int lastDrawnRows = 0;
+
+    /**
+     * Creates a view of a log buffer.
+     *
+     * @param buffer the buffer to display
+     * @param font the font to draw lines with
+     * @param color the color of the lines
+     */
+    public LogListView(LogBuffer buffer, BitmapFont font, Color color) {
+        this.buffer = buffer;
+        this.font = font;
+        this.color = new Color(color);
+        this.lineHeight = font.getLineHeight();
+        this.lineWidths = new float[buffer.getCapacity()];
+    }
+
+    /**
+     * Sets the drawable drawn behind the rows.
+     *
+     * @param background the background, or null for none
+     */
+    public void setBackground(Drawable background) {
+        this.background = background;
+    }
+
+    /**
+     * Measures a line appended to the buffer and widens the view if needed. Must be called once for every line
+     * appended to the buffer. If the widest line got evicted, the view narrows on its next layout.
+     *
+     * @param line the appended line
+     */
+    public void lineAdded(String line) {
+        glyphLayout.setText(font, line);
+        float width = glyphLayout.width;
+        if (widthsSize == lineWidths.length) {
+            if (lineWidths[widthsStart] >= maxLineWidth) {
+                maxLineWidthStale = true;
+            }
+            lineWidths[widthsStart] = width;
+            widthsStart = (widthsStart + 1) % lineWidths.length;
+        } else {
+            lineWidths[(widthsStart + widthsSize) % lineWidths.length] = width;
+            widthsSize++;
+        }
+        if (width > maxLineWidth) {
+            maxLineWidth = width;
+        }
+    }
+
+    /**
+     * Resets the width of the view after the buffer was cleared.
+     */
+    public void linesCleared() {
+        maxLineWidth = 0;
+        maxLineWidthStale = false;
+        widthsStart = 0;
+        widthsSize = 0;
+    }
+
+    @Override
+    public void setCullingArea(Rectangle cullingArea) {
+        this.cullingArea = cullingArea;
+    }
+
+    @Override
+    public float getPrefWidth() {
+        if (maxLineWidthStale) {
+            maxLineWidth = 0;
+            for (int i = 0; i < widthsSize; i++) {
+                maxLineWidth = Math.max(maxLineWidth, lineWidths[i]);
+            }
+            maxLineWidthStale = false;
+        }
+        return maxLineWidth + PADDING * 2;
+    }
+
+    @Override
+    public float getPrefHeight() {
+        return buffer.size() * lineHeight + PADDING * 2;
+    }
+
+    /**
+     * Gets the number of rows drawn during the last frame.
+     *
+     * @return the number of drawn rows
+     */
+    public int getLastDrawnRows() {
+        return lastDrawnRows;
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        validate();
+
+        if (background != null) {
+            Color c = getColor();
+            batch.setColor(c.r, c.g, c.b, c.a * parentAlpha);
+            background.draw(batch, getX(), getY(), getWidth(), getHeight());
+        }
+
+        int size = buffer.size();
+        if (size == 0) {
+            lastDrawnRows = 0;
+            return;
+        }
+
+        // Row i spans local y from top - (i + 1) * lineHeight to top - i * lineHeight
+        float top = getHeight() - PADDING;
+        int first = 0;
+        int last = size - 1;
+        if (cullingArea != null) {
+            first = Math.max(0, (int)Math.floor((top - cullingArea.y - cullingArea.height) / lineHeight));
+            last = Math.min(size - 1, (int)Math.floor((top - cullingArea.y) / lineHeight));
+        }
+
+        oldColor.set(font.getColor());
+        font.setColor(color.r, color.g, color.b, color.a * parentAlpha * getColor().a);
+        float x = getX() + PADDING;
+        for (int i = first; i <= last; i++) {
+            font.draw(batch, buffer.get(i), x, getY() + top - i * lineHeight);
+        }
+        font.setColor(oldColor);
+        lastDrawnRows = Math.max(0, last - first + 1);
+    }
+}
@@ -3,23 +3,48 @@ package edu.duke.ece651.factorysim.screen.ui;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
-import com.badlogic.gdx.utils.Align;
 import com.kotcrab.vis.ui.VisUI;
 import com.kotcrab.vis.ui.widget.*;
 
+import edu.duke.ece651.factorysim.screen.util.LogBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
 /**
- * Log panel.
+ * Log panel. Keeps the most recent lines in a fixed-capacity buffer, optionally spilling older lines to disk.
  */
 public class LogPanel extends VisTable {
-    private VisLabel logLabel;
+    public static final int DEFAULT_CAPACITY = 5000;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final LogBuffer logBuffer;
+    private LogListView logView;
     private VisScrollPane scrollPane;
     private VisSelectBox<String> verbosityBox;
+    private VisLabel droppedLabel;
+    private boolean scrollToEnd = false;
 
     /**
      * Constructor for the LogPanel class.
      */
     public LogPanel() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for the LogPanel class.
+     * @param capacity the maximum number of lines kept in memory
+     */
+    public LogPanel(int capacity) {
         super();
+        logBuffer = new LogBuffer(capacity);
         init();
     }
 
@@ -44,15 +69,21 @@ public class LogPanel extends VisTable {
         verboseTable.add(verboseLabel).left();
         verboseTable.add(verbosityBox).left().padLeft(5).pad(5, 10, 5, 10);
 
-        add(logsLabel).left().padLeft(10).padTop(10).row();
+        // Dropped messages counter, only shown once messages were dropped
+        droppedLabel = new VisLabel("");
+        droppedLabel.setColor(Color.FIREBRICK);
+        droppedLabel.setVisible(false);
+
+        VisTable headerTable = new VisTable();
+        headerTable.add(logsLabel).left();
+        headerTable.add(droppedLabel).left().padLeft(10);
+
+        add(headerTable).left().padLeft(10).padTop(10).row();
         add(verboseTable).left().padLeft(10).padTop(5).row();
 
-        // Log label setup
-        logLabel = new VisLabel("");
-        logLabel.setWrap(true);
-        logLabel.setColor(Color.WHITE);
-        logLabel.setTouchable(Touchable.disabled);
-        logLabel.setAlignment(Align.topLeft);
+        // Log view setup
+        logView = new LogListView(logBuffer, VisUI.getSkin().getFont("default-font"), Color.WHITE);
+        logView.setTouchable(Touchable.disabled);
 
         // Style background
         Drawable paddedBackground = VisUI.getSkin().newDrawable("white", Color.DARK_GRAY);
@@ -61,16 +92,11 @@ public class LogPanel extends VisTable {
         paddedBackground.setTopHeight(1f);
         paddedBackground.setBottomHeight(1f);
 
-        // Create a table to hold the label with background
-        VisTable logTable = new VisTable();
-        logTable.setBackground(paddedBackground);
-        logTable.top();
-        logTable.add(logLabel).pad(8).expand().fill().top().left();
+        logView.setBackground(paddedBackground);
 
-
-        // ScrollPane wrapping logTable
-        scrollPane = new VisScrollPane(logTable);
-        scrollPane.setScrollingDisabled(true, false);
+        // ScrollPane wrapping the view directly, so the view receives the culling area
+        scrollPane = new VisScrollPane(logView);
+        scrollPane.setScrollingDisabled(false, false);
         scrollPane.setForceScroll(false, true);
         scrollPane.setFadeScrollBars(false);
         scrollPane.setScrollbarsOnTop(true);
@@ -86,16 +112,115 @@ public class LogPanel extends VisTable {
      * @param message the message to append
      */
     public void appendLog(String message) {
-        logLabel.setText(logLabel.getText() + message + "\n");
-        scrollPane.layout();
-        scrollPane.setScrollPercentY(1f);
+        appendMessage(message);
+        logView.invalidateHierarchy();
+        scrollToEnd = true;
+    }
+
+    /**
+     * Append several log messages to the log panel at once.
+     * @param messages the messages to append
+     */
+    public void appendLogs(List<String> messages) {
+        for (String message : messages) {
+            appendMessage(message);
+        }
+        logView.invalidateHierarchy();
+        scrollToEnd = true;
+    }
+
+    private void appendMessage(String message) {
+        int start = 0;
+        int end;
+        while ((end = message.indexOf('\n', start)) >= 0) {
+            appendLine(message.substring(start, end));
+            start = end + 1;
+        }
+        appendLine(start == 0 ? message : message.substring(start));
+    }
+
+    /**
+     * Show how many log messages were dropped before reaching the panel.
+     * @param count the number of dropped messages
+     */
+    public void setDroppedCount(long count) {
+        droppedLabel.setText("(" + count + " dropped)");
+        droppedLabel.setVisible(count > 0);
+    }
+
+    /**
+     * Appends a line to the buffer, and tells the view about it in the same order.
+     * @param line the line to append
+     */
+    private void appendLine(String line) {
+        logBuffer.append(line);
+        logView.lineAdded(line);
+    }
+
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+        // Scroll once per frame no matter how many lines were appended
+        if (scrollToEnd) {
+            scrollPane.layout();
+            scrollPane.setScrollPercentY(1f);
+            logBuffer.flush();
+            scrollToEnd = false;
+        }
     }
 
     /**
      * Clear the logs.
      */
     public void clearLogs() {
-        logLabel.setText("");
+        logBuffer.clear();
+        logView.linesCleared();
+        logView.invalidateHierarchy();
+    }
+
+    /**
+     * Enables writing lines evicted from the panel to a file, so older lines aren't lost.
+     * @param file the file to append evicted lines to
+     * @throws IOException if the file cannot be opened
+     */
+    public void enableSpillToDisk(File file) throws IOException {
+        logBuffer.enableSpill(file);
+    }
+
+    /**
+     * Enables writing lines evicted from the panel to a new file in a directory, named after the current time.
+     * @param dir the directory of the spill files, it is created if needed
+     * @return the file evicted lines are appended to
+     * @throws IOException if the directory or the file cannot be created
+     */
+    public File enableSpillToDisk(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        File file = dir.resolve("log-" + LocalDateTime.now().format(TIMESTAMP) + ".txt").toFile();
+        enableSpillToDisk(file);
+        return file;
+    }
+
+    /**
+     * Get the default directory of spill files, in the user's home directory.
+     * @return the default spill directory
+     */
+    public static Path defaultSpillDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".factorysim", "logs");
+    }
+
+    /**
+     * Get the buffer holding the lines of the panel.
+     * @return the log buffer
+     */
+    public LogBuffer getLogBuffer() {
+        return logBuffer;
+    }
+
+    /**
+     * Closes the spill file, if any.
+     */
+    public void dispose() {
+        logBuffer.close();
     }
 
     /**
@@ -7,8 +7,8 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.kotcrab.vis.ui.util.dialog.Dialogs;
 import com.kotcrab.vis.ui.widget.*;
-import edu.duke.ece651.factorysim.client.ServerConnectionManager;
 import edu.duke.ece651.factorysim.Tuple;
+import edu.duke.ece651.factorysim.net.AsyncServerClient;
 import edu.duke.ece651.factorysim.screen.SettingsScreen;
 
 /**
@@ -120,6 +120,10 @@ public class LoginDialog extends VisWindow {
      * Attempt to log in with the provided credentials.
      */
     private void attemptLogin() {
+        if (loginButton.isDisabled()) {
+            return; // A request is already pending
+        }
+
         // Get and check username and password
         String username = usernameField.getText();
         String password = passwordField.getText();
@@ -132,19 +136,29 @@ public class LoginDialog extends VisWindow {
         Tuple<String, Integer> hostAndPort = SettingsScreen.getStoredHostAndPort();
         String host = hostAndPort.first();
         int port = hostAndPort.second();
-        try {
-            ServerConnectionManager.getInstance().connect(host, port, username, password);
-        } catch (Exception e) {
-            Dialogs.showErrorDialog(getStage(), e.getMessage());
-            return;
-        }
-
-        // Success
-        callback.onLoginSuccess(username);
-        close();
+        setButtonsDisabled(true);
+        AsyncServerClient.getInstance().connect(host, port, username, password).whenComplete((result, e) ->
+            Gdx.app.postRunnable(() -> {
+                setButtonsDisabled(false);
+                if (getStage() == null) {
+                    return; // Closed while waiting
+                }
+                if (e != null) {
+                    Dialogs.showErrorDialog(getStage(), AsyncServerClient.unwrap(e).getMessage());
+                    return;
+                }
+
+                // Success
+                callback.onLoginSuccess(username);
+                close();
+            }));
     }
 
     private void attemptSignUp() {
+        if (loginButton.isDisabled()) {
+            return; // A request is already pending
+        }
+
         // Get and check username and password
         String username = usernameField.getText();
         String password = passwordField.getText();
@@ -157,15 +171,31 @@ public class LoginDialog extends VisWindow {
         Tuple<String, Integer> hostAndPort = SettingsScreen.getStoredHostAndPort();
         String host = hostAndPort.first();
         int port = hostAndPort.second();
-        try {
-            ServerConnectionManager.getInstance().signup(host, port, username, password);
-        } catch (Exception e) {
-            Dialogs.showErrorDialog(getStage(), e.getMessage());
-            return;
-        }
+        setButtonsDisabled(true);
+        AsyncServerClient.getInstance().signup(host, port, username, password).whenComplete((result, e) ->
+            Gdx.app.postRunnable(() -> {
+                setButtonsDisabled(false);
+                if (getStage() == null) {
+                    return; // Closed while waiting
+                }
+                if (e != null) {
+                    Dialogs.showErrorDialog(getStage(), AsyncServerClient.unwrap(e).getMessage());
+                    return;
+                }
+
+                // Display a dialog to the user indicating success
+                Dialogs.showOKDialog(getStage(), "Success", "Successfully signed up");
+            }));
+    }
 
-        // Display a dialog to the user indicating success
-        Dialogs.showOKDialog(getStage(), "Success", "Successfully signed up");
+    /**
+     * Disables the login and sign-up buttons while a request is pending, so it isn't sent twice.
+     *
+     * @param disabled whether the buttons are disabled.
+     */
+    private void setButtonsDisabled(boolean disabled) {
+        loginButton.setDisabled(disabled);
+        signUpButton.setDisabled(disabled);
     }
 
     /**
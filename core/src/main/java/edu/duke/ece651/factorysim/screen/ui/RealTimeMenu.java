@@ -14,6 +14,9 @@ import edu.duke.ece651.factorysim.screen.SimulationScreen;
 public class RealTimeMenu extends VisWindow {
     private VisTextButton startPauseButton;
     private VisTextField stepsPerSecondField;
+    private VisCheckBox threadedCheckBox;
+    private VisCheckBox turboCheckBox;
+    private VisLabel achievedSpeedLabel;
     private final SimulationScreen screen;
 
     /**
@@ -50,7 +53,22 @@ public class RealTimeMenu extends VisWindow {
         controlsTable.add(stepsPerSecondLabel).left();
         controlsTable.add(stepsPerSecondField).width(50).padLeft(5);
 
-        add(controlsTable).fillX().expandX();
+        add(controlsTable).fillX().expandX().row();
+
+        // Background thread toggle
+        threadedCheckBox = new VisCheckBox("Step in background");
+        threadedCheckBox.setChecked(screen.isRealTimeThreaded());
+        add(threadedCheckBox).left().padTop(10).row();
+
+        // Turbo toggle and achieved speed
+        turboCheckBox = new VisCheckBox("Turbo (as fast as possible)");
+        turboCheckBox.setChecked(screen.isRealTimeTurbo());
+        stepsPerSecondField.setDisabled(turboCheckBox.isChecked());
+        add(turboCheckBox).left().padTop(5).row();
+
+        achievedSpeedLabel = new VisLabel("Achieved: -");
+        achievedSpeedLabel.setColor(Color.WHITE);
+        add(achievedSpeedLabel).left().padTop(5);
 
         // Setup listeners
         setupListeners();
@@ -97,6 +115,23 @@ public class RealTimeMenu extends VisWindow {
             }
         });
 
+        // Background thread toggle listener
+        threadedCheckBox.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                screen.setRealTimeThreaded(threadedCheckBox.isChecked());
+            }
+        });
+
+        // Turbo toggle listener
+        turboCheckBox.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                screen.setRealTimeTurbo(turboCheckBox.isChecked());
+                stepsPerSecondField.setDisabled(turboCheckBox.isChecked());
+            }
+        });
+
         // Steps per second field listener
         stepsPerSecondField.addListener(new ChangeListener() {
             @Override
@@ -114,6 +149,26 @@ public class RealTimeMenu extends VisWindow {
         });
     }
 
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+        if (isVisible()) {
+            updateAchievedSpeed();
+        }
+    }
+
+    /**
+     * Updates the achieved speed label.
+     */
+    private void updateAchievedSpeed() {
+        float achieved = screen.getRealTimeAchievedSpeed();
+        if (!screen.isRealTimeEnabled() || achieved <= 0) {
+            achievedSpeedLabel.setText("Achieved: -");
+        } else {
+            achievedSpeedLabel.setText("Achieved: " + Math.round(achieved) + " steps/s");
+        }
+    }
+
     /**
      * Updates the button text based on simulation state.
      */
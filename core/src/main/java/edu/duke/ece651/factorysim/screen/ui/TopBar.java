@@ -7,6 +7,8 @@ import com.kotcrab.vis.ui.widget.VisTextButton;
 
 import edu.duke.ece651.factorysim.Constants;
 
+import java.util.Objects;
+
 /**
  * Top bar of the simulation.
  */
@@ -17,6 +19,13 @@ public class TopBar extends VisTable {
     private VisTextButton backToHomeButton;
     private VisTextButton dbSaveButton;
     private VisTextButton dbLoadButton;
+    private VisLabel statusLabel;
+    private String status = null;
+    private float spinnerTime = 0f;
+    private int spinnerFrame = -1;
+
+    private static final String SPINNER = "|/-\\";
+    private static final float SPINNER_FRAME_TIME = 0.1f;
 
     /**
      * Constructor for the TopBar class.
@@ -59,8 +68,12 @@ public class TopBar extends VisTable {
         VisTable leftSide = new VisTable();
         leftSide.add(titleLabel).padLeft(20).left();
 
+        // progress of background saves and loads, empty while idle
+        statusLabel = new VisLabel("");
+
         // create right side with all buttons in one row
         VisTable rightSide = new VisTable();
+        rightSide.add(statusLabel).padRight(20);
         rightSide.add(backToHomeButton).padRight(20);
         rightSide.add(dbLoadButton).padRight(20);
         rightSide.add(dbSaveButton).padRight(20);
@@ -85,6 +98,55 @@ public class TopBar extends VisTable {
         stepCountLabel.setText("Current Step: " + currentStep);
     }
 
+    /**
+     * Shows the progress of background operations. Save and load buttons are disabled while busy.
+     * @param status the description of the operations in progress, or null if idle
+     */
+    public void setBusyStatus(String status) {
+        if (Objects.equals(this.status, status)) {
+            return;
+        }
+        this.status = status;
+        this.spinnerTime = 0f;
+        this.spinnerFrame = -1;
+        boolean busy = status != null;
+        saveButton.setDisabled(busy);
+        loadButton.setDisabled(busy);
+        dbSaveButton.setDisabled(busy);
+        dbLoadButton.setDisabled(busy);
+        updateStatusLabel();
+    }
+
+    /**
+     * Check if background operations are in progress.
+     * @return true if busy, otherwise false
+     */
+    public boolean isBusy() {
+        return status != null;
+    }
+
+    private void updateStatusLabel() {
+        if (status == null) {
+            statusLabel.setText("");
+            return;
+        }
+        int frame = (int)(spinnerTime / SPINNER_FRAME_TIME) % SPINNER.length();
+        if (frame == spinnerFrame) {
+            return;
+        }
+        spinnerFrame = frame;
+        statusLabel.setText(SPINNER.charAt(frame) + " " + status + "...");
+    }
+
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+        if (status != null) {
+            spinnerTime += delta;
+            updateStatusLabel();
+        }
+    }
+
     /**
      * Get the save button.
      * @return the save button
@@ -0,0 +1,116 @@
+package edu.duke.ece651.factorysim.screen.util;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Runs slow operations such as saving, loading and server round-trips off the render thread.
+ * Each task runs on its own virtual thread, and its completion or error callback is posted back to the render thread.
+ * The labels of running tasks are kept so the UI can show what is in progress.
+ */
+public class BackgroundTasks implements Closeable {
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final ExecutorService executor;
+    private final Executor callbackExecutor;
+    private final List<String> running = new CopyOnWriteArrayList<>();
+    private volatile boolean closed = false;
+
+    /**
+     * Constructs background tasks that run on virtual threads and call back on the libGDX render thread.
+     */
+    public BackgroundTasks() {
+        this(Executors.newVirtualThreadPerTaskExecutor(), (r) -> Gdx.app.postRunnable(r));
+    }
+
+    /**
+     * Constructs background tasks with custom executors.
+     *
+     * @param executor is the executor the tasks run on.
+     * @param callbackExecutor is the executor the callbacks run on.
+     */
+    public BackgroundTasks(ExecutorService executor, Executor callbackExecutor) {
+        this.executor = executor;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Runs a task in the background.
+     *
+     * @param label is a short description of the task, e.g. "Saving".
+     * @param task is the task to run.
+     * @param onSuccess is called with the result of the task on the callback executor.
+     * @param onError is called with the exception thrown by the task on the callback executor.
+     * @param <T> is the type of the task's result.
+     * @return the future of the task's result.
+     */
+    public <T> Future<T> submit(String label, Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        if (closed) {
+            throw new IllegalStateException("Background tasks are closed");
+        }
+        running.add(label);
+        return executor.submit(() -> {
+            T result;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                running.remove(label);
+                postCallback(() -> onError.accept(e));
+                throw e;
+            }
+            running.remove(label);
+            postCallback(() -> onSuccess.accept(result));
+            return result;
+        });
+    }
+
+    private void postCallback(Runnable callback) {
+        // The screen that submitted the task may be gone by the time the callback runs
+        callbackExecutor.execute(() -> {
+            if (!closed) {
+                callback.run();
+            }
+        });
+    }
+
+    /**
+     * Gets the number of tasks that are running.
+     *
+     * @return the number of running tasks.
+     */
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    /**
+     * Gets a description of the tasks in progress.
+     *
+     * @return the label of the oldest running task, followed by the number of other tasks, or null if idle.
+     */
+    public String getStatus() {
+        List<String> snapshot = List.copyOf(running);
+        if (snapshot.isEmpty()) {
+            return null;
+        }
+        return snapshot.size() == 1 ? snapshot.get(0) : snapshot.get(0) + " (+" + (snapshot.size() - 1) + ")";
+    }
+
+    /**
+     * Stops accepting tasks and waits a while for running ones, so a save in progress isn't cut off.
+     * Callbacks of tasks that finish afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+    }
+}
@@ -8,6 +8,7 @@ import com.kotcrab.vis.ui.widget.file.FileChooser.SelectionMode;
 import com.kotcrab.vis.ui.widget.file.FileChooser.Mode;
 import com.kotcrab.vis.ui.widget.file.FileTypeFilter;
 
+import edu.duke.ece651.factorysim.BinarySave;
 import edu.duke.ece651.factorysim.screen.SimulationScreen;
 
 public class FileDialogUtil {
@@ -26,7 +27,9 @@ public class FileDialogUtil {
 
         // Create and set up file type filter
         FileTypeFilter typeFilter = new FileTypeFilter(true);
-        typeFilter.addRule("Simulation files (*.json)", "json");
+        typeFilter.addRule("Simulation files (*.json, *.fsim)", "json", BinarySave.EXTENSION);
+        typeFilter.addRule("JSON saves (*.json)", "json");
+        typeFilter.addRule("Binary snapshots (*.fsim)", BinarySave.EXTENSION);
         fileChooser.setFileTypeFilter(typeFilter);
 
         // Set other chooser properties
@@ -37,13 +40,8 @@ public class FileDialogUtil {
             @Override
             public void selected(Array<FileHandle> files) {
                 if (files.size > 0) {
-                    String jsonPath = files.first().file().getAbsolutePath();
-                    try {
-                        simScreen.loadSimulation(jsonPath);
-                        System.out.println("Simulation loaded from: " + jsonPath);
-                    } catch (Exception e) {
-                        System.err.println("Failed to load simulation: " + e.getMessage());
-                    }
+                    // Loads in the background, errors are reported by the screen
+                    simScreen.loadSimulationAsync(files.first().file().getAbsolutePath());
                 }
             }
         });
@@ -57,7 +55,8 @@ public class FileDialogUtil {
         FileChooser fileChooser = new FileChooser(Mode.SAVE);
 
         FileTypeFilter typeFilter = new FileTypeFilter(true);
-        typeFilter.addRule("Simulation files (*.json)", "json");
+        typeFilter.addRule("JSON saves (*.json)", "json");
+        typeFilter.addRule("Binary snapshots (*.fsim)", BinarySave.EXTENSION);
         fileChooser.setFileTypeFilter(typeFilter);
         fileChooser.setSelectionMode(SelectionMode.FILES);
 
@@ -65,13 +64,8 @@ public class FileDialogUtil {
             @Override
             public void selected(Array<FileHandle> files) {
                 if (files.size > 0) {
-                    String jsonPath = files.first().file().getAbsolutePath();
-                    try {
-                        simScreen.saveSimulation(jsonPath);
-                        System.out.println("Simulation saved to: " + jsonPath);
-                    } catch (Exception e) {
-                        System.err.println("Failed to save simulation: " + e.getMessage());
-                    }
+                    // Saves in the background, errors are reported by the screen
+                    simScreen.saveSimulationAsync(files.first().file().getAbsolutePath());
                 }
             }
         });
@@ -0,0 +1,170 @@
+package edu.duke.ece651.factorysim.screen.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents a fixed-capacity ring buffer of log lines. Once full, appending a line evicts the oldest one,
+ * which is written to a spill file first if spilling to disk is enabled.
+ */
+public class LogBuffer implements Closeable {
+    private final String[] lines;
+    private int start = 0;
+    private int size = 0;
+    private long totalAppended = 0;
+
+    private File spillFile;
+    private Writer spillWriter;
+    private long spilledLines = 0;
+
+    /**
+     * Constructs an empty log buffer.
+     *
+     * @param capacity is the maximum number of lines kept in memory.
+     */
+    public LogBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        }
+        this.lines = new String[capacity];
+    }
+
+    /**
+     * Appends a line, evicting the oldest line if the buffer is full.
+     *
+     * @param line is the line to append.
+     */
+    public void append(String line) {
+        if (size == lines.length) {
+            spill(lines[start]);
+            lines[start] = line;
+            start = (start + 1) % lines.length;
+        } else {
+            lines[(start + size) % lines.length] = line;
+            size++;
+        }
+        totalAppended++;
+    }
+
+    /**
+     * Gets a line in the buffer.
+     *
+     * @param index is the index of the line, 0 being the oldest line kept in memory.
+     * @return the line.
+     */
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return lines[(start + index) % lines.length];
+    }
+
+    /**
+     * Gets the number of lines kept in memory.
+     *
+     * @return the number of lines.
+     */
+    public int size() { return this.size; }
+
+    /**
+     * Gets the maximum number of lines kept in memory.
+     *
+     * @return the capacity of the buffer.
+     */
+    public int getCapacity() { return this.lines.length; }
+
+    /**
+     * Gets the number of lines appended since the buffer was created, including evicted lines.
+     *
+     * @return the total number of appended lines.
+     */
+    public long getTotalAppended() { return this.totalAppended; }
+
+    /**
+     * Gets the number of evicted lines written to the spill file.
+     *
+     * @return the number of spilled lines.
+     */
+    public long getSpilledLines() { return this.spilledLines; }
+
+    /**
+     * Gets the file evicted lines are written to.
+     *
+     * @return the spill file, or null if spilling is disabled.
+     */
+    public File getSpillFile() { return this.spillFile; }
+
+    /**
+     * Removes all lines kept in memory. Lines already spilled stay in the spill file.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            lines[(start + i) % lines.length] = null;
+        }
+        start = 0;
+        size = 0;
+    }
+
+    /**
+     * Enables writing evicted lines to a file, appending to it if it already exists.
+     *
+     * @param file is the file to write evicted lines to.
+     * @throws IOException if the file cannot be opened.
+     */
+    public void enableSpill(File file) throws IOException {
+        close();
+        this.spillWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true),
+            StandardCharsets.UTF_8));
+        this.spillFile = file;
+    }
+
+    /**
+     * Flushes lines written to the spill file.
+     */
+    public void flush() {
+        if (spillWriter == null) {
+            return;
+        }
+        try {
+            spillWriter.flush();
+        } catch (IOException e) {
+            disableSpill(e);
+        }
+    }
+
+    /**
+     * Closes the spill file and disables spilling.
+     */
+    @Override
+    public void close() {
+        if (spillWriter == null) {
+            return;
+        }
+        try {
+            spillWriter.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close log spill file: " + e.getMessage());
+        }
+        spillWriter = null;
+        spillFile = null;
+    }
+
+    private void spill(String line) {
+        if (spillWriter == null) {
+            return;
+        }
+        try {
+            spillWriter.write(line);
+            spillWriter.write('\n');
+            spilledLines++;
+        } catch (IOException e) {
+            disableSpill(e);
+        }
+    }
+
+    private void disableSpill(IOException e) {
+        System.err.println("Failed to write log spill file, spilling disabled: " + e.getMessage());
+        spillWriter = null;
+        spillFile = null;
+    }
+}
@@ -1,21 +1,95 @@
 package edu.duke.ece651.factorysim.screen.util;
 
-import com.badlogic.gdx.Gdx;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import edu.duke.ece651.factorysim.Logger;
 import edu.duke.ece651.factorysim.screen.ui.LogPanel;
 
+/**
+ * Logger that queues messages from any thread and hands them to a log panel in one bulk append per frame.
+ * Messages logged beyond the per-frame budget are dropped and counted instead of queued.
+ */
 public class PanelLogger implements Logger {
+    public static final int DEFAULT_MAX_MESSAGES_PER_FRAME = 1000;
+
     private final LogPanel logPanel;
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final List<String> drained = new ArrayList<>();
+    private volatile int maxMessagesPerFrame;
+    private long lastReportedDropped = 0;
 
     public PanelLogger(LogPanel panel) {
+        this(panel, DEFAULT_MAX_MESSAGES_PER_FRAME);
+    }
+
+    public PanelLogger(LogPanel panel, int maxMessagesPerFrame) {
         this.logPanel = panel;
+        setMaxMessagesPerFrame(maxMessagesPerFrame);
     }
 
     @Override
     public void log(String message) {
-        Gdx.app.postRunnable(() -> {
-            logPanel.appendLog(message);
-        });
+        if (pending.incrementAndGet() > maxMessagesPerFrame) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(message);
+    }
+
+    /**
+     * Moves all queued messages to the log panel. Must be called once per frame on the render thread.
+     *
+     * @return the number of messages moved.
+     */
+    public int drain() {
+        String message;
+        while ((message = queue.poll()) != null) {
+            drained.add(message);
+        }
+        int count = drained.size();
+        if (count > 0) {
+            pending.addAndGet(-count);
+            logPanel.appendLogs(drained);
+            drained.clear();
+        }
+
+        long droppedCount = dropped.sum();
+        if (droppedCount != lastReportedDropped) {
+            logPanel.setDroppedCount(droppedCount);
+            lastReportedDropped = droppedCount;
+        }
+        return count;
+    }
+
+    /**
+     * Sets how many messages may be queued between two drains before further messages are dropped.
+     *
+     * @param maxMessagesPerFrame the per-frame budget, at least 1.
+     */
+    public void setMaxMessagesPerFrame(int maxMessagesPerFrame) {
+        if (maxMessagesPerFrame < 1) {
+            throw new IllegalArgumentException("Per-frame message budget must be positive, got " + maxMessagesPerFrame);
+        }
+        this.maxMessagesPerFrame = maxMessagesPerFrame;
+    }
+
+    public int getMaxMessagesPerFrame() {
+        return maxMessagesPerFrame;
+    }
+
+    /**
+     * Gets the number of messages dropped because the per-frame budget was exceeded.
+     *
+     * @return the number of dropped messages.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
     }
 }
@@ -1,6 +1,7 @@
 package edu.duke.ece651.factorysim;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -11,6 +12,18 @@ public class Actor2DTest {
         }
     }
 
+    private static class SizedActor extends Actor2D {
+        public SizedActor(float x, float y) {
+            super(x, y);
+        }
+
+        @Override
+        public float getBoundsWidth() { return 16f; }
+
+        @Override
+        public float getBoundsHeight() { return 32f; }
+    }
+
     @Test
     public void test_position() {
         Actor2D actor = new TestActor(5f, 10f);
@@ -23,4 +36,16 @@ public class Actor2DTest {
         actor.position.y -= 2f;
         assertEquals(8f, actor.position.y, 0.0001f);
     }
+
+    @Test
+    public void test_isVisible() {
+        Rectangle view = new Rectangle(0f, 0f, 100f, 100f);
+        assertTrue(new SizedActor(50f, 50f).isVisible(view));
+        assertTrue(new SizedActor(-10f, -20f).isVisible(view));
+        assertFalse(new SizedActor(-20f, 50f).isVisible(view));
+        assertFalse(new SizedActor(50f, -40f).isVisible(view));
+        assertFalse(new SizedActor(101f, 50f).isVisible(view));
+        assertFalse(new SizedActor(50f, 101f).isVisible(view));
+        assertTrue(new TestActor(100f, 100f).isVisible(view));
+    }
 }
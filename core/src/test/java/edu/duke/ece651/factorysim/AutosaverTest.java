@@ -0,0 +1,105 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import static edu.duke.ece651.factorysim.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutosaverTest {
+    @Test
+    public void test_snapshot_and_recover(@TempDir Path dir) throws IOException {
+        Simulation sim = smallFactory(3);
+        List<CommandJournal> journals = new ArrayList<>();
+        GameWorld world = mockWorld(sim, journals);
+        Autosaver autosaver = new Autosaver(world, dir, new Autosaver.Config(Duration.ZERO, 100));
+        assertFalse(autosaver.hasRecovery());
+
+        autosaver.snapshot();
+        assertEquals(1, autosaver.getSequence());
+        assertTrue(Files.exists(dir.resolve("snapshot-1.fsim")));
+        assertEquals(1, journals.size());
+
+        // Stepping is marked in the journal, and recorded commands are replayed on top of the snapshot
+        sim.step(5);
+        autosaver.tick();
+        journals.get(0).record(new Command.BuildDronePort(sim.getCurrentTime(), "Port", 0, 0));
+        sim.step(2);
+        autosaver.tick();
+
+        Simulation recovered = new Autosaver(world, dir, new Autosaver.Config(Duration.ZERO, 100))
+            .recover(silentLogger());
+        assertEquals(sim.getCurrentTime(), recovered.getCurrentTime());
+        assertNotNull(CommandReplayer.findBuilding(recovered.getWorld(), "Port"));
+    }
+
+    @Test
+    public void test_tick_snapshots_when_due(@TempDir Path dir) throws IOException {
+        Simulation sim = smallFactory(3);
+        List<CommandJournal> journals = new ArrayList<>();
+        GameWorld world = mockWorld(sim, journals);
+        Autosaver autosaver = new Autosaver(world, dir, new Autosaver.Config(Duration.ZERO, 10));
+        autosaver.tick();
+        assertEquals(1, autosaver.getSequence());
+
+        sim.step(9);
+        autosaver.tick();
+        assertEquals(1, autosaver.getSequence());
+
+        sim.step(1);
+        autosaver.tick();
+        assertEquals(2, autosaver.getSequence());
+        assertFalse(Files.exists(dir.resolve("snapshot-1.fsim")));
+        assertFalse(Files.exists(dir.resolve("journal-1.fsj")));
+        assertTrue(Files.exists(dir.resolve("journal-2.fsj")));
+        assertEquals(1, journals.size());
+
+        // Another simulation was loaded, so the journal was detached
+        journals.clear();
+        autosaver.tick();
+        assertEquals(3, autosaver.getSequence());
+    }
+
+    @Test
+    public void test_previous_session_kept_until_snapshot(@TempDir Path dir) throws IOException {
+        Simulation sim = smallFactory(3);
+        new Autosaver(mockWorld(sim, new ArrayList<>()), dir, new Autosaver.Config(Duration.ofMinutes(1), 0)).snapshot();
+
+        Autosaver next = new Autosaver(mockWorld(sim, new ArrayList<>()), dir, new Autosaver.Config(Duration.ofMinutes(1), 0));
+        assertTrue(next.hasRecovery());
+        next.snapshot();
+        assertEquals(2, next.getSequence());
+        assertFalse(Files.exists(dir.resolve("snapshot-1.fsim")));
+    }
+
+    @Test
+    public void test_close_deletes(@TempDir Path dir) throws IOException {
+        Simulation sim = smallFactory(3);
+        List<CommandJournal> journals = new ArrayList<>();
+        Autosaver autosaver = new Autosaver(mockWorld(sim, journals), dir,
+            new Autosaver.Config(Duration.ofMinutes(1), 0));
+        autosaver.snapshot();
+        autosaver.close();
+        assertTrue(journals.isEmpty());
+        assertFalse(autosaver.hasRecovery());
+        assertThrows(IOException.class, () -> autosaver.recover(silentLogger()));
+
+        // Closed autosavers don't write anymore
+        autosaver.snapshot();
+        autosaver.close();
+        assertFalse(autosaver.hasRecovery());
+    }
+
+    @Test
+    public void test_config() {
+        assertFalse(new Autosaver.Config(Duration.ZERO, 0).isEnabled());
+        assertTrue(new Autosaver.Config(Duration.ZERO, 5).isEnabled());
+        assertThrows(IllegalArgumentException.class, () -> new Autosaver.Config(Duration.ofSeconds(-1), 0));
+        assertThrows(IllegalArgumentException.class, () -> new Autosaver.Config(Duration.ZERO, -1));
+    }
+}
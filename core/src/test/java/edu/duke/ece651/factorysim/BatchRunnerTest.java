@@ -0,0 +1,84 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BatchRunnerTest {
+    @Test
+    public void test_run_chunks() {
+        Simulation sim = mock(Simulation.class, RETURNS_DEEP_STUBS);
+        when(sim.getCurrentTime()).thenReturn(10, 2510);
+        BatchRunner runner = new BatchRunner(sim, 1000);
+        BatchRunner.Report report = runner.run("a.json", 2500);
+        verify(sim, times(2)).step(1000);
+        verify(sim).step(500);
+        verify(sim.getDeliverySchedule()).subscribe(runner);
+        verify(sim.getDeliverySchedule()).unsubscribe(runner);
+        assertEquals(2500, report.steps());
+        assertFalse(report.finished());
+        assertNull(report.error());
+        assertTrue(report.wallNanos() >= 0);
+        assertTrue(report.peakHeapBytes() > 0);
+    }
+
+    @Test
+    public void test_runUntilFinished_countsDeliveries() {
+        Simulation sim = mock(Simulation.class, RETURNS_DEEP_STUBS);
+        BatchRunner runner = new BatchRunner(sim);
+        doAnswer((invocation) -> {
+            runner.onDeliveryAdded(null);
+            runner.onDeliveryAdded(null);
+            runner.onDeliveryFinished(null);
+            return null;
+        }).when(sim).finish();
+        BatchRunner.Report report = runner.runUntilFinished("a.json");
+        assertTrue(report.finished());
+        assertEquals(2, report.deliveriesStarted());
+        assertEquals(1, report.deliveriesCompleted());
+    }
+
+    @Test
+    public void test_run_error() {
+        Simulation sim = mock(Simulation.class, RETURNS_DEEP_STUBS);
+        doThrow(new IllegalStateException("boom")).when(sim).step(anyInt());
+        BatchRunner.Report report = new BatchRunner(sim).run("a.json", 5);
+        assertEquals("boom", report.error());
+        assertTrue(report.toJson().contains("\"error\":\"boom\""));
+    }
+
+    @Test
+    public void test_invalid_chunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(mock(Simulation.class), 0));
+    }
+
+    @Test
+    public void test_report_toJson() {
+        BatchRunner.Report report = new BatchRunner.Report("dir\\\"a\".json", 0, 100, 2_000_000_000L, 1024,
+            3, 12, 5, 4, false, null);
+        assertEquals(50.0, report.stepsPerSecond(), 1e-9);
+        assertEquals("{\"source\":\"dir\\\\\\\"a\\\".json\",\"startStep\":0,\"endStep\":100,\"steps\":100," +
+            "\"wallMillis\":2000.000,\"stepsPerSecond\":50.000,\"peakHeapBytes\":1024,\"gcCount\":3," +
+            "\"gcMillis\":12,\"deliveriesStarted\":5,\"deliveriesCompleted\":4,\"finished\":false," +
+            "\"error\":null}", report.toJson());
+    }
+
+    @Test
+    public void test_runFromArgs_invalid() {
+        assertEquals(1, BatchRunner.runFromArgs(new String[] {}));
+        assertEquals(1, BatchRunner.runFromArgs(new String[] {"a.json", "-steps"}));
+        assertEquals(1, BatchRunner.runFromArgs(new String[] {"a.json", "-steps", "0"}));
+        assertEquals(1, BatchRunner.runFromArgs(new String[] {"a.json", "b.json"}));
+    }
+
+    @Test
+    public void test_runFromArgs_binary(@TempDir Path dir) {
+        // Generated binary snapshots can be run like JSON saves
+        String savePath = dir.resolve("generated.fsim").toString();
+        assertEquals(0, FactoryGenerator.runFromArgs(new String[] {savePath, "-buildings", "5", "-seed", "1"}));
+        String reportPath = dir.resolve("report.json").toString();
+        assertEquals(0, BatchRunner.runFromArgs(new String[] {savePath, "-steps", "5", "-report", reportPath}));
+    }
+}
@@ -0,0 +1,104 @@
+package edu.duke.ece651.factorysim;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import org.junit.jupiter.api.Test;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinarySaveTest {
+    private static final String JSON = "{\"name\":\"door \\\"A\\\"\\n\",\"count\":-3,\"rate\":0.25,\"on\":true," +
+        "\"off\":false,\"none\":null,\"flows\":[0,1,-1,300000,0],\"mixed\":[1,\"door \\\"A\\\"\\n\",2.5]," +
+        "\"empty\":[],\"nested\":{\"buildings\":[{\"name\":\"door_Factory\"},{\"name\":\"door_Factory\"}]}}";
+
+    private static byte[] encode(String json, boolean compress) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySave.encode(new StringReader(json), out, compress);
+        return out.toByteArray();
+    }
+
+    private static String decode(byte[] bytes) throws IOException {
+        StringWriter out = new StringWriter();
+        BinarySave.decode(new ByteArrayInputStream(bytes), out);
+        return out.toString();
+    }
+
+    private static String normalize(String json) {
+        return new JsonReader().parse(json).toJson(JsonValue.OutputType.json);
+    }
+
+    @Test
+    public void test_roundTrip() throws IOException {
+        assertEquals(JSON, decode(encode(JSON, false)));
+        assertEquals(JSON, decode(encode(JSON, true)));
+    }
+
+    @Test
+    public void test_roundTrip_whitespace() throws IOException {
+        String pretty = "{\n  \"a\" : [ 1, 2 ],\n  \"b\" : { \"c\" : \"d\" }\n}\n";
+        assertEquals(normalize(pretty), normalize(decode(encode(pretty, true))));
+    }
+
+    @Test
+    public void test_compact() throws IOException {
+        // Repeated names and flows compress far below the JSON size
+        StringBuilder sb = new StringBuilder("{\"buildings\":[");
+        for (int i = 0; i < 1000; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"name\":\"mine\",\"flows\":[0,1,0,-1]}");
+        }
+        String json = sb.append("]}").toString();
+        byte[] binary = encode(json, true);
+        assertTrue(binary.length * 10 < json.length());
+        assertEquals(json, decode(binary));
+    }
+
+    @Test
+    public void test_decode_invalid() throws IOException {
+        assertThrows(IOException.class, () -> decode("{}".getBytes(StandardCharsets.UTF_8)));
+
+        byte[] binary = encode(JSON, false);
+        byte[] wrongVersion = binary.clone();
+        wrongVersion[5] = 99;
+        IOException e = assertThrows(IOException.class, () -> decode(wrongVersion));
+        assertTrue(e.getMessage().contains("version"));
+
+        byte[] truncated = java.util.Arrays.copyOf(binary, binary.length - 3);
+        assertThrows(IOException.class, () -> decode(truncated));
+    }
+
+    @Test
+    public void test_isBinary() {
+        assertTrue(BinarySave.isBinary("a/b.fsim"));
+        assertTrue(BinarySave.isBinary("B.FSIM"));
+        assertFalse(BinarySave.isBinary("a.json"));
+    }
+
+    @Test
+    public void test_convert() throws IOException {
+        Path dir = Files.createTempDirectory("binarysave");
+        Path json = dir.resolve("a.json");
+        Path binary = dir.resolve("a.fsim");
+        Path back = dir.resolve("b.json");
+        Files.writeString(json, JSON);
+        BinarySave.convert(json.toString(), binary.toString());
+        BinarySave.convert(binary.toString(), back.toString());
+        assertEquals(JSON, Files.readString(back));
+        assertEquals(0, BinarySave.runFromArgs(new String[] {json.toString(), binary.toString()}));
+        assertEquals(1, BinarySave.runFromArgs(new String[] {json.toString()}));
+        assertEquals(2, BinarySave.runFromArgs(new String[] {dir.resolve("missing.fsim").toString(), back.toString()}));
+    }
+
+    @Test
+    public void test_simulation_roundTrip() throws IOException {
+        Logger logger = new StreamLogger(new PrintStream(OutputStream.nullOutputStream()));
+        Simulation sim = new FactoryGenerator(new FactoryGenerator.Config(4, 4, 2, 1, 2, 0.5, 5)).generate(logger);
+        sim.step(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimulationIO.saveBinary(sim, out);
+        Simulation loaded = SimulationIO.loadBinary(new ByteArrayInputStream(out.toByteArray()), logger);
+        assertEquals(normalize(sim.toJson()), normalize(loaded.toJson()));
+    }
+}
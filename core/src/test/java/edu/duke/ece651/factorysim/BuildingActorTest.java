@@ -4,6 +4,7 @@ import com.badlogic.gdx.*;
 import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.graphics.g2d.*;
 import org.junit.jupiter.api.*;
+import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -12,7 +13,7 @@ public class BuildingActorTest {
     private Building mockBuilding;
     private Animation<TextureRegion> mockAnimation;
     private TextureRegion mockFrame;
-    private Texture mockTexture;
+    private TextureRegion mockTexture;
     private SpriteBatch mockBatch;
 
     @BeforeEach
@@ -20,7 +21,7 @@ public class BuildingActorTest {
         mockBuilding = mock(Building.class);
         mockAnimation = mock(Animation.class);
         mockFrame = mock(TextureRegion.class);
-        mockTexture = mock(Texture.class);
+        mockTexture = mock(TextureRegion.class);
         mockBatch = mock(SpriteBatch.class);
 
         Graphics mockGraphics = mock(Graphics.class);
@@ -47,4 +48,17 @@ public class BuildingActorTest {
         verify(mockAnimation).getKeyFrame(anyFloat(), eq(true));
         verify(mockBatch).draw(mockFrame, 5f, 10f);
     }
+
+    @Test
+    public void test_draw_snapshot() {
+        when(mockAnimation.getKeyFrame(anyFloat(), eq(true))).thenReturn(mockFrame);
+        when(mockBuilding.isPendingRemoval()).thenReturn(true);
+
+        // Whether the building is pending removal is read from the snapshot
+        BuildingActor actor = new BuildingActor(mockBuilding, mockAnimation, mockTexture, 5f, 10f);
+        actor.draw(mockBatch, new SimulationSnapshot(0, Map.of(), 0, 0, new int[0], 1, Set.of()));
+        verify(mockBatch, never()).draw(mockTexture, 5f, 10f);
+        actor.draw(mockBatch, new SimulationSnapshot(0, Map.of(), 0, 0, new int[0], 1, Set.of(mockBuilding)));
+        verify(mockBatch).draw(mockTexture, 5f, 10f);
+    }
 }
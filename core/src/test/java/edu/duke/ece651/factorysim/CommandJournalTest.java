@@ -0,0 +1,122 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandJournalTest {
+    private static final List<Command> COMMANDS = List.of(
+        new Command.BuildMine(3, "iron_Mine", "iron", 4, -5),
+        new Command.BuildStorage(3, "iron_Storage", "iron", 100, 1.5, 6, 5),
+        new Command.BuildWasteDisposal(4, "Dump", 0, 0, List.of(new Command.Waste("slag", 50, 2, 3))),
+        new Command.ConnectPath(5, "iron_Mine", "iron_Storage"),
+        new Command.SetPolicy(7, "request", "fifo", "*"),
+        new Command.Step(7, 10),
+        new Command.Step(20, 0),
+        new Command.Finish(20));
+
+    private static byte[] write(String initialState, List<Command> commands, CommandJournal.End end)
+        throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CommandJournal journal = new CommandJournal(out);
+        journal.begin(initialState);
+        for (Command command : commands) {
+            journal.record(command);
+        }
+        if (end != null) {
+            journal.end(end);
+        } else {
+            journal.close();
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void test_record_read() throws IOException {
+        String hash = CommandJournal.stateHash("{}");
+        byte[] bytes = write(null, COMMANDS, new CommandJournal.End(25, hash));
+        CommandJournal.Contents contents = CommandJournal.read(new ByteArrayInputStream(bytes));
+        assertNull(contents.initialState());
+        assertEquals(COMMANDS, contents.commands());
+        assertEquals(new CommandJournal.End(25, hash), contents.end());
+    }
+
+    @Test
+    public void test_initial_state() throws IOException {
+        byte[] bytes = write("{\"step\":3,\"name\":\"a\"}", List.of(), null);
+        CommandJournal.Contents contents = CommandJournal.read(new ByteArrayInputStream(bytes));
+        assertEquals("{\"step\":3,\"name\":\"a\"}", contents.initialState());
+        assertTrue(contents.commands().isEmpty());
+        assertNull(contents.end());
+    }
+
+    @Test
+    public void test_record_before_begin() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CommandJournal journal = new CommandJournal(out);
+        journal.record(COMMANDS.get(0));
+        assertEquals(0, out.size());
+        journal.begin(null);
+        journal.record(COMMANDS.get(1));
+        assertEquals(2, journal.getCount());
+        assertThrows(IllegalStateException.class, () -> journal.begin(null));
+        journal.close();
+        assertEquals(COMMANDS.subList(0, 2),
+            CommandJournal.read(new ByteArrayInputStream(out.toByteArray())).commands());
+    }
+
+    @Test
+    public void test_strings_written_once() throws IOException {
+        List<Command> repeated = List.of(
+            new Command.ConnectPath(0, "a_very_long_building_name", "another_very_long_building_name"),
+            new Command.ConnectPath(0, "a_very_long_building_name", "another_very_long_building_name"));
+        int once = write(null, repeated.subList(0, 1), null).length;
+        int twice = write(null, repeated, null).length;
+        assertTrue(twice - once < 8);
+    }
+
+    @Test
+    public void test_read_truncated() throws IOException {
+        byte[] bytes = write(null, COMMANDS, null);
+        CommandJournal.Contents contents = CommandJournal.read(new ByteArrayInputStream(Arrays.copyOf(bytes,
+            bytes.length - 1)));
+        assertEquals(COMMANDS.subList(0, COMMANDS.size() - 1), contents.commands());
+
+        byte[] corrupt = Arrays.copyOf(bytes, bytes.length + 1);
+        corrupt[bytes.length] = 99;
+        assertThrows(IOException.class, () -> CommandJournal.read(new ByteArrayInputStream(corrupt)));
+        assertThrows(IOException.class, () -> CommandJournal.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})));
+    }
+
+    @Test
+    public void test_write_failure() throws IOException {
+        AtomicBoolean full = new AtomicBoolean(false);
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                if (full.get()) {
+                    throw new IOException("disk full");
+                }
+            }
+        };
+        CommandJournal journal = new CommandJournal(failing);
+        journal.begin(null);
+        journal.record(COMMANDS.get(0));
+        assertFalse(journal.hasFailed());
+        full.set(true);
+        journal.record(COMMANDS.get(0));
+        assertTrue(journal.hasFailed());
+        journal.close();
+        journal.record(COMMANDS.get(1));
+    }
+
+    @Test
+    public void test_state_hash() {
+        assertEquals(64, CommandJournal.stateHash("{}").length());
+        assertEquals(CommandJournal.stateHash("{}"), CommandJournal.stateHash("{}"));
+        assertNotEquals(CommandJournal.stateHash("{}"), CommandJournal.stateHash("[]"));
+    }
+}
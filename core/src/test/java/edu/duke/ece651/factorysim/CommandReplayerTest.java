@@ -0,0 +1,104 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.Path;
+import java.util.List;
+import static edu.duke.ece651.factorysim.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandReplayerTest {
+    @Test
+    public void test_replay_steps_and_builds() throws IOException {
+        Simulation sim = smallFactory(7);
+        int start = sim.getCurrentTime();
+        int failed = CommandReplayer.replay(sim, List.of(
+            new Command.BuildDronePort(start + 2, "Port", 0, 0),
+            new Command.Step(start + 2, 3),
+            new Command.Step(start + 7, 0)));
+        assertEquals(0, failed);
+        assertEquals(start + 7, sim.getCurrentTime());
+        assertEquals(new Coordinate(0, 0), CommandReplayer.findBuilding(sim.getWorld(), "Port").getLocation());
+    }
+
+    @Test
+    public void test_replay_deterministic() throws IOException {
+        List<Command> commands = List.of(
+            new Command.BuildDronePort(1, "Port", 0, 0),
+            new Command.SetPolicy(4, "request", "fifo", "*"),
+            new Command.Step(4, 6));
+        Simulation a = smallFactory(7);
+        Simulation b = smallFactory(7);
+        CommandReplayer.replay(a, commands);
+        CommandReplayer.replay(b, commands);
+        assertEquals(a.toJson(), b.toJson());
+    }
+
+    @Test
+    public void test_replay_failures_skipped() throws IOException {
+        Simulation sim = smallFactory(7);
+        int failed = CommandReplayer.replay(sim, List.of(
+            new Command.RemoveBuilding(0, "missing"),
+            new Command.ConnectPath(0, "missing", "Port"),
+            new Command.Step(3, 0)));
+        assertEquals(2, failed);
+        assertEquals(3, sim.getCurrentTime());
+    }
+
+    @Test
+    public void test_run_matches_recording() throws IOException {
+        Simulation recorded = smallFactory(7);
+        String initialState = recorded.toJson();
+        List<Command> commands = List.of(
+            new Command.BuildDronePort(2, "Port", 0, 0),
+            new Command.Step(2, 5));
+        CommandReplayer.replay(recorded, commands);
+        recorded.step(3);
+        String hash = CommandJournal.stateHash(recorded.toJson());
+
+        CommandReplayer.Report report = CommandReplayer.run("a.fsj", new CommandJournal.Contents(initialState,
+            commands, new CommandJournal.End(recorded.getCurrentTime(), hash)), silentLogger());
+        assertTrue(report.matches());
+        assertEquals(2, report.commands());
+        assertEquals(recorded.getCurrentTime(), report.endStep());
+        assertTrue(report.toJson().contains("\"matches\":true"));
+
+        // A different final state doesn't match
+        CommandReplayer.Report differs = CommandReplayer.run("a.fsj", new CommandJournal.Contents(initialState,
+            commands, new CommandJournal.End(recorded.getCurrentTime() + 1, hash)), silentLogger());
+        assertFalse(differs.matches());
+        assertNull(differs.error());
+    }
+
+    @Test
+    public void test_run_without_initial_state() {
+        CommandReplayer.Report report = CommandReplayer.run("a.fsj",
+            new CommandJournal.Contents(null, List.of(), null), silentLogger());
+        assertFalse(report.matches());
+        assertNotNull(report.error());
+    }
+
+    @Test
+    public void test_runFromArgs(@TempDir Path dir) throws IOException {
+        Simulation sim = smallFactory(7);
+        Path journalPath = dir.resolve("session.fsj");
+        try (CommandJournal journal = new CommandJournal(Files.newOutputStream(journalPath))) {
+            journal.begin(sim.toJson());
+            journal.record(new Command.Step(sim.getCurrentTime(), 4));
+            sim.step(4);
+            journal.end(new CommandJournal.End(sim.getCurrentTime(), CommandJournal.stateHash(sim.toJson())));
+        }
+        Path reportPath = dir.resolve("report.json");
+        assertEquals(0, CommandReplayer.runFromArgs(new String[] {journalPath.toString(), "-report",
+            reportPath.toString()}));
+        assertTrue(Files.readString(reportPath).contains("\"matches\":true"));
+
+        assertEquals(1, CommandReplayer.runFromArgs(new String[] {}));
+        assertEquals(1, CommandReplayer.runFromArgs(new String[] {"a.fsj", "-report"}));
+        assertEquals(1, CommandReplayer.runFromArgs(new String[] {"a.fsj", "b.fsj"}));
+        assertEquals(2, CommandReplayer.runFromArgs(new String[] {dir.resolve("missing.fsj").toString(), "-report",
+            reportPath.toString()}));
+    }
+}
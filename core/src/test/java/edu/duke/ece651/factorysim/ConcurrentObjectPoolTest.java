@@ -0,0 +1,80 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentObjectPoolTest {
+    private static class Item implements PooledObject {
+        @Override
+        public void onBorrowed() { }
+
+        @Override
+        public void onReleased() { }
+    }
+
+    @Test
+    public void test_borrow_release() {
+        ConcurrentObjectPool<Item> pool = new ConcurrentObjectPool<>(Item::new, 3, 1);
+        assertEquals(4, pool.getStripeCount());
+        assertEquals(1, pool.getMaxSizePerStripe());
+
+        Item a = pool.borrow();
+        Item b = pool.borrow();
+        assertEquals(2, pool.getMisses());
+
+        pool.release(a);
+        pool.release(b);
+        assertEquals(1, pool.size());
+        assertEquals(2, pool.getReleases());
+        assertEquals(1, pool.getDiscarded());
+
+        assertSame(a, pool.borrow());
+        assertEquals(1, pool.getHits());
+        assertEquals(3, pool.getBorrows());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentObjectPool<>(Item::new, 0, 1));
+    }
+
+    @Test
+    public void test_steal() throws Exception {
+        ConcurrentObjectPool<Item> pool = new ConcurrentObjectPool<>(Item::new, 8, ObjectPool.UNBOUNDED);
+        Item item = new Item();
+        Thread releaser = new Thread(() -> pool.release(item));
+        releaser.start();
+        releaser.join();
+
+        // Whichever stripe the other thread used, the object is found
+        assertSame(item, pool.borrow());
+        assertEquals(1, pool.getHits());
+    }
+
+    @Test
+    public void test_contended() throws Exception {
+        ConcurrentObjectPool<Item> pool = new ConcurrentObjectPool<>(Item::new);
+        int threads = 4;
+        int iterations = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Set<Item> borrowed = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    Item item = pool.borrow();
+                    // An object must never be handed to two threads at once
+                    assertTrue(borrowed.add(item));
+                    borrowed.remove(item);
+                    pool.release(item);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(threads * iterations, pool.getBorrows());
+        assertEquals(threads * iterations, pool.getReleases());
+        assertEquals(pool.getMisses(), pool.size());
+    }
+}
@@ -0,0 +1,71 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashSet;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrossTileSetTest {
+    private static Set<Integer> rowXs(CrossTileSet set, int y) {
+        Set<Integer> xs = new HashSet<>();
+        for (int i = 0; i < set.getRowSize(y); i++) {
+            xs.add(set.getX(y, i));
+        }
+        return xs;
+    }
+
+    @Test
+    public void test_add_refCount() {
+        CrossTileSet set = new CrossTileSet(4, 3);
+        Coordinate c = new Coordinate(2, 1);
+        assertTrue(set.add(c));
+        assertFalse(set.add(c));
+        assertEquals(2, set.getCount(c));
+        assertEquals(1, set.size());
+        assertEquals(1, set.getRowSize(1));
+        assertEquals(2, set.getX(1, 0));
+
+        // The shared tile stays until the last reference is removed
+        assertFalse(set.remove(c));
+        assertEquals(1, set.size());
+        assertTrue(set.remove(c));
+        assertEquals(0, set.size());
+        assertEquals(0, set.getRowSize(1));
+        assertFalse(set.remove(c));
+    }
+
+    @Test
+    public void test_rows() {
+        CrossTileSet set = new CrossTileSet(4, 3);
+        set.add(new Coordinate(0, 2));
+        set.add(new Coordinate(1, 2));
+        set.add(new Coordinate(3, 2));
+        set.add(new Coordinate(1, 0));
+        assertEquals(Set.of(0, 1, 3), rowXs(set, 2));
+        assertEquals(Set.of(1), rowXs(set, 0));
+        assertEquals(0, set.getRowSize(1));
+
+        // Removing from the middle of a row keeps the others reachable
+        set.remove(new Coordinate(0, 2));
+        assertEquals(Set.of(1, 3), rowXs(set, 2));
+        set.remove(new Coordinate(3, 2));
+        assertEquals(Set.of(1), rowXs(set, 2));
+        set.add(new Coordinate(2, 2));
+        assertEquals(Set.of(1, 2), rowXs(set, 2));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void test_outOfBounds_reset() {
+        CrossTileSet set = new CrossTileSet(2, 2);
+        assertFalse(set.add(new Coordinate(2, 0)));
+        assertFalse(set.remove(new Coordinate(-1, 0)));
+        assertEquals(0, set.getCount(new Coordinate(5, 5)));
+
+        set.add(new Coordinate(1, 1));
+        set.reset(3, 3);
+        assertEquals(0, set.size());
+        assertEquals(3, set.getHeight());
+        assertEquals(0, set.getCount(new Coordinate(1, 1)));
+    }
+}
@@ -0,0 +1,33 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CullingStatsTest {
+    @Test
+    public void test_record() {
+        CullingStats stats = new CullingStats();
+        stats.record(CullingStats.ActorType.BUILDING, true);
+        stats.record(CullingStats.ActorType.BUILDING, true);
+        stats.record(CullingStats.ActorType.BUILDING, false);
+        stats.record(CullingStats.ActorType.PATH, false);
+
+        assertEquals(2, stats.getVisible(CullingStats.ActorType.BUILDING));
+        assertEquals(1, stats.getCulled(CullingStats.ActorType.BUILDING));
+        assertEquals(0, stats.getVisible(CullingStats.ActorType.PATH));
+        assertEquals(1, stats.getCulled(CullingStats.ActorType.PATH));
+        assertEquals(2, stats.getTotalVisible());
+        assertEquals(2, stats.getTotalCulled());
+    }
+
+    @Test
+    public void test_reset() {
+        CullingStats stats = new CullingStats();
+        stats.record(CullingStats.ActorType.DELIVERY, true);
+        stats.record(CullingStats.ActorType.DRONE_DELIVERY, false);
+        stats.reset();
+
+        assertEquals(0, stats.getTotalVisible());
+        assertEquals(0, stats.getTotalCulled());
+    }
+}
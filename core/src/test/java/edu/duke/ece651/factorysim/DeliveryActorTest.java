@@ -0,0 +1,36 @@
+package edu.duke.ece651.factorysim;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DeliveryActorTest {
+    private final CoordinateMapper coordinateToWorld = (c, out) -> out.set(c.getX() * 10f, c.getY() * 10f);
+
+    @Test
+    public void test_track_reuse() {
+        DeliveryActor actor = new DeliveryActor(mock(TextureRegion.class), coordinateToWorld);
+        assertNull(actor.getDelivery());
+
+        Delivery first = mock(Delivery.class);
+        when(first.getCurrentCoordinate()).thenReturn(new Coordinate(1, 2));
+        actor.track(first);
+        assertSame(first, actor.getDelivery());
+        assertEquals(new Vector2(10f, 20f), actor.position);
+
+        actor.update(1f, 1f, new Coordinate(3, 2));
+        assertEquals(new Vector2(30f, 20f), actor.position);
+
+        actor.onReleased();
+        assertNull(actor.getDelivery());
+        assertNull(actor.getCoordinate());
+
+        Delivery second = mock(Delivery.class);
+        when(second.getCurrentCoordinate()).thenReturn(new Coordinate(0, 0));
+        actor.track(second);
+        assertSame(second, actor.getDelivery());
+        assertEquals(new Vector2(0f, 0f), actor.position);
+    }
+}
@@ -0,0 +1,64 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import java.io.*;
+import java.util.*;
+import static edu.duke.ece651.factorysim.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FactoryGeneratorTest {
+    @Test
+    public void test_config() {
+        FactoryGenerator.Config config = FactoryGenerator.Config.ofSize(100, 1);
+        assertEquals(100, config.buildings());
+        assertEquals(30, config.mines());
+        assertEquals(50, config.factories());
+        assertEquals(1, FactoryGenerator.Config.ofSize(0, 1).mines());
+        assertThrows(IllegalArgumentException.class, () -> new FactoryGenerator.Config(0, 1, 1, 1, 1, 0.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new FactoryGenerator.Config(1, 1, 1, 1, 0, 0.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new FactoryGenerator.Config(1, 1, 1, 1, 1, 1.5, 0));
+    }
+
+    @Test
+    public void test_generateFormula_depth() {
+        FactoryGenerator.Config config = new FactoryGenerator.Config(10, 20, 0, 0, 4, 0.5, 42);
+        FactoryGenerator.Formula formula = new FactoryGenerator(config).generateFormula();
+        assertEquals(5, formula.levels.size());
+        assertEquals(4, formula.levels.get(0).size());
+        for (int level = 1; level < formula.levels.size(); level++) {
+            List<String> below = formula.levels.get(level - 1);
+            for (String item : formula.levels.get(level)) {
+                // Every item uses an item of the level right below, so the depth is exact
+                Set<String> ingredients = formula.ingredients.get(item).keySet();
+                assertTrue(ingredients.stream().anyMatch(below::contains));
+            }
+        }
+        for (String raw : formula.levels.get(0)) {
+            assertTrue(formula.ingredients.get(raw).isEmpty());
+        }
+        assertTrue(formula.toJson().contains("\"output\": \"item_4_0\""));
+    }
+
+    @Test
+    public void test_generate_reproducible() throws IOException {
+        FactoryGenerator.Config config = new FactoryGenerator.Config(6, 8, 3, 2, 2, 0.5, 7);
+        Simulation first = new FactoryGenerator(config).generate(silentLogger());
+        Simulation second = new FactoryGenerator(config).generate(silentLogger());
+        assertEquals(config.buildings(), first.getWorld().getBuildings().size());
+        assertEquals(first.toJson(), second.toJson());
+
+        long connected = first.getWorld().getBuildings().stream()
+            .filter((b) -> !b.getSources().isEmpty())
+            .count();
+        assertTrue(connected > 0);
+    }
+
+    @Test
+    public void test_runFromArgs_invalid() {
+        assertEquals(1, FactoryGenerator.runFromArgs(new String[] {}));
+        assertEquals(1, FactoryGenerator.runFromArgs(new String[] {"a.json", "-depth"}));
+        assertEquals(1, FactoryGenerator.runFromArgs(new String[] {"a.json", "-depth", "0"}));
+        assertEquals(1, FactoryGenerator.runFromArgs(new String[] {"a.json", "-density", "x"}));
+        assertEquals(1, FactoryGenerator.runFromArgs(new String[] {"a.json", "-buidings", "10"}));
+    }
+}
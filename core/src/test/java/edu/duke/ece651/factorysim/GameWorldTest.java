@@ -0,0 +1,84 @@
+package edu.duke.ece651.factorysim;
+
+import com.badlogic.gdx.*;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import static edu.duke.ece651.factorysim.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class GameWorldTest {
+    private static HeadlessApplication application;
+
+    @BeforeAll
+    public static void setup() {
+        application = new HeadlessApplication(new ApplicationAdapter() { });
+
+        // Mock GL that reports every shader as compiled and linked, so the game world can create its sprite batch
+        GL20 gl = mock(GL20.class);
+        when(gl.glCreateShader(anyInt())).thenReturn(1);
+        when(gl.glCreateProgram()).thenReturn(1);
+        doAnswer((invocation) -> {
+            int status = (int)invocation.getArgument(1) == GL20.GL_COMPILE_STATUS ? 1 : 0;
+            ((IntBuffer)invocation.getArgument(2)).put(0, status);
+            return null;
+        }).when(gl).glGetShaderiv(anyInt(), anyInt(), any(IntBuffer.class));
+        doAnswer((invocation) -> {
+            int status = (int)invocation.getArgument(1) == GL20.GL_LINK_STATUS ? 1 : 0;
+            ((IntBuffer)invocation.getArgument(2)).put(0, status);
+            return null;
+        }).when(gl).glGetProgramiv(anyInt(), anyInt(), any(IntBuffer.class));
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+    }
+
+    @AfterAll
+    public static void teardown() {
+        application.exit();
+    }
+
+    @Test
+    public void test_recording_replays(@TempDir Path dir) throws IOException {
+        GameWorld world = new GameWorld(13, 13, 16, silentLogger(), null, 0f, 0f);
+        try {
+            world.setSimulation(smallFactory(9));
+            SessionRecorder recorder = new SessionRecorder(world, dir);
+            Path path = recorder.start();
+
+            // Mine a raw resource into a new storage, through the same entry points as the building phases
+            Recipe miningRecipe = null;
+            for (Recipe recipe : world.getSim().getWorld().getRecipes()) {
+                if (recipe.getIngredients().isEmpty()) {
+                    miningRecipe = recipe;
+                    break;
+                }
+            }
+            assertNotNull(miningRecipe);
+            BuildingActor mine = world.buildMine("Mine", miningRecipe, new Coordinate(0, 0));
+            BuildingActor storage = world.buildStorage("Storage", miningRecipe.getOutput(), 10, 1,
+                new Coordinate(12, 12));
+            world.connectPath(mine, storage);
+            world.step(5);
+
+            // Removing a connected building disconnects its paths when it's fully removed
+            BuildingActor spare = world.buildMine("Spare", miningRecipe, new Coordinate(12, 0));
+            world.connectPath(spare, storage);
+            world.removeBuilding(spare);
+            world.removeBuilding(mine);
+            world.step(20);
+            recorder.stop();
+
+            CommandJournal.Contents contents = CommandJournal.read(path.toString());
+            CommandReplayer.Report report = CommandReplayer.run(path.toString(), contents, silentLogger());
+            assertEquals(0, report.failed());
+            assertTrue(report.matches());
+        } finally {
+            world.dispose();
+        }
+    }
+}
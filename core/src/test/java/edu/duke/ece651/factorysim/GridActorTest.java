@@ -2,6 +2,7 @@ package edu.duke.ece651.factorysim;
 
 import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.graphics.g2d.*;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,15 +35,15 @@ public class GridActorTest {
 
     @Test
     public void test_getSelectTexture() {
-        Texture selectTexture = mock(Texture.class);
+        TextureRegion selectTexture = mockRegion();
         GridActor grid = createGridActor(5, 3, 16, selectTexture);
         assertSame(selectTexture, grid.getSelectTexture());
     }
 
     @Test
     public void test_setSelectTexture() {
-        Texture texture1 = mock(Texture.class);
-        Texture texture2 = mock(Texture.class);
+        TextureRegion texture1 = mockRegion();
+        TextureRegion texture2 = mockRegion();
         GridActor grid = createGridActor(5, 3, 16, texture1);
         grid.setSelectTexture(texture2);
         assertSame(texture2, grid.getSelectTexture());
@@ -50,17 +51,41 @@ public class GridActorTest {
 
     @Test
     public void test_draw() {
-        Texture cellTexture = mock(Texture.class);
-        Texture selectTexture = mock(Texture.class);
+        TextureRegion cellTexture = mockRegion();
+        TextureRegion selectTexture = mockRegion();
+        Texture page = cellTexture.getTexture();
         GridActor grid = new GridActor(3, 2, 16, cellTexture, selectTexture, 0f, 0f);
         SpriteBatch spriteBatch = mock(SpriteBatch.class);
         grid.drawGrid(spriteBatch);
-        verify(spriteBatch, times(6)).draw(eq(cellTexture), anyFloat(), anyFloat());
+        verify(spriteBatch, times(1)).draw(eq(page), any(float[].class), eq(0), eq(6 * 20));
+    }
+
+    @Test
+    public void test_draw_chunks() {
+        TextureRegion cellTexture = mockRegion();
+        Texture page = cellTexture.getTexture();
+        GridActor grid = new GridActor(40, 20, 16, cellTexture, mockRegion(), 0f, 0f);
+        assertEquals(3, grid.getChunkCols());
+        assertEquals(2, grid.getChunkRows());
+
+        SpriteBatch spriteBatch = mock(SpriteBatch.class);
+        grid.drawGrid(spriteBatch);
+        verify(spriteBatch, times(6)).draw(eq(page), any(float[].class), eq(0), anyInt());
+
+        // Only the bottom-left chunk is visible
+        spriteBatch = mock(SpriteBatch.class);
+        grid.drawGrid(spriteBatch, new Rectangle(8f, 8f, 64f, 64f));
+        verify(spriteBatch, times(1)).draw(eq(page), any(float[].class), eq(0), eq(16 * 16 * 20));
+
+        // The view is outside the grid
+        spriteBatch = mock(SpriteBatch.class);
+        grid.drawGrid(spriteBatch, new Rectangle(-200f, -200f, 64f, 64f));
+        verify(spriteBatch, never()).draw(eq(page), any(float[].class), anyInt(), anyInt());
     }
 
     @Test
     public void test_drawSelectionBox() {
-        Texture selectTexture = mock(Texture.class);
+        TextureRegion selectTexture = mockRegion();
         GridActor grid = createGridActor(5, 5, 16, selectTexture);
         SpriteBatch spriteBatch = mock(SpriteBatch.class);
         when(spriteBatch.getColor()).thenReturn(new Color(Color.WHITE));
@@ -99,6 +124,23 @@ public class GridActorTest {
         grid.resize(10, 8);
         assertEquals(10, grid.getCols());
         assertEquals(8, grid.getRows());
+
+        SpriteBatch spriteBatch = mock(SpriteBatch.class);
+        grid.drawGrid(spriteBatch);
+        verify(spriteBatch).draw(any(Texture.class), any(float[].class), eq(0), eq(10 * 8 * 20));
+    }
+
+    @Test
+    public void test_setCellTexture() {
+        GridActor grid = createGridActor(2, 2, 16);
+        TextureRegion texture = mockRegion();
+        grid.setCellTexture(texture);
+        assertSame(texture, grid.getCellTexture());
+        Texture page = texture.getTexture();
+
+        SpriteBatch spriteBatch = mock(SpriteBatch.class);
+        grid.drawGrid(spriteBatch);
+        verify(spriteBatch).draw(eq(page), any(float[].class), eq(0), eq(2 * 2 * 20));
     }
 
     @Test
@@ -108,12 +150,18 @@ public class GridActorTest {
         grid.onMouseMoved(newPos);
     }
 
-    private static GridActor createGridActor(int cols, int rows, int cellSize, Texture selectTexture) {
-        Texture cellTexture = mock(Texture.class);
+    private static TextureRegion mockRegion() {
+        TextureRegion region = mock(TextureRegion.class);
+        when(region.getTexture()).thenReturn(mock(Texture.class));
+        return region;
+    }
+
+    private static GridActor createGridActor(int cols, int rows, int cellSize, TextureRegion selectTexture) {
+        TextureRegion cellTexture = mockRegion();
         return new GridActor(cols, rows, cellSize, cellTexture, selectTexture, 0f, 0f);
     }
 
     private static GridActor createGridActor(int cols, int rows, int cellSize) {
-        return createGridActor(cols, rows, cellSize, mock(Texture.class));
+        return createGridActor(cols, rows, cellSize, mockRegion());
     }
 }
@@ -0,0 +1,85 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectPoolTest {
+    private static class Item implements PooledObject {
+        int borrowed = 0;
+        int released = 0;
+
+        @Override
+        public void onBorrowed() { borrowed++; }
+
+        @Override
+        public void onReleased() { released++; }
+    }
+
+    @Test
+    public void test_borrow_release() {
+        ObjectPool<Item> pool = new ObjectPool<>(Item::new);
+        Item a = pool.borrow();
+        assertEquals(1, a.borrowed);
+        assertEquals(0, pool.getHits());
+        assertEquals(1, pool.getMisses());
+
+        pool.release(a);
+        assertEquals(1, a.released);
+        assertEquals(1, pool.size());
+
+        assertSame(a, pool.borrow());
+        assertEquals(2, a.borrowed);
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void test_prefill() {
+        ObjectPool<Item> pool = new ObjectPool<>(Item::new, 3);
+        assertEquals(3, pool.size());
+        pool.borrow();
+        assertEquals(1, pool.getHits());
+        assertEquals(0, pool.getMisses());
+    }
+
+    @Test
+    public void test_maxSize() {
+        ObjectPool<Item> pool = new ObjectPool<>(Item::new, 5, 2);
+        assertEquals(2, pool.size());
+        assertEquals(2, pool.getMaxSize());
+
+        Item a = pool.borrow();
+        Item b = pool.borrow();
+        Item c = pool.borrow();
+        assertEquals(2, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(3, pool.getBorrows());
+
+        pool.release(a);
+        pool.release(b);
+        pool.release(c);
+        assertEquals(1, c.released);
+        assertEquals(2, pool.size());
+        assertEquals(3, pool.getReleases());
+        assertEquals(1, pool.getDiscarded());
+
+        assertSame(b, pool.borrow());
+        assertThrows(IllegalArgumentException.class, () -> new ObjectPool<>(Item::new, 0, -1));
+    }
+
+    @Test
+    public void test_grow() {
+        ObjectPool<Item> pool = new ObjectPool<>(Item::new);
+        Item[] items = new Item[100];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = pool.borrow();
+        }
+        for (Item item : items) {
+            pool.release(item);
+        }
+        assertEquals(100, pool.size());
+        assertEquals(0, pool.getDiscarded());
+        assertSame(items[99], pool.borrow());
+    }
+}
@@ -4,7 +4,7 @@ import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.graphics.g2d.*;
 import com.badlogic.gdx.math.*;
 import org.junit.jupiter.api.*;
-import java.util.List;
+import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -40,15 +40,118 @@ public class PathActorTest {
         when(texture.getRegionHeight()).thenReturn(16);
         Animator<TextureRegion> animator = mock(Animator.class);
         when(animator.getCurrentKeyFrame()).thenReturn(texture);
-        Texture cross = mock(Texture.class);
+        TextureRegion cross = mock(TextureRegion.class);
 
         // Mock sprite batch
         SpriteBatch spriteBatch = mock(SpriteBatch.class);
 
         PathActor actor = new PathActor(path, tileMap, animator, cross,
-            c -> new Vector2(c.getX() * 16f, c.getY() * 16f));
+            (c, out) -> out.set(c.getX() * 16f, c.getY() * 16f));
         actor.drawPaths(spriteBatch);
         actor.drawCrosses(spriteBatch);
+
+        // Tiles are drawn at their precomputed world positions
+        verify(spriteBatch).draw(texture, 16f, 0f, 8f, 8f, 16f, 16f, 1f, 1f, 90f);
+        verify(spriteBatch).draw(texture, 16f, 32f, 8f, 8f, 16f, 16f, 1f, 1f, 90f);
+        verify(spriteBatch).draw(cross, 16f, 16f);
+    }
+
+    @Test
+    public void test_recompile() {
+        Coordinate c1 = new Coordinate(0, 0);
+        Coordinate c2 = new Coordinate(1, 0);
+        Coordinate c3 = new Coordinate(1, 1);
+        Coordinate c4 = new Coordinate(1, 2);
+        Coordinate c5 = new Coordinate(2, 2);
+        Path path = mock(Path.class);
+        when(path.getSteps()).thenReturn(List.of(c1, c2, c3, c4, c5));
+
+        // Only c3 is a directional path, the tiles next to the buildings are crosses
+        TileMap tileMap = new TileMap(3, 3);
+        for (Coordinate c : List.of(c2, c3, c4)) {
+            tileMap.setTileType(c, TileType.PATH);
+        }
+        tileMap.setFlow(c3, 0, 1);
+        tileMap.setFlow(c3, 2, -1);
+
+        TextureRegion texture = mock(TextureRegion.class);
+        when(texture.getRegionWidth()).thenReturn(16);
+        when(texture.getRegionHeight()).thenReturn(16);
+        Animator<TextureRegion> animator = mock(Animator.class);
+        when(animator.getCurrentKeyFrame()).thenReturn(texture);
+        TextureRegion cross = mock(TextureRegion.class);
+        TileVersions versions = new TileVersions(3, 3);
+
+        PathActor actor = new PathActor(path, tileMap, animator, cross,
+            (c, out) -> out.set(c.getX() * 16f, c.getY() * 16f), versions);
+        assertEquals(1, actor.getCompileCount());
+
+        SpriteBatch spriteBatch = mock(SpriteBatch.class);
+        actor.drawPaths(spriteBatch);
+        verify(spriteBatch).draw(texture, 16f, 16f, 8f, 8f, 16f, 16f, 1f, 1f, 90f);
+
+        // Touching a tile the path doesn't draw as directional doesn't recompile
+        versions.touch(c5);
+        actor.drawPaths(spriteBatch);
+        assertEquals(1, actor.getCompileCount());
+
+        // Flows aren't read again until the tile is touched
+        tileMap.setFlow(c3, 1, 1);
+        actor.drawPaths(spriteBatch);
+        assertEquals(1, actor.getCompileCount());
+        versions.touch(c3);
+        actor.drawPaths(spriteBatch);
+        assertEquals(2, actor.getCompileCount());
+        verify(spriteBatch).draw(cross, 16f, 16f);
+
+        actor.invalidate();
+        actor.drawPaths(spriteBatch);
+        assertEquals(3, actor.getCompileCount());
+    }
+
+    @Test
+    public void test_drawPaths_snapshot() {
+        Coordinate c1 = new Coordinate(0, 0);
+        Coordinate c2 = new Coordinate(1, 0);
+        Coordinate c3 = new Coordinate(1, 1);
+        Coordinate c4 = new Coordinate(1, 2);
+        Coordinate c5 = new Coordinate(2, 2);
+        Path path = mock(Path.class);
+        when(path.getSteps()).thenReturn(List.of(c1, c2, c3, c4, c5));
+
+        TileMap tileMap = new TileMap(3, 3);
+        for (Coordinate c : List.of(c2, c3, c4)) {
+            tileMap.setTileType(c, TileType.PATH);
+        }
+        tileMap.setFlow(c3, 0, 1);
+        tileMap.setFlow(c3, 2, -1);
+
+        TextureRegion texture = mock(TextureRegion.class);
+        when(texture.getRegionWidth()).thenReturn(16);
+        when(texture.getRegionHeight()).thenReturn(16);
+        Animator<TextureRegion> animator = mock(Animator.class);
+        when(animator.getCurrentKeyFrame()).thenReturn(texture);
+        TextureRegion cross = mock(TextureRegion.class);
+        PathActor actor = new PathActor(path, tileMap, animator, cross,
+            (c, out) -> out.set(c.getX() * 16f, c.getY() * 16f), new TileVersions(3, 3));
+
+        // The flows of the snapshot are drawn, not the ones the worker thread is changing on the tile map
+        int[] flows = new int[3 * 3 * 4];
+        flows[(3 + 1) * 4 + 1] = 1;
+        SimulationSnapshot snapshot = new SimulationSnapshot(0, Map.of(), 3, 3, flows, 1, Set.of());
+        SpriteBatch spriteBatch = mock(SpriteBatch.class);
+        actor.drawPaths(spriteBatch, snapshot);
+        assertEquals(2, actor.getCompileCount());
+        verify(spriteBatch).draw(cross, 16f, 16f);
+
+        // Snapshots with the same flows don't recompile
+        actor.drawPaths(spriteBatch, new SimulationSnapshot(1, Map.of(), 3, 3, flows, 1, Set.of()));
+        assertEquals(2, actor.getCompileCount());
+
+        // Reading the tile map again recompiles from it
+        actor.drawPaths(spriteBatch);
+        assertEquals(3, actor.getCompileCount());
+        verify(spriteBatch).draw(texture, 16f, 16f, 8f, 8f, 16f, 16f, 1f, 1f, 90f);
     }
 
     @Test
@@ -59,9 +162,9 @@ public class PathActorTest {
         tileMap.setTileType(c1, TileType.PATH);
 
         Path path = mock(Path.class);
-        Texture texture = mock(Texture.class);
+        TextureRegion texture = mock(TextureRegion.class);
         Animator<TextureRegion> animator = mock(Animator.class);
-        PathActor actor = new PathActor(path, tileMap, animator, texture, (c) -> new Vector2(0, 0));
+        PathActor actor = new PathActor(path, tileMap, animator, texture, (c, out) -> out.set(0, 0));
 
         assertTrue(actor.canDraw(c1));
         assertFalse(actor.canDraw(c2));
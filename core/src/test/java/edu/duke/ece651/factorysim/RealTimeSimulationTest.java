@@ -0,0 +1,99 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RealTimeSimulationTest {
+    @Test
+    public void test_update_notRunning() {
+        Simulation sim = mock(Simulation.class);
+        RealTimeSimulation realTime = new RealTimeSimulation(sim);
+        assertEquals(0, realTime.update(10f));
+        verify(sim, never()).step(anyInt());
+    }
+
+    @Test
+    public void test_update_accumulates() {
+        Simulation sim = mock(Simulation.class);
+        RealTimeSimulation realTime = new RealTimeSimulation(sim);
+        realTime.setSpeed(10f);
+        realTime.start();
+        assertEquals(0, realTime.update(0.05f));
+        assertEquals(1, realTime.update(0.06f));
+        assertEquals(3, realTime.update(0.3f));
+        verify(sim, times(4)).step(1);
+
+        realTime.pause();
+        assertEquals(0, realTime.update(1f));
+        realTime.resume();
+        realTime.stop();
+        assertFalse(realTime.isRunning());
+        assertEquals(0, realTime.update(1f));
+    }
+
+    @Test
+    public void test_setThreaded_notRunning() {
+        Simulation sim = mock(Simulation.class);
+        RealTimeSimulation realTime = new RealTimeSimulation(sim);
+        realTime.setThreaded(true);
+        assertTrue(realTime.isThreaded());
+        assertNull(realTime.getSnapshot());
+        realTime.setThreaded(false);
+        assertFalse(realTime.isThreaded());
+        assertFalse(realTime.getLock().isLocked());
+    }
+
+    @Test
+    public void test_update_turbo() {
+        Simulation sim = mock(Simulation.class);
+        RealTimeSimulation realTime = new RealTimeSimulation(sim);
+        realTime.setTurbo(true);
+        realTime.setFrameBudget(0.002f);
+        assertTrue(realTime.isTurbo());
+        assertEquals(0.002f, realTime.getFrameBudget(), 0.0001f);
+        realTime.start();
+
+        // The first batch is a single step, later batches grow to fill the budget
+        int steps = realTime.update(0f) + realTime.update(0f);
+        assertTrue(steps > 2);
+        assertTrue(realTime.getNanosPerStep() > 0);
+        verify(sim, atLeast(2)).step(anyInt());
+
+        realTime.setTurbo(false);
+        assertEquals(realTime.getSpeed(), realTime.getEffectiveSpeed(), 0.0001f);
+    }
+
+    @Test
+    public void test_update_skipsWhileLocked() throws Exception {
+        Simulation sim = mock(Simulation.class);
+        RealTimeSimulation realTime = new RealTimeSimulation(sim);
+        realTime.setSpeed(10f);
+        realTime.start();
+
+        // A background save holds the lock, the frame is skipped instead of blocking
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread saver = new Thread(() -> {
+            realTime.getLock().lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException ignored) {
+            } finally {
+                realTime.getLock().unlock();
+            }
+        });
+        saver.start();
+        locked.await();
+        assertEquals(0, realTime.update(10f));
+        verify(sim, never()).step(anyInt());
+        release.countDown();
+        saver.join();
+
+        // The time skipped while locked is capped, so stepping resumes without a burst
+        int steps = realTime.update(0f);
+        assertTrue(steps > 0 && steps <= 5);
+    }
+}
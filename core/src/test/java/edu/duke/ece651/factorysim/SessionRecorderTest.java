@@ -0,0 +1,64 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static edu.duke.ece651.factorysim.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionRecorderTest {
+    @Test
+    public void test_record_and_replay(@TempDir Path dir) throws IOException {
+        Simulation sim = smallFactory(5);
+        List<CommandJournal> journals = new ArrayList<>();
+        SessionRecorder recorder = new SessionRecorder(mockWorld(sim, journals), dir);
+        Path path = recorder.start();
+        assertEquals(path, recorder.getPath());
+        assertEquals(1, journals.size());
+
+        // Commands are recorded the way the game world records them, real-time steps only by their time step
+        journals.get(0).record(new Command.BuildDronePort(sim.getCurrentTime(), "Port", 0, 0));
+        assertTrue(sim.getWorld().tryAddBuilding(dronePortAt(sim, "Port", 0, 0)));
+        journals.get(0).record(new Command.Step(sim.getCurrentTime(), 3));
+        sim.step(3);
+        sim.step(4);
+        recorder.stop();
+        assertTrue(journals.isEmpty());
+        assertNull(recorder.getPath());
+
+        CommandJournal.Contents contents = CommandJournal.read(path.toString());
+        assertEquals(2, contents.commands().size());
+        assertEquals(sim.getCurrentTime(), contents.end().step());
+        assertTrue(CommandReplayer.run(path.toString(), contents, silentLogger()).matches());
+    }
+
+    @Test
+    public void test_detached_recording_not_ended(@TempDir Path dir) throws IOException {
+        Simulation sim = new FactoryGenerator(new FactoryGenerator.Config(1, 1, 0, 0, 1, 0.5, 5))
+            .generate(silentLogger());
+        List<CommandJournal> journals = new ArrayList<>();
+        SessionRecorder recorder = new SessionRecorder(mockWorld(sim, journals), dir);
+        Path first = recorder.start();
+
+        // Starting again ends the first recording
+        Path second = recorder.start();
+        assertNotEquals(first, second);
+        assertNotNull(CommandJournal.read(first.toString()).end());
+        assertEquals(1, journals.size());
+
+        // Another simulation was loaded, so the journal was detached
+        journals.clear();
+        recorder.close();
+        assertNull(CommandJournal.read(second.toString()).end());
+    }
+
+    private static Building dronePortAt(Simulation sim, String name, int x, int y) {
+        Building building = new DronePortBuilding(name, List.of(), sim);
+        building.setLocation(new Coordinate(x, y));
+        return building;
+    }
+}
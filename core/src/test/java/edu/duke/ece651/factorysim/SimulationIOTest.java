@@ -0,0 +1,41 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import static edu.duke.ece651.factorysim.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationIOTest {
+    @Test
+    public void test_roundTrip_streams() throws IOException {
+        FactoryGenerator.Config config = new FactoryGenerator.Config(4, 4, 2, 1, 2, 0.5, 3);
+        Simulation sim = new FactoryGenerator(config).generate(silentLogger());
+        sim.step(5);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimulationIO.save(sim, out);
+        Simulation loaded = SimulationIO.load(new ByteArrayInputStream(out.toByteArray()), silentLogger());
+        assertEquals(sim.toJson(), loaded.toJson());
+        assertEquals(sim.getCurrentTime(), loaded.getCurrentTime());
+    }
+
+    @Test
+    public void test_roundTrip_readerWriter() throws IOException {
+        FactoryGenerator.Config config = new FactoryGenerator.Config(4, 4, 2, 1, 2, 0.5, 3);
+        Simulation sim = new FactoryGenerator(config).generate(silentLogger());
+
+        StringWriter out = new StringWriter();
+        SimulationIO.save(sim, out);
+        Simulation loaded = SimulationIO.load(new StringReader(out.toString()), silentLogger());
+        assertEquals(sim.toJson(), loaded.toJson());
+
+        byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        assertEquals(sim.toJson(), SimulationIO.load(new ByteArrayInputStream(bytes), silentLogger()).toJson());
+    }
+
+    @Test
+    public void test_load_invalid() {
+        assertThrows(Exception.class, () -> SimulationIO.load(new StringReader("{ not json"), silentLogger()));
+    }
+}
@@ -0,0 +1,58 @@
+package edu.duke.ece651.factorysim;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.function.Supplier;
+import static org.mockito.Mockito.*;
+
+/**
+ * Fixtures shared by the tests of saving, autosaving, recording and replaying simulations.
+ */
+final class TestUtils {
+    private TestUtils() { }
+
+    /**
+     * Creates a logger that discards everything.
+     *
+     * @return the logger.
+     */
+    static Logger silentLogger() {
+        return new StreamLogger(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Generates a small factory: 2 mines, 2 factories, 1 storage and no drone ports, with one recipe level.
+     *
+     * @param seed is the seed of the generator.
+     * @return the generated simulation.
+     * @throws IOException when the generated formula can't be loaded.
+     */
+    static Simulation smallFactory(long seed) throws IOException {
+        return new FactoryGenerator(new FactoryGenerator.Config(2, 2, 1, 0, 1, 0.5, seed)).generate(silentLogger());
+    }
+
+    /**
+     * Creates a game world mock that runs locked actions directly and keeps the journals it is given in a list.
+     *
+     * @param sim is the simulation of the game world.
+     * @param journals is the list the journals are added to and removed from.
+     * @return the mock.
+     */
+    static GameWorld mockWorld(Simulation sim, List<CommandJournal> journals) {
+        GameWorld world = mock(GameWorld.class);
+        when(world.getSim()).thenReturn(sim);
+        when(world.getCurrentStep()).thenAnswer((invocation) -> sim.getCurrentTime());
+        when(world.callWithSimulationLock(any())).thenAnswer((invocation) ->
+            ((Supplier<?>)invocation.getArgument(0)).get());
+        doAnswer((invocation) -> {
+            ((Runnable)invocation.getArgument(0)).run();
+            return null;
+        }).when(world).runWithSimulationLock(any());
+        doAnswer((invocation) -> journals.add(invocation.getArgument(0))).when(world).addJournal(any());
+        when(world.removeJournal(any())).thenAnswer((invocation) -> journals.remove(invocation.getArgument(0)));
+        when(world.hasJournal(any())).thenAnswer((invocation) -> journals.contains(invocation.getArgument(0)));
+        return world;
+    }
+}
@@ -0,0 +1,74 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TileIndexTest {
+    @Test
+    public void test_add_get() {
+        TileIndex<String> index = new TileIndex<>(4, 3);
+        assertTrue(index.add(new Coordinate(1, 2), "a"));
+        assertTrue(index.add(new Coordinate(1, 2), "b"));
+        assertTrue(index.add(new Coordinate(3, 0), "c"));
+
+        assertEquals(List.of("a", "b"), index.get(new Coordinate(1, 2)));
+        assertEquals(List.of("c"), index.get(new Coordinate(3, 0)));
+        assertTrue(index.get(new Coordinate(0, 0)).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void test_outOfBounds() {
+        TileIndex<String> index = new TileIndex<>(2, 2);
+        assertFalse(index.add(new Coordinate(2, 0), "a"));
+        assertFalse(index.add(new Coordinate(0, -1), "a"));
+        assertFalse(index.remove(new Coordinate(5, 5), "a"));
+        assertTrue(index.get(new Coordinate(-1, 0)).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void test_remove() {
+        TileIndex<String> index = new TileIndex<>(2, 2);
+        Coordinate c = new Coordinate(1, 1);
+        String a = "a";
+        String b = "b";
+        String d = "d";
+        index.add(c, a);
+        index.add(c, b);
+        index.add(c, d);
+
+        assertTrue(index.remove(c, a));
+        assertFalse(index.remove(c, a));
+        assertFalse(index.remove(new Coordinate(0, 0), b));
+        assertEquals(2, index.get(c).size());
+        assertTrue(index.get(c).contains(b));
+        assertTrue(index.get(c).contains(d));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void test_move() {
+        TileIndex<String> index = new TileIndex<>(3, 3);
+        Coordinate from = new Coordinate(0, 0);
+        Coordinate to = new Coordinate(2, 2);
+        index.add(from, "a");
+        index.move(from, to, "a");
+        assertTrue(index.get(from).isEmpty());
+        assertEquals(List.of("a"), index.get(to));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void test_reset() {
+        TileIndex<String> index = new TileIndex<>(2, 2);
+        index.add(new Coordinate(1, 1), "a");
+        index.reset(5, 4);
+        assertEquals(5, index.getWidth());
+        assertEquals(4, index.getHeight());
+        assertEquals(0, index.size());
+        assertTrue(index.get(new Coordinate(1, 1)).isEmpty());
+        assertTrue(index.add(new Coordinate(4, 3), "b"));
+    }
+}
@@ -0,0 +1,40 @@
+package edu.duke.ece651.factorysim;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TileVersionsTest {
+    @Test
+    public void test_touch() {
+        TileVersions versions = new TileVersions(3, 2);
+        Coordinate a = new Coordinate(1, 1);
+        Coordinate b = new Coordinate(2, 0);
+        int start = versions.getVersion();
+        assertFalse(versions.isChangedSince(a, start));
+
+        versions.touch(a);
+        int afterA = versions.getVersion();
+        assertTrue(afterA > start);
+        assertTrue(versions.isChangedSince(a, start));
+        assertFalse(versions.isChangedSince(a, afterA));
+        assertFalse(versions.isChangedSince(b, start));
+
+        // Tiles outside the map are ignored
+        versions.touch(new Coordinate(3, 0));
+        assertEquals(afterA, versions.getVersion());
+        assertFalse(versions.isChangedSince(new Coordinate(-1, 0), start));
+    }
+
+    @Test
+    public void test_reset() {
+        TileVersions versions = new TileVersions(2, 2);
+        Coordinate a = new Coordinate(1, 1);
+        versions.touch(a);
+        int before = versions.getVersion();
+        versions.reset(4, 4);
+        assertTrue(versions.getVersion() > before);
+        assertFalse(versions.isChangedSince(a, 0));
+        versions.touch(new Coordinate(3, 3));
+        assertTrue(versions.isChangedSince(new Coordinate(3, 3), before));
+    }
+}
@@ -0,0 +1,268 @@
+package edu.duke.ece651.factorysim.net;
+
+import com.badlogic.gdx.utils.JsonReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncServerClientTest {
+    @Test
+    public void test_login_and_save() throws Exception {
+        StubServer server = new StubServer();
+        AsyncServerClient client = new AsyncServerClient(server, Duration.ofSeconds(5));
+
+        // Pipelined without waiting for the earlier replies
+        CompletableFuture<Void> signup = client.signup("localhost", 0, "alice", "pw");
+        CompletableFuture<Void> connect = client.connect("localhost", 0, "alice", "pw");
+        CompletableFuture<Void> save = client.saveUserSave("{\"a\":1}");
+        CompletableFuture<String> load = client.loadUserSave();
+
+        assertEquals("{\"a\":1}", load.get());
+        assertTrue(signup.isDone() && connect.isDone() && save.isDone());
+        assertEquals("{\"a\":1}", server.getSave("alice"));
+        assertEquals(4, server.getRequestCount());
+        assertEquals(4, client.getSentCount());
+        client.close();
+    }
+
+    @Test
+    public void test_submit_order() throws Exception {
+        AsyncServerClient client = new AsyncServerClient(new StubServer(Duration.ofMillis(1)), Duration.ofSeconds(5));
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> replies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int n = i;
+            replies.add(client.submit("request " + i, (api) -> {
+                order.add(n);
+                return n;
+            }));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, replies.get(i).get());
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order);
+        client.close();
+    }
+
+    @Test
+    public void test_error() {
+        AsyncServerClient client = new AsyncServerClient(new StubServer(), Duration.ofSeconds(5));
+        CompletableFuture<String> load = client.loadUserSave();
+        Exception e = assertThrows(IllegalStateException.class, () -> AsyncServerClient.await(load));
+        assertEquals("Not logged in", e.getMessage());
+        assertEquals(1, client.getFailedCount());
+
+        CompletableFuture<String> preset = client.loadPreset("localhost", 0, "missing");
+        ExecutionException wrapped = assertThrows(ExecutionException.class, preset::get);
+        assertInstanceOf(IllegalArgumentException.class, AsyncServerClient.unwrap(wrapped));
+        client.close();
+    }
+
+    @Test
+    public void test_timeout_and_cancel_skip_queued() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncServerClient client = new AsyncServerClient(new StubServer(), Duration.ofSeconds(5));
+        CompletableFuture<Object> blocking = client.submit("blocking", (api) -> {
+            started.countDown();
+            release.await();
+            return "done";
+        });
+        started.await();
+        CompletableFuture<Object> timedOut = client.submit("timed out", (api) -> fail(), Duration.ofMillis(10));
+        CompletableFuture<Object> cancelled = client.submit("cancelled", (api) -> fail());
+        assertEquals(2, client.getPendingCount());
+
+        assertThrows(TimeoutException.class, () -> AsyncServerClient.await(timedOut));
+        assertTrue(cancelled.cancel(false));
+        release.countDown();
+        assertEquals("done", blocking.get());
+
+        // Wait for the dispatcher to get past the dropped requests
+        assertEquals("after", client.submit("after", (api) -> "after").get());
+        assertEquals(2, client.getSkippedCount());
+        assertEquals(2, client.getSentCount());
+        client.close();
+    }
+
+    @Test
+    public void test_timeout_in_flight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncServerClient client = new AsyncServerClient(new StubServer(), Duration.ofSeconds(5));
+        CompletableFuture<Object> slow = client.submit("slow", (api) -> {
+            release.await();
+            return "late";
+        }, Duration.ofMillis(10));
+        assertThrows(TimeoutException.class, () -> AsyncServerClient.await(slow));
+
+        // The late reply is discarded
+        release.countDown();
+        assertEquals("next", client.submit("next", (api) -> "next").get());
+        assertTrue(slow.isCompletedExceptionally());
+        client.close();
+    }
+
+    @Test
+    public void test_close() throws Exception {
+        StubServer server = new StubServer(Duration.ofMillis(20));
+        server.addPreset("p", "{}");
+        AsyncServerClient client = new AsyncServerClient(server, Duration.ofSeconds(5));
+        CompletableFuture<String> queued = client.loadPreset("localhost", 0, "p");
+        client.close();
+
+        // Requests queued before closing are still sent
+        assertEquals("{}", queued.get());
+        CompletableFuture<String> rejected = client.loadPreset("localhost", 0, "p");
+        assertThrows(IllegalStateException.class, () -> AsyncServerClient.await(rejected));
+        client.close();
+    }
+
+    @Test
+    public void test_syncUserSave() throws Exception {
+        StubServer server = new StubServer();
+        AsyncServerClient client = new AsyncServerClient(server, Duration.ofSeconds(5));
+        client.signup("localhost", 0, "alice", "pw");
+        client.connect("localhost", 0, "alice", "pw");
+
+        String first = "{\"buildings\":[{\"name\":\"a\",\"stock\":1},{\"name\":\"b\",\"stock\":2}]}";
+        String second = first.replace("\"stock\":2", "\"stock\":3");
+        DeltaSync.Result full = client.syncUserSave(first).get();
+        assertFalse(full.delta());
+        assertEquals(first, server.getSave("alice"));
+
+        DeltaSync.Result patch = client.syncUserSave(second).get();
+        assertTrue(patch.delta());
+        assertEquals(1, patch.changedEntries());
+        assertEquals(first.length() + patch.length(), server.getReceivedLength());
+        assertEquals(SaveDelta.index(new JsonReader().parse(second)).getRevision(),
+            SaveDelta.index(new JsonReader().parse(server.getSave("alice"))).getRevision());
+
+        // Saved from elsewhere, so the patch doesn't apply and the full save is sent
+        server.putSave("alice", first.replace("\"stock\":1", "\"stock\":9"));
+        assertFalse(client.syncUserSave(second).get().delta());
+        assertEquals(second, server.getSave("alice"));
+
+        // Servers without patches get full saves
+        server.setDeltaSupported(false);
+        assertFalse(client.syncUserSave(first).get().delta());
+        assertFalse(client.syncUserSave(second).get().delta());
+        assertEquals(second, server.getSave("alice"));
+
+        // Logging in again forgets the acknowledged save
+        server.setDeltaSupported(true);
+        client.connect("localhost", 0, "alice", "pw");
+        assertFalse(client.syncUserSave(first).get().delta());
+        client.loadUserSave().get();
+        assertTrue(client.syncUserSave(second).get().delta());
+        client.close();
+    }
+
+    @Test
+    public void test_cached_preset(@TempDir Path dir) throws Exception {
+        StubServer server = new StubServer();
+        server.addPreset("doors", "{\"types\":[]}");
+        AsyncServerClient client = new AsyncServerClient(server, Duration.ofSeconds(5));
+        client.setCache(new ContentCache(dir, 1024));
+
+        assertEquals("{\"types\":[]}", client.loadPreset("localhost", 0, "doors").get());
+        assertEquals(1, client.getCacheMissCount());
+        long sent = server.getSentLength();
+
+        // Unchanged, so only revalidated
+        assertEquals("{\"types\":[]}", client.loadPreset("localhost", 0, "doors").get());
+        assertEquals(1, client.getCacheHitCount());
+        assertEquals(sent, server.getSentLength());
+        assertEquals(2, server.getRequestCount());
+
+        server.addPreset("doors", "{\"types\":[1]}");
+        assertEquals("{\"types\":[1]}", client.loadPreset("localhost", 0, "doors").get());
+        assertEquals(2, client.getCacheMissCount());
+
+        // Offline, the cache is used without contacting the server
+        client.setOffline(true);
+        assertEquals("{\"types\":[1]}", client.loadPreset("localhost", 0, "doors").get());
+        assertEquals(3, server.getRequestCount());
+        CompletableFuture<String> missing = client.loadPreset("localhost", 0, "other");
+        assertThrows(IOException.class, () -> AsyncServerClient.await(missing));
+        client.close();
+    }
+
+    @Test
+    public void test_cached_save_unreachable(@TempDir Path dir) throws Exception {
+        StubServer server = new StubServer();
+        AsyncServerClient client = new AsyncServerClient(server, Duration.ofSeconds(5));
+        client.setCache(new ContentCache(dir, 1024));
+        client.signup("localhost", 0, "alice", "pw");
+        client.connect("localhost", 0, "alice", "pw");
+        client.saveUserSave("{\"buildings\":[]}");
+
+        // Cached once the server acknowledged the save, so it isn't downloaded again
+        assertEquals("{\"buildings\":[]}", client.loadUserSave().get());
+        assertEquals("{\"buildings\":[]}", client.loadUserSave().get());
+        assertEquals(2, client.getCacheHitCount());
+        assertEquals(0, client.getCacheMissCount());
+        client.close();
+
+        // The server can't be reached, so the cached save is used
+        AsyncServerClient offline = new AsyncServerClient(new StubServer() {
+            @Override
+            public String loadUserSaveIfChanged(String knownHash) throws Exception {
+                throw new IOException("Connection refused");
+            }
+
+            @Override
+            public void connect(String host, int port, String username, String password) {
+            }
+        }, Duration.ofSeconds(5));
+        offline.setCache(new ContentCache(dir, 1024));
+        offline.connect("localhost", 0, "alice", "pw");
+        assertEquals("{\"buildings\":[]}", offline.loadUserSave().get());
+        assertEquals(1, offline.getCacheHitCount());
+        offline.close();
+    }
+
+    @Test
+    public void test_cached_save_offline(@TempDir Path dir) throws Exception {
+        StubServer server = new StubServer();
+        AsyncServerClient client = new AsyncServerClient(server, Duration.ofSeconds(5));
+        client.setCache(new ContentCache(dir, 1024));
+        client.signup("localhost", 0, "alice", "pw");
+        client.connect("localhost", 0, "alice", "pw");
+        client.syncUserSave("{\"buildings\":[1]}").get();
+        client.close();
+
+        // Offline, logging in and loading the save never contact the server
+        StubServer unreachable = new StubServer();
+        AsyncServerClient offline = new AsyncServerClient(unreachable, Duration.ofSeconds(5));
+        offline.setCache(new ContentCache(dir, 1024));
+        offline.setOffline(true);
+        offline.connect("localhost", 0, "alice", "pw").get();
+        assertEquals("{\"buildings\":[1]}", offline.loadUserSave().get());
+        assertEquals(0, unreachable.getRequestCount());
+        offline.close();
+    }
+
+    @Test
+    public void test_invalid_timeout() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncServerClient(new StubServer(), Duration.ZERO));
+    }
+
+    @Test
+    public void test_stub_server() throws Exception {
+        StubServer server = new StubServer();
+        server.signup("localhost", 0, "bob", "pw");
+        assertThrows(IllegalArgumentException.class, () -> server.signup("localhost", 0, "bob", "pw"));
+        assertThrows(IllegalArgumentException.class, () -> server.connect("localhost", 0, "bob", "wrong"));
+        server.connect("localhost", 0, "bob", "pw");
+        assertThrows(IllegalStateException.class, server::loadUserSave);
+        server.saveUserSave("{}");
+        assertEquals("{}", server.loadUserSave());
+        assertNull(server.getSave("alice"));
+        assertEquals(7, server.getRequestCount());
+    }
+}
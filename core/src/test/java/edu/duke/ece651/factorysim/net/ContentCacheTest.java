@@ -0,0 +1,101 @@
+package edu.duke.ece651.factorysim.net;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentCacheTest {
+    @Test
+    public void test_put_read(@TempDir Path dir) throws Exception {
+        ContentCache cache = new ContentCache(dir, 1024);
+        assertNull(cache.getHash("preset/a"));
+        assertNull(cache.read("preset/a"));
+
+        String hash = cache.put("preset/a", "{\"a\":1}");
+        assertEquals(ContentCache.hash("{\"a\":1}"), hash);
+        assertEquals(hash, cache.getHash("preset/a"));
+        assertEquals("{\"a\":1}", cache.read("preset/a"));
+        assertEquals(7, cache.getTotalBytes());
+
+        cache.put("preset/a", "{\"a\":22}");
+        assertEquals("{\"a\":22}", cache.read("preset/a"));
+        assertEquals(1, cache.size());
+        assertEquals(8, cache.getTotalBytes());
+
+        cache.remove("preset/a");
+        assertNull(cache.read("preset/a"));
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    @Test
+    public void test_lru_eviction(@TempDir Path dir) throws Exception {
+        ContentCache cache = new ContentCache(dir, 25);
+        cache.put("a", "aaaaaaaaaa");
+        cache.put("b", "bbbbbbbbbb");
+        cache.read("a");
+        cache.put("c", "cccccccccc");
+
+        // b was the least recently used
+        assertNull(cache.getHash("b"));
+        assertEquals("aaaaaaaaaa", cache.read("a"));
+        assertEquals("cccccccccc", cache.read("c"));
+        assertEquals(20, cache.getTotalBytes());
+
+        // Larger than the whole cache, so not cached
+        cache.put("d", "d".repeat(26));
+        assertNull(cache.getHash("d"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void test_reopen(@TempDir Path dir) throws Exception {
+        ContentCache cache = new ContentCache(dir, 25);
+        cache.put("a", "aaaaaaaaaa");
+        cache.put("b", "bbbbbbbbbb");
+
+        // Reading only writes the new order of use on close
+        String index = Files.readString(dir.resolve("index.json"));
+        cache.read("a");
+        assertEquals(index, Files.readString(dir.resolve("index.json")));
+        cache.close();
+
+        ContentCache reopened = new ContentCache(dir, 25);
+        assertEquals(2, reopened.size());
+        assertEquals(20, reopened.getTotalBytes());
+        assertEquals("bbbbbbbbbb", reopened.read("b"));
+
+        // The order of use was kept, so a is evicted now
+        reopened.put("c", "cccccccccc");
+        assertNull(reopened.getHash("a"));
+    }
+
+    @Test
+    public void test_corrupt_index(@TempDir Path dir) throws Exception {
+        Files.writeString(dir.resolve("index.json"), "not json [");
+        ContentCache cache = new ContentCache(dir, 1024);
+        assertEquals(0, cache.size());
+        cache.put("a", "a");
+        assertEquals("a", new ContentCache(dir, 1024).read("a"));
+    }
+
+    @Test
+    public void test_missing_file(@TempDir Path dir) throws Exception {
+        ContentCache cache = new ContentCache(dir, 1024);
+        cache.put("a", "aaa");
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().equals("index.json")) {
+                    Files.delete(file);
+                }
+            }
+        }
+        assertNull(cache.read("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test_invalid_size(@TempDir Path dir) {
+        assertThrows(IllegalArgumentException.class, () -> new ContentCache(dir, 0));
+    }
+}
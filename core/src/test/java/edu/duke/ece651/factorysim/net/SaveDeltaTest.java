@@ -0,0 +1,84 @@
+package edu.duke.ece651.factorysim.net;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveDeltaTest {
+    private static final String BASE = "{\"currentTime\":10,"
+        + "\"buildings\":[{\"name\":\"m1\",\"stock\":{\"metal\":1}},{\"name\":\"f1\",\"stock\":{}},"
+        + "{\"name\":\"s1\",\"stock\":{\"door\":2}}],"
+        + "\"paths\":[{\"from\":\"m1\",\"to\":\"f1\"},{\"from\":\"m1\",\"to\":\"f1\"}],"
+        + "\"policies\":{\"request\":\"fifo\",\"source\":\"qlen\"}}";
+
+    private static JsonValue parse(String json) {
+        return new JsonReader().parse(json);
+    }
+
+    private static String normalize(String json) {
+        return parse(json).toJson(JsonValue.OutputType.json);
+    }
+
+    private static void assertRoundTrip(String base, String next) throws Exception {
+        SaveDelta.Delta delta = SaveDelta.diff(SaveDelta.index(parse(base)), parse(next));
+        String patched = SaveDelta.apply(base, delta.patch());
+        assertEquals(normalize(next), normalize(patched));
+        assertEquals(delta.next().getRevision(), SaveDelta.index(parse(patched)).getRevision());
+    }
+
+    @Test
+    public void test_revision() {
+        assertEquals(SaveDelta.index(parse(BASE)).getRevision(), SaveDelta.index(parse(normalize(BASE))).getRevision());
+        assertNotEquals(SaveDelta.index(parse(BASE)).getRevision(),
+            SaveDelta.index(parse(BASE.replace("\"door\":2", "\"door\":3"))).getRevision());
+    }
+
+    @Test
+    public void test_diff_unchanged() throws Exception {
+        SaveDelta.Delta delta = SaveDelta.diff(SaveDelta.index(parse(BASE)), parse(BASE));
+        assertEquals(0, delta.changedEntries());
+        assertFalse(delta.patch().contains("m1"));
+        assertRoundTrip(BASE, BASE);
+    }
+
+    @Test
+    public void test_diff_changed_entries_only() throws Exception {
+        String next = BASE.replace("\"currentTime\":10", "\"currentTime\":11")
+            .replace("\"door\":2", "\"door\":3")
+            .replace("\"source\":\"qlen\"", "\"source\":\"simplelat\"");
+        SaveDelta.Delta delta = SaveDelta.diff(SaveDelta.index(parse(BASE)), parse(next));
+        assertEquals(3, delta.changedEntries());
+        assertTrue(delta.patch().contains("s1"));
+        assertFalse(delta.patch().contains("m1"));
+        assertFalse(delta.patch().contains("fifo"));
+        assertRoundTrip(BASE, next);
+    }
+
+    @Test
+    public void test_diff_add_remove_reorder() throws Exception {
+        // Remove a building, add one, drop one of two identical paths, add a field and remove one
+        String next = "{\"currentTime\":10,"
+            + "\"buildings\":[{\"name\":\"s1\",\"stock\":{\"door\":2}},{\"name\":\"m1\",\"stock\":{\"metal\":1}},"
+            + "{\"name\":\"d1\",\"stock\":{}}],"
+            + "\"paths\":[{\"from\":\"m1\",\"to\":\"f1\"}],"
+            + "\"requests\":[{\"item\":\"door\",\"building\":\"s1\"}]}";
+        assertRoundTrip(BASE, next);
+        assertRoundTrip(next, BASE);
+    }
+
+    @Test
+    public void test_diff_changed_kind() throws Exception {
+        assertRoundTrip(BASE, BASE.replace("\"policies\":{\"request\":\"fifo\",\"source\":\"qlen\"}",
+            "\"policies\":[\"fifo\"]"));
+    }
+
+    @Test
+    public void test_apply_mismatch() throws Exception {
+        String next = BASE.replace("\"door\":2", "\"door\":3");
+        SaveDelta.Delta delta = SaveDelta.diff(SaveDelta.index(parse(BASE)), parse(next));
+        String other = BASE.replace("\"metal\":1", "\"metal\":5");
+        assertThrows(RevisionMismatchException.class, () -> SaveDelta.apply(other, delta.patch()));
+        assertEquals(normalize(next), normalize(SaveDelta.apply(BASE, delta.patch())));
+    }
+}
@@ -0,0 +1,73 @@
+package edu.duke.ece651.factorysim.screen.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BackgroundTasksTest {
+    @Test
+    public void test_submit_success() throws Exception {
+        List<Runnable> callbacks = new ArrayList<>();
+        BackgroundTasks tasks = new BackgroundTasks(Executors.newSingleThreadExecutor(), callbacks::add);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> future = tasks.submit("Saving", () -> {
+            release.await();
+            return 42;
+        }, (result) -> assertEquals(42, result), (e) -> fail());
+
+        assertEquals(1, tasks.getRunningCount());
+        assertEquals("Saving", tasks.getStatus());
+        release.countDown();
+        assertEquals(42, future.get());
+        assertEquals(0, tasks.getRunningCount());
+        assertNull(tasks.getStatus());
+
+        // The callback waits for the render thread
+        assertEquals(1, callbacks.size());
+        callbacks.get(0).run();
+        tasks.close();
+    }
+
+    @Test
+    public void test_submit_error() throws Exception {
+        AtomicReference<Exception> error = new AtomicReference<>();
+        BackgroundTasks tasks = new BackgroundTasks(Executors.newVirtualThreadPerTaskExecutor(), Runnable::run);
+        Future<Object> future = tasks.submit("Loading", () -> {
+            throw new IllegalStateException("offline");
+        }, (result) -> fail(), error::set);
+        assertThrows(ExecutionException.class, future::get);
+        assertEquals("offline", error.get().getMessage());
+        assertEquals(0, tasks.getRunningCount());
+        tasks.close();
+    }
+
+    @Test
+    public void test_status_multiple() {
+        BackgroundTasks tasks = new BackgroundTasks(Executors.newVirtualThreadPerTaskExecutor(), Runnable::run);
+        CountDownLatch release = new CountDownLatch(1);
+        tasks.submit("Saving", () -> { release.await(); return null; }, (r) -> { }, (e) -> { });
+        tasks.submit("Saving to DB", () -> { release.await(); return null; }, (r) -> { }, (e) -> { });
+        assertEquals("Saving (+1)", tasks.getStatus());
+        release.countDown();
+        tasks.close();
+        assertNull(tasks.getStatus());
+    }
+
+    @Test
+    public void test_close() {
+        List<Runnable> callbacks = new ArrayList<>();
+        BackgroundTasks tasks = new BackgroundTasks(Executors.newSingleThreadExecutor(),
+            (r) -> { synchronized (callbacks) { callbacks.add(r); } });
+        List<Integer> results = new ArrayList<>();
+        tasks.submit("Saving", () -> 1, results::add, (e) -> { });
+        tasks.close();
+
+        // Close waits for the running task, but its callback is dropped
+        assertEquals(1, callbacks.size());
+        callbacks.get(0).run();
+        assertTrue(results.isEmpty());
+        assertThrows(IllegalStateException.class, () -> tasks.submit("Saving", () -> 1, (r) -> { }, (e) -> { }));
+    }
+}
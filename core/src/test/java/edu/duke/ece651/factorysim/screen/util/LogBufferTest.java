@@ -0,0 +1,59 @@
+package edu.duke.ece651.factorysim.screen.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogBufferTest {
+    @Test
+    public void test_append_get() {
+        LogBuffer buffer = new LogBuffer(3);
+        buffer.append("a");
+        buffer.append("b");
+        assertEquals(2, buffer.size());
+        assertEquals(3, buffer.getCapacity());
+        assertEquals("a", buffer.get(0));
+        assertEquals("b", buffer.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(2));
+        assertThrows(IllegalArgumentException.class, () -> new LogBuffer(0));
+    }
+
+    @Test
+    public void test_evict() {
+        LogBuffer buffer = new LogBuffer(3);
+        for (int i = 0; i < 7; i++) {
+            buffer.append(Integer.toString(i));
+        }
+        assertEquals(3, buffer.size());
+        assertEquals(7, buffer.getTotalAppended());
+        assertEquals("4", buffer.get(0));
+        assertEquals("5", buffer.get(1));
+        assertEquals("6", buffer.get(2));
+        assertEquals(0, buffer.getSpilledLines());
+
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        buffer.append("x");
+        assertEquals("x", buffer.get(0));
+    }
+
+    @Test
+    public void test_spill(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("log.txt").toFile();
+        LogBuffer buffer = new LogBuffer(2);
+        buffer.enableSpill(file);
+        assertEquals(file, buffer.getSpillFile());
+        for (int i = 0; i < 5; i++) {
+            buffer.append("line " + i);
+        }
+        buffer.close();
+        assertNull(buffer.getSpillFile());
+        assertEquals(3, buffer.getSpilledLines());
+        assertEquals(List.of("line 0", "line 1", "line 2"), Files.readAllLines(file.toPath()));
+        assertEquals("line 3", buffer.get(0));
+    }
+}
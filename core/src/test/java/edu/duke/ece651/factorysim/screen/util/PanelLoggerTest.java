@@ -0,0 +1,49 @@
+package edu.duke.ece651.factorysim.screen.util;
+
+import edu.duke.ece651.factorysim.screen.ui.LogPanel;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PanelLoggerTest {
+    @Test
+    public void test_drain() {
+        LogPanel panel = mock(LogPanel.class);
+        List<String> appended = new ArrayList<>();
+        doAnswer(invocation -> appended.addAll(invocation.getArgument(0))).when(panel).appendLogs(anyList());
+        PanelLogger logger = new PanelLogger(panel, 10);
+        logger.log("a");
+        logger.log("b");
+        verifyNoInteractions(panel);
+
+        assertEquals(2, logger.drain());
+        verify(panel, times(1)).appendLogs(anyList());
+        assertEquals(List.of("a", "b"), appended);
+        assertEquals(0, logger.drain());
+        verifyNoMoreInteractions(panel);
+    }
+
+    @Test
+    public void test_drop() {
+        LogPanel panel = mock(LogPanel.class);
+        PanelLogger logger = new PanelLogger(panel, 2);
+        logger.log("a");
+        logger.log("b");
+        logger.log("c");
+        logger.log("d");
+        assertEquals(2, logger.getDroppedCount());
+
+        assertEquals(2, logger.drain());
+        verify(panel).setDroppedCount(2);
+
+        // The budget is per frame, so draining makes room again
+        logger.log("e");
+        assertEquals(1, logger.drain());
+        assertEquals(2, logger.getDroppedCount());
+        verify(panel, times(1)).setDroppedCount(anyLong());
+
+        assertThrows(IllegalArgumentException.class, () -> logger.setMaxMessagesPerFrame(0));
+    }
+}
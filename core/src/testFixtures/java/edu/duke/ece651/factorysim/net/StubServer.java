@@ -0,0 +1,244 @@
+package edu.duke.ece651.factorysim.net;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-process stand-in for the factorysim server, for tests and benchmarks.
+ * Users, saves and presets are kept in memory, and every request waits for a configurable latency, so the cost of
+ * round-trips can be measured without a real backend.
+ */
+public class StubServer implements ServerApi {
+    private final Map<String, String> users = new HashMap<>();
+    private final Map<String, String> saves = new HashMap<>();
+    private final Map<String, String> presets = new HashMap<>();
+    private volatile Duration latency;
+    private boolean deltaSupported = true;
+    private String currentUser = null;
+    private int requestCount = 0;
+    private long receivedLength = 0;
+    private long sentLength = 0;
+
+    /**
+     * Constructs a stub server that replies immediately.
+     */
+    public StubServer() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * Constructs a stub server.
+     *
+     * @param latency is how long every request takes.
+     */
+    public StubServer(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Sets how long every request takes.
+     *
+     * @param latency is the new latency.
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Sets whether the server accepts save patches, to stand in for servers that don't.
+     *
+     * @param deltaSupported whether patches are accepted.
+     */
+    public synchronized void setDeltaSupported(boolean deltaSupported) {
+        this.deltaSupported = deltaSupported;
+    }
+
+    /**
+     * Adds a preset that can be downloaded.
+     *
+     * @param name is the name of the preset.
+     * @param json is the JSON document of the preset.
+     */
+    public synchronized void addPreset(String name, String json) {
+        presets.put(name, json);
+    }
+
+    /**
+     * Gets the save the server holds for a user.
+     *
+     * @param username is the name of the user.
+     * @return the JSON save document, or null if the user has no save.
+     */
+    public synchronized String getSave(String username) {
+        return saves.get(username);
+    }
+
+    /**
+     * Gets the number of requests the server has handled.
+     *
+     * @return the number of requests.
+     */
+    public synchronized int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Gets the number of characters of saves and patches the server has received.
+     *
+     * @return the number of characters received.
+     */
+    public synchronized long getReceivedLength() {
+        return receivedLength;
+    }
+
+    /**
+     * Gets the number of characters of presets and saves the server has sent.
+     *
+     * @return the number of characters sent.
+     */
+    public synchronized long getSentLength() {
+        return sentLength;
+    }
+
+    /**
+     * Replaces the save of a user, as if it was saved from another client.
+     *
+     * @param username is the name of the user.
+     * @param json is the JSON save document.
+     */
+    public synchronized void putSave(String username, String json) {
+        saves.put(username, json);
+    }
+
+    private void roundTrip() throws InterruptedException {
+        synchronized (this) {
+            requestCount++;
+        }
+        Duration delay = latency;
+        if (!delay.isZero()) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private synchronized String requireLogin() {
+        if (currentUser == null) {
+            throw new IllegalStateException("Not logged in");
+        }
+        return currentUser;
+    }
+
+    @Override
+    public void connect(String host, int port, String username, String password) throws Exception {
+        roundTrip();
+        synchronized (this) {
+            if (!password.equals(users.get(username))) {
+                throw new IllegalArgumentException("Invalid username or password");
+            }
+            currentUser = username;
+        }
+    }
+
+    @Override
+    public void signup(String host, int port, String username, String password) throws Exception {
+        roundTrip();
+        synchronized (this) {
+            if (users.containsKey(username)) {
+                throw new IllegalArgumentException("User " + username + " already exists");
+            }
+            users.put(username, password);
+        }
+    }
+
+    @Override
+    public String loadPreset(String host, int port, String preset) throws Exception {
+        roundTrip();
+        synchronized (this) {
+            String json = presets.get(preset);
+            if (json == null) {
+                throw new IllegalArgumentException("No preset named " + preset);
+            }
+            sentLength += json.length();
+            return json;
+        }
+    }
+
+    @Override
+    public String loadPresetIfChanged(String host, int port, String preset, String knownHash) throws Exception {
+        roundTrip();
+        synchronized (this) {
+            String json = presets.get(preset);
+            if (json == null) {
+                throw new IllegalArgumentException("No preset named " + preset);
+            }
+            if (ContentCache.hash(json).equals(knownHash)) {
+                return null;
+            }
+            sentLength += json.length();
+            return json;
+        }
+    }
+
+    @Override
+    public String loadUserSave() throws Exception {
+        roundTrip();
+        String user = requireLogin();
+        synchronized (this) {
+            String json = saves.get(user);
+            if (json == null) {
+                throw new IllegalStateException("No save found for " + user);
+            }
+            sentLength += json.length();
+            return json;
+        }
+    }
+
+    @Override
+    public String loadUserSaveIfChanged(String knownHash) throws Exception {
+        roundTrip();
+        String user = requireLogin();
+        synchronized (this) {
+            String json = saves.get(user);
+            if (json == null) {
+                throw new IllegalStateException("No save found for " + user);
+            }
+            if (ContentCache.hash(json).equals(knownHash)) {
+                return null;
+            }
+            sentLength += json.length();
+            return json;
+        }
+    }
+
+    @Override
+    public void saveUserSave(String json) throws Exception {
+        roundTrip();
+        String user = requireLogin();
+        synchronized (this) {
+            receivedLength += json.length();
+            saves.put(user, json);
+        }
+    }
+
+    @Override
+    public synchronized boolean supportsSaveDeltas() {
+        return deltaSupported;
+    }
+
+    @Override
+    public void saveUserSaveDelta(String patch) throws Exception {
+        roundTrip();
+        String user = requireLogin();
+        synchronized (this) {
+            if (!deltaSupported) {
+                throw new UnsupportedOperationException("Server doesn't support save patches");
+            }
+            receivedLength += patch.length();
+            String base = saves.get(user);
+            if (base == null) {
+                throw new RevisionMismatchException("No save to patch");
+            }
+            saves.put(user, SaveDelta.apply(base, patch));
+        }
+    }
+}
@@ -3,19 +3,45 @@ package edu.duke.ece651.factorysim.lwjgl3;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import edu.duke.ece651.factorysim.AppWrapper;
+import edu.duke.ece651.factorysim.BatchRunner;
+import edu.duke.ece651.factorysim.BinarySave;
+import edu.duke.ece651.factorysim.CommandReplayer;
 import edu.duke.ece651.factorysim.Constants;
+import edu.duke.ece651.factorysim.FactoryGenerator;
 import edu.duke.ece651.factorysim.FactoryGame;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.ToIntFunction;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
+    private static final Map<String, ToIntFunction<String[]>> TOOLS = Map.of(
+        "-batch", BatchRunner::runFromArgs,
+        "-generate", FactoryGenerator::runFromArgs,
+        "-convert", BinarySave::runFromArgs,
+        "-replay", CommandReplayer::runFromArgs
+    );
+
     public static void main(String[] args) throws IOException {
+        // Headless tools, each taking the arguments after its flag and returning the exit code
+        ToIntFunction<String[]> tool = TOOLS.get(args.length > 1 ? args[0] : "");
+        if (tool != null) {
+            System.exit(tool.applyAsInt(Arrays.copyOfRange(args, 1, args.length)));
+            return;
+        }
+
         if (args.length > 0) {
             if (!(args[0].equals("-nw")) || args.length == 1) {
                 System.err.println("Usage: app");
                 System.err.println("       app -nw <file_path>");
                 System.err.println("       app -nw <host> <port> <preset_path>");
                 System.err.println("       app -nw <host> <port> <username> <password>");
+                System.err.println("       app -batch <save_path> [-steps <n>] [-report <report_path>] [-log]");
+                System.err.println("       app -generate <save_path> [-buildings <n>] [-mines <n>] [-factories <n>]"
+                    + " [-storages <n>] [-droneports <n>] [-depth <d>] [-density <0..1>] [-seed <s>]");
+                System.err.println("       app -convert <in_path> <out_path>");
+                System.err.println("       app -replay <journal_path> [-report <report_path>] [-log]");
                 System.exit(1);
                 return;
             }